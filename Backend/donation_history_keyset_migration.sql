@@ -0,0 +1,5 @@
+-- Donor history is paged by (donated_at, donation_id); backfill rows saved without a donation date
+UPDATE donations SET donated_at = created_at WHERE donated_at IS NULL;
+
+-- Created automatically by ddl-auto=update on new databases; run manually on existing ones
+CREATE INDEX idx_donation_donor_donated ON donations (donor_id, donated_at, donation_id);
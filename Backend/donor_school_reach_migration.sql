@@ -0,0 +1,5 @@
+-- Created automatically by ddl-auto=update on new databases; run manually on existing ones.
+-- Covers the per-donor re-derivation of donor_school_reach from the school ledger.
+CREATE INDEX idx_ledger_donor_status_school ON school_donation_ledger (donor_id, payment_status, school_id);
+
+-- donor_school_reach itself is filled on the first start after upgrade (it is rebuilt when empty)
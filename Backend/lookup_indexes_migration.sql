@@ -0,0 +1,6 @@
+-- Created automatically by ddl-auto=update on new databases; run manually on existing ones.
+-- Back the derived repository lookups that replaced findAll-then-filter scans.
+-- (ngos.user_id / registration_number are unique, and the foreign key columns already carry indexes.)
+CREATE INDEX idx_ngo_verification_status ON ngos (verification_status);
+CREATE INDEX idx_nps_participation_status ON ngo_project_schools (participation_status);
+CREATE INDEX idx_fund_transparency_public ON fund_transparency (is_public);
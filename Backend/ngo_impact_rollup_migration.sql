@@ -0,0 +1,9 @@
+-- The NGO impact rollup buckets donations by donated_at; backfill rows saved without a donation date
+UPDATE ngo_student_donations SET donated_at = COALESCE(created_at, NOW()) WHERE donated_at IS NULL;
+UPDATE ngo_project_donations SET donated_at = COALESCE(created_at, NOW()) WHERE donated_at IS NULL;
+
+-- Created automatically by ddl-auto=update on new databases; run manually on existing ones
+CREATE INDEX idx_nsd_ngo_donated ON ngo_student_donations (ngo_id, donated_at);
+CREATE INDEX idx_nsd_updated ON ngo_student_donations (updated_at);
+CREATE INDEX idx_npd_ngo_donated ON ngo_project_donations (ngo_id, donated_at);
+CREATE INDEX idx_npd_updated ON ngo_project_donations (updated_at);
@@ -0,0 +1,15 @@
+-- At most one TRANSACTION_STATUS_CHANGED event per transaction and status.
+-- Created automatically by ddl-auto=update on new databases; run manually on existing ones.
+ALTER TABLE outbox_events ADD COLUMN dedup_key VARCHAR(100) NULL;
+
+-- Existing duplicates keep their first event only
+UPDATE outbox_events e
+JOIN (SELECT MIN(event_id) AS event_id,
+             CONCAT('STATUS:', JSON_UNQUOTE(JSON_EXTRACT(payload, '$.transactionId')), ':',
+                    JSON_UNQUOTE(JSON_EXTRACT(payload, '$.status'))) AS dedup_key
+      FROM outbox_events
+      WHERE event_type = 'TRANSACTION_STATUS_CHANGED'
+      GROUP BY dedup_key) first_event ON first_event.event_id = e.event_id
+SET e.dedup_key = first_event.dedup_key;
+
+CREATE UNIQUE INDEX uk_outbox_dedup_key ON outbox_events (dedup_key);
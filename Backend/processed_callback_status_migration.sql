@@ -0,0 +1,17 @@
+-- processed_callbacks is keyed on (transaction_reference, resulting_status) instead of the reference
+-- alone, so a SUCCESS callback that follows a recorded FAIL/CANCEL is no longer dropped as a replay.
+-- Created automatically by ddl-auto=update on new databases; run manually on existing ones.
+CREATE UNIQUE INDEX uk_processed_callback_status ON processed_callbacks (transaction_reference, resulting_status);
+
+-- Drop the old single-column unique index, whose name Hibernate generated
+SET @old_index = (SELECT index_name FROM information_schema.statistics
+                  WHERE table_schema = DATABASE() AND table_name = 'processed_callbacks'
+                    AND non_unique = 0 AND index_name NOT IN ('PRIMARY', 'uk_processed_callback_status')
+                  GROUP BY index_name
+                  HAVING COUNT(*) = 1 AND MAX(column_name) = 'transaction_reference'
+                  LIMIT 1);
+SET @drop_sql = IF(@old_index IS NULL, 'SELECT 1',
+                   CONCAT('ALTER TABLE processed_callbacks DROP INDEX `', @old_index, '`'));
+PREPARE drop_old_index FROM @drop_sql;
+EXECUTE drop_old_index;
+DEALLOCATE PREPARE drop_old_index;
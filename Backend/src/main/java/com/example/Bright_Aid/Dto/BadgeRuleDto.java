@@ -0,0 +1,28 @@
+package com.example.Bright_Aid.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BadgeRuleDto {
+
+    private Integer ruleId;
+
+    // BADGE or LEVEL
+    private String ruleType;
+
+    private String name;
+
+    private Integer minPoints;
+
+    private Boolean active;
+
+    private LocalDateTime updatedAt;
+}
@@ -31,4 +31,6 @@ public class DistrictDto {
     private List<Integer> upazilaIds;
 
     private List<Integer> schoolIds;
+
+    private Integer schoolCount;
 }
\ No newline at end of file
@@ -26,5 +26,7 @@ public class DivisionDto {
 
     private List<Integer> schoolIds;
 
+    private Integer schoolCount;
+
     private List<Integer> donorIds;
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.Bright_Aid.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationImportResultDto {
+
+    private long totalRows;
+
+    private long importedRows;
+
+    private long failedRows;
+
+    // Only the first errors are kept so a bad multi-million row file cannot exhaust memory
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long rowNumber;
+        private String message;
+    }
+}
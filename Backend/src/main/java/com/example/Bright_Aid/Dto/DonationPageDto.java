@@ -0,0 +1,22 @@
+package com.example.Bright_Aid.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationPageDto {
+
+    private List<DonationDto> items;
+
+    // Opaque cursor for the next page; null on the last page
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package com.example.Bright_Aid.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+
+    // 1-based; donors with equal points share a rank
+    private Integer rank;
+
+    private Integer donorId;
+
+    private String donorName;
+
+    private Integer totalPoints;
+}
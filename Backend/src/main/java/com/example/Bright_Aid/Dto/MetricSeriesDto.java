@@ -0,0 +1,27 @@
+package com.example.Bright_Aid.Dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Columnar time series: time[i] is the start of bucket i, and every array under
+// series.<metric>.<aggregate> is index-aligned with it. Buckets without snapshots are omitted.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricSeriesDto {
+
+    private String bucket;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private List<LocalDate> time;
+
+    // metric -> aggregate (min, max, avg; "value" for daily buckets) -> values
+    private Map<String, Map<String, List<Object>>> series;
+}
@@ -28,4 +28,16 @@ public class NgoGamificationDTO {
     private BigDecimal impactScore;
 
     private Integer ngoId;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private BigDecimal totalDonated;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer completedDonations;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer studentsHelped;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer schoolsReached;
 }
@@ -0,0 +1,24 @@
+package com.example.Bright_Aid.Dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NgoImpactDayDto {
+
+    private LocalDate day;
+
+    private BigDecimal amountDonated;
+
+    private Integer donations;
+
+    // Distinct within the day
+    private Integer studentsReached;
+
+    private Integer schoolsReached;
+}
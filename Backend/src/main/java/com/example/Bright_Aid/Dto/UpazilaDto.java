@@ -32,4 +32,6 @@ public class UpazilaDto {
     private String upazilaCode;
 
     private List<Integer> schoolIds;
+
+    private Integer schoolCount;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// High-water mark of an incremental aggregation job: source rows updated at or before
+// `watermark` are already reflected in the job's rollup table
+@Entity
+@Table(name = "aggregation_watermarks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregationWatermark {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "watermark", nullable = false)
+    private LocalDateTime watermark;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Points threshold for a donor badge or level. A donor holds every active BADGE whose threshold
+// they have reached, and the LEVEL with the highest threshold reached.
+@Entity
+@Table(name = "badge_rules", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_badge_rule_type_name", columnNames = {"rule_type", "name"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BadgeRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rule_id")
+    private Integer ruleId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false, length = 20)
+    private RuleType ruleType;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "min_points", nullable = false)
+    private Integer minPoints;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum RuleType {
+        BADGE, LEVEL
+    }
+}
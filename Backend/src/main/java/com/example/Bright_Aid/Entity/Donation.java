@@ -9,7 +9,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "donations")
+@Table(name = "donations", indexes = {
+        // Keyset pagination of a donor's history: donor_id = ? ORDER BY donated_at DESC, donation_id DESC
+        @Index(name = "idx_donation_donor_donated", columnList = "donor_id, donated_at, donation_id")
+})
 @Data
 @SuperBuilder
 @NoArgsConstructor
@@ -78,6 +81,14 @@ public class Donation extends BaseEntity {
     @OneToOne(mappedBy = "donation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private FundUtilization fundUtilization;
 
+    // donated_at is the history sort key, so it is never left NULL
+    @PrePersist
+    protected void defaultDonatedAt() {
+        if (donatedAt == null) {
+            donatedAt = LocalDateTime.now();
+        }
+    }
+
     public enum DonationType {
         ONE_TIME, MONTHLY, YEARLY
     }
@@ -0,0 +1,33 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// One row per (donor, school) pair the donor has reached with a completed donation, holding how
+// many such donations there are. A donor's row count is their unique-schools figure, and the
+// schools reached by a group of donors is one DISTINCT over their rows.
+// Derived from school_donation_ledger by SchoolDonationLedgerService; never edited directly.
+@Entity
+@Table(name = "donor_school_reach", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_donor_school_reach", columnNames = {"donor_id", "school_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonorSchoolReach {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reach_id")
+    private Long reachId;
+
+    @Column(name = "donor_id", nullable = false)
+    private Integer donorId;
+
+    @Column(name = "school_id", nullable = false)
+    private Integer schoolId;
+
+    @Column(name = "donation_count", nullable = false)
+    private Integer donationCount;
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "fund_transparency")
+@Table(name = "fund_transparency", indexes = {
+        @Index(name = "idx_fund_transparency_public", columnList = "is_public")
+})
 @Data
 @SuperBuilder
 @NoArgsConstructor
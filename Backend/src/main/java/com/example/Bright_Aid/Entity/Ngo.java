@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "ngos")
+@Table(name = "ngos", indexes = {
+        @Index(name = "idx_ngo_verification_status", columnList = "verification_status")
+})
 @Data
 @SuperBuilder
 @NoArgsConstructor
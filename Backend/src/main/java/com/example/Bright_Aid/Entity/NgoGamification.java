@@ -32,4 +32,15 @@ public class NgoGamification {
 
     @Column(unique = true)
     private Integer ngoId;
+
+    // Impact counters, maintained incrementally by NgoGamificationService from NGO donation writes
+    // and re-derived from the donation tables by its nightly reconciliation
+    @Column(precision = 15, scale = 2)
+    private BigDecimal totalDonated;
+
+    private Integer completedDonations;
+
+    private Integer studentsHelped;
+
+    private Integer schoolsReached;
 }
@@ -0,0 +1,48 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Daily NGO impact rollup: one row per NGO per donation day, aggregated from the counted rows of
+// ngo_student_donations and ngo_project_donations. Rolled forward by NgoImpactRollupService from
+// a watermark; students/schools are distinct within the day.
+@Entity
+@Table(name = "ngo_impact_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ngo_impact_daily_ngo_day", columnNames = {"ngo_id", "day"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NgoImpactDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Column(name = "ngo_id", nullable = false)
+    private Integer ngoId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "amount_donated", precision = 15, scale = 2, nullable = false)
+    private BigDecimal amountDonated;
+
+    @Column(name = "donations", nullable = false)
+    private Integer donations;
+
+    @Column(name = "students_reached", nullable = false)
+    private Integer studentsReached;
+
+    @Column(name = "schools_reached", nullable = false)
+    private Integer schoolsReached;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -8,7 +8,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ngo_project_schools")
+@Table(name = "ngo_project_schools", indexes = {
+        @Index(name = "idx_nps_participation_status", columnList = "participation_status")
+})
 @Data
 @SuperBuilder
 @NoArgsConstructor
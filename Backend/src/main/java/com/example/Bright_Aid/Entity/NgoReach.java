@@ -0,0 +1,41 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// One row per (NGO, student) and (NGO, school) pair the NGO has reached with a counted donation,
+// holding how many such donations there are. The pair count per NGO is its distinct
+// students-helped / schools-reached figure, so both can be maintained incrementally:
+// the first donation inserts the row, the last reversal deletes it.
+@Entity
+@Table(name = "ngo_reach", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ngo_reach_target", columnNames = {"ngo_id", "reach_type", "target_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NgoReach {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reach_id")
+    private Long reachId;
+
+    @Column(name = "ngo_id", nullable = false)
+    private Integer ngoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reach_type", nullable = false, length = 20)
+    private ReachType reachType;
+
+    @Column(name = "target_id", nullable = false)
+    private Integer targetId;
+
+    @Column(name = "donation_count", nullable = false)
+    private Integer donationCount;
+
+    public enum ReachType {
+        STUDENT, SCHOOL
+    }
+}
@@ -6,7 +6,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ngo_student_donations")
+@Table(name = "ngo_student_donations", indexes = {
+        @Index(name = "idx_nsd_ngo_donated", columnList = "ngo_id, donated_at"),
+        @Index(name = "idx_nsd_updated", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,6 +48,15 @@ public class NgoStudentDonations {
 
     private Integer transactionId;
 
+    // donated_at is the day key of the NGO impact rollup, so it is never left NULL
+    @PrePersist
+    @PreUpdate
+    protected void defaultDonatedAt() {
+        if (donatedAt == null) {
+            donatedAt = LocalDateTime.now();
+        }
+    }
+
     // ===================== ENUMS =====================
     public enum DonationType {
         MONTHLY,
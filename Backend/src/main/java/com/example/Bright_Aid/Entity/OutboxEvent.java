@@ -0,0 +1,72 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Durable outbox row written in the same transaction as the state change it describes.
+// Consumers mark it PROCESSED; anything left PENDING after a restart is picked up again.
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_status_type_id", columnList = "status, event_type, event_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbox_dedup_key", columnNames = "dedup_key")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+
+    // Business key of the aggregate, e.g. the payment transaction reference
+    @Column(name = "aggregate_reference", nullable = false)
+    private String aggregateReference;
+
+    // Set on events that must exist at most once, e.g. STATUS:<transactionId>:<status>; NULL otherwise
+    @Column(name = "dedup_key", length = 100)
+    private String dedupKey;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", columnDefinition = "JSON")
+    private Map<String, Object> payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public enum EventType {
+        PAYMENT_COMPLETED,
+        TRANSACTION_STATUS_CHANGED
+    }
+
+    public enum OutboxStatus {
+        PENDING, PROCESSED, FAILED
+    }
+}
@@ -6,7 +6,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payment_transactions")
+@Table(name = "payment_transactions", indexes = {
+        // Range scan for the stale-PENDING sweeper: status = 'PENDING' AND initiated_at < cutoff
+        @Index(name = "idx_payment_status_initiated", columnList = "status, initiated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,38 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Donor points awarded but not yet folded into donor_gamification.total_points.
+// Written in the same transaction as the outbox event it came from; a row is deleted by the
+// flush that applies it, so whatever is left here after a crash is exactly what is still owed.
+@Entity
+@Table(name = "point_journal", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_point_journal_event", columnNames = {"source_event_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointJournal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "journal_id")
+    private Long journalId;
+
+    @Column(name = "donor_id", nullable = false)
+    private Integer donorId;
+
+    @Column(name = "points", nullable = false)
+    private Integer points;
+
+    // Outbox event that awarded the points
+    @Column(name = "source_event_id")
+    private Long sourceEventId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
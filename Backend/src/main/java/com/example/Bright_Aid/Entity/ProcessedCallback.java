@@ -0,0 +1,39 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Ledger of SSLCommerz callbacks already applied to a transaction.
+// One row per transaction reference and resulting status: replays of the same outcome are answered
+// from here, while a different outcome (a SUCCESS IPN after a browser cancel) still gets its turn.
+@Entity
+@Table(name = "processed_callbacks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_processed_callback_status", columnNames = {"transaction_reference", "resulting_status"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedCallback {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "callback_id")
+    private Long callbackId;
+
+    @Column(name = "transaction_reference", nullable = false)
+    private String transactionReference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resulting_status", nullable = false)
+    private PaymentTransaction.TransactionStatus resultingStatus;
+
+    // Which endpoint delivered the callback first (SUCCESS, FAIL, CANCEL or IPN)
+    @Column(name = "callback_source", length = 20)
+    private String callbackSource;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
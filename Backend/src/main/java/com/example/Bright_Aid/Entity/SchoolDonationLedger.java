@@ -0,0 +1,55 @@
+package com.example.Bright_Aid.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read model for school dashboards: one row per donation that reached a school, with the
+// school already resolved (through the student or the project) and display labels copied in.
+// Maintained by SchoolDonationLedgerService on every donation write; never edited directly.
+@Entity
+@Table(name = "school_donation_ledger", indexes = {
+        @Index(name = "idx_ledger_school_donated", columnList = "school_id, donated_at, donation_id"),
+        // Covers the per-donor reach re-derivation (donor_school_reach)
+        @Index(name = "idx_ledger_donor_status_school", columnList = "donor_id, payment_status, school_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchoolDonationLedger {
+
+    @Id
+    @Column(name = "donation_id")
+    private Integer donationId;
+
+    @Column(name = "school_id", nullable = false)
+    private Integer schoolId;
+
+    @Column(name = "donor_id")
+    private Integer donorId;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private Donation.PaymentStatus paymentStatus;
+
+    @Column(name = "donated_at", nullable = false)
+    private LocalDateTime donatedAt;
+
+    @Column(name = "transaction_ref", length = 100)
+    private String transactionRef;
+
+    @Column(name = "donor_name")
+    private String donorName;
+
+    @Column(name = "recipient_name")
+    private String recipientName;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
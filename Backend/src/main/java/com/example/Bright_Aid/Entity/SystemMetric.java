@@ -7,8 +7,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// Daily platform snapshot, written by SystemMetricService (one row per metric_date)
 @Entity
-@Table(name = "system_metrics")
+@Table(name = "system_metrics", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_system_metrics_date", columnNames = {"metric_date"})
+})
 @Data
 @Builder
 @NoArgsConstructor
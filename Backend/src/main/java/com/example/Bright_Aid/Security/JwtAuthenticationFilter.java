@@ -1,6 +1,6 @@
 package com.example.Bright_Aid.Security;
 
-import org.springframework.security.core.userdetails.UserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,13 +20,16 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
+// Stateless fast path: the token is parsed and verified once, authorities come from its signed
+// roles claim, and the user's status (active, role, password version) comes from UserStatusCache
+// rather than a user query per request.
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
    private final JwtUtil jwtUtil;
-   private final UserDetailsService userDetailsService;
+   private final UserStatusCache userStatusCache;
 
    // Paths that should skip JWT authentication
    private static final List<String> PUBLIC_PATHS = Arrays.asList(
@@ -61,22 +65,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
        try {
            final String jwt = authHeader.substring(7);
-           final String userEmail = jwtUtil.extractUsername(jwt);
+           // Signature and expiry are checked here; an invalid token throws
+           final Claims claims = jwtUtil.parseToken(jwt);
+           final String userEmail = claims.getSubject();
 
            // If we have a username and no authentication set yet
            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-               UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+               UserStatusCache.UserStatus status = userStatusCache.get(userEmail);
+               List<String> roles = rolesOf(claims);
 
-               // Validate token
-               if (jwtUtil.validateToken(jwt, userDetails)) {
+               if (status != null && status.accepts(roles, claims.get(JwtUtil.CREDENTIALS_VERSION_CLAIM, String.class))) {
+                   List<SimpleGrantedAuthority> authorities = (roles != null ? roles : List.of(status.role())).stream()
+                           .map(SimpleGrantedAuthority::new)
+                           .toList();
+                   UserDetails userDetails = new org.springframework.security.core.userdetails.User(
+                           userEmail, "", authorities);
                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                            userDetails,
                            null,
-                           userDetails.getAuthorities()
+                           authorities
                    );
                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                    SecurityContextHolder.getContext().setAuthentication(authToken);
                    log.debug("Successfully authenticated user: {}", userEmail);
+               } else {
+                   log.debug("Rejected token of {}: user removed, inactive or changed since issue", userEmail);
                }
            }
        } catch (Exception e) {
@@ -88,6 +101,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
        filterChain.doFilter(request, response);
    }
 
+   // Null for tokens issued before the roles claim was added
+   private List<String> rolesOf(Claims claims) {
+       Object roles = claims.get(JwtUtil.ROLES_CLAIM);
+       if (!(roles instanceof List<?> list)) {
+           return null;
+       }
+       return list.stream().map(String::valueOf).toList();
+   }
+
    private boolean isPublicPath(String requestPath) {
        return PUBLIC_PATHS.stream().anyMatch(requestPath::startsWith);
    }
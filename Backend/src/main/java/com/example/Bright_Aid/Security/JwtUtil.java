@@ -2,25 +2,47 @@ package com.example.Bright_Aid.Security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    // Signed claims read by JwtAuthenticationFilter instead of loading the user
+    public static final String ROLES_CLAIM = "roles";
+    public static final String CREDENTIALS_VERSION_CLAIM = "cv";
+
     @Value("${jwt.secret:mySecretKey}")
     private String secret;
 
     @Value("${jwt.expiration:86400}")
     private int jwtExpiration;
 
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.signKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signKey).build();
+    }
+
+    // Verifies signature and expiry in a single parse; throws JwtException when either fails
+    public Claims parseToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -35,11 +57,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseToken(token);
     }
 
     private Boolean isTokenExpired(String token) {
@@ -47,7 +65,19 @@ public class JwtUtil {
     }
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, null);
+    }
+
+    // credentialsVersion ties the token to the password it was issued for (see UserStatusCache)
+    public String generateToken(UserDetails userDetails, String credentialsVersion) {
         Map<String, Object> claims = new HashMap<>();
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        claims.put(ROLES_CLAIM, roles);
+        if (credentialsVersion != null) {
+            claims.put(CREDENTIALS_VERSION_CLAIM, credentialsVersion);
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -56,8 +86,8 @@ public class JwtUtil {
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration * 1000))
-                .signWith(getSignKey())
+                .expiration(new Date(System.currentTimeMillis() + jwtExpiration * 1000L))
+                .signWith(signKey)
                 .compact();
     }
 
@@ -65,9 +95,4 @@ public class JwtUtil {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
-
-    private SecretKey getSignKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-}
\ No newline at end of file
+}
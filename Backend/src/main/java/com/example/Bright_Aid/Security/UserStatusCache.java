@@ -0,0 +1,138 @@
+package com.example.Bright_Aid.Security;
+
+import com.example.Bright_Aid.Entity.User;
+import com.example.Bright_Aid.event.UserAccountChangedEvent;
+import com.example.Bright_Aid.repository.UserRepository;
+import com.example.Bright_Aid.repository.projection.UserStatusView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// What the JWT filter needs to know about a token's user, without a query per request.
+// Bounded (least recently used entry evicted once full) and time-limited. Entries are dropped after
+// commit of any write to the user (UserAccountChangedEvent); the TTL covers writes made on another
+// instance. Unknown emails are cached too, so a token of a deleted user does not query on every request.
+// A lookup that overlapped an eviction may have read the row before the change committed: it answers
+// its own request but is not stored, so the next request reads the changed row.
+@Service
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<String, CachedStatus> statuses;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Bumped by every account change under the map's lock; a lookup stores only if it has not moved.
+    // One counter rather than one per email keeps it bounded; account changes are rare enough that
+    // an unrelated one merely costs a concurrent lookup its cache entry.
+    private final AtomicLong generation = new AtomicLong();
+
+    // credentialsVersion fingerprints the password hash: a password change revokes older tokens
+    public record UserStatus(Integer userId, boolean active, User.UserType userType, String credentialsVersion) {
+
+        public String role() {
+            return userType != null ? "ROLE_" + userType.name() : "ROLE_USER";
+        }
+
+        // Tokens issued before the role claims existed carry neither claim and fall back to the stored role
+        public boolean accepts(List<String> tokenRoles, String tokenCredentialsVersion) {
+            if (!active) {
+                return false;
+            }
+            if (tokenRoles != null && !tokenRoles.equals(List.of(role()))) {
+                return false; // role changed since the token was issued
+            }
+            return tokenCredentialsVersion == null || tokenCredentialsVersion.equals(credentialsVersion);
+        }
+    }
+
+    private record CachedStatus(UserStatus status, long loadedAtNanos) {
+    }
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${jwt.user-status-cache.size:10000}") int maxEntries,
+                           @Value("${jwt.user-status-cache.ttl-ms:300000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        // Access-ordered LinkedHashMap evicts the least recently used user once full
+        this.statuses = Collections.synchronizedMap(
+                new LinkedHashMap<>(256, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CachedStatus> eldest) {
+                        return size() > maxEntries;
+                    }
+                });
+    }
+
+    // Null when no user has this email
+    public UserStatus get(String email) {
+        CachedStatus cached = statuses.get(email);
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() <= ttlNanos) {
+            hits.incrementAndGet();
+            return cached.status();
+        }
+        misses.incrementAndGet();
+        long seen = generation.get();
+        UserStatus status = userRepository.findStatusByEmail(email)
+                .map(UserStatusCache::toStatus)
+                .orElse(null);
+        synchronized (statuses) {
+            if (generation.get() == seen) {
+                statuses.put(email, new CachedStatus(status, System.nanoTime()));
+            }
+        }
+        return status;
+    }
+
+    // After commit, so the next lookup reads the changed row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (event.email() == null) {
+            return;
+        }
+        synchronized (statuses) {
+            generation.incrementAndGet();
+            if (statuses.remove(event.email()) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public static String credentialsVersion(String passwordHash) {
+        if (passwordHash == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UserStatus toStatus(UserStatusView view) {
+        return new UserStatus(view.getUserId(), Boolean.TRUE.equals(view.getIsActive()),
+                view.getUserType(), credentialsVersion(view.getPasswordHash()));
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", statuses.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.Bright_Aid.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Bounded pool for outbound SSLCommerz calls so a slow gateway can never eat Tomcat threads
+    @Bean(name = "gatewayExecutor")
+    public ThreadPoolTaskExecutor gatewayExecutor(
+            @Value("${sslcommerz.gateway.pool-size:16}") int poolSize,
+            @Value("${sslcommerz.gateway.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sslcommerz-");
+        // A full queue rejects the call (RejectedExecutionException) and the controller answers 503;
+        // running it on the caller instead would pin a Tomcat thread on the gateway round-trip
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Bounded consumer pool for post-payment events. No caller-runs fallback here: a full queue
+    // leaves the outbox row PENDING for the poller rather than slowing the payment callback.
+    @Bean(name = "paymentEventExecutor")
+    public ThreadPoolTaskExecutor paymentEventExecutor(
+            @Value("${payment.events.pool-size:4}") int poolSize,
+            @Value("${payment.events.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-events-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    // One thread for long-running maintenance jobs started on demand (e.g. badge recompute),
+    // so they never run on a request thread or hold up the scheduler
+    @Bean(name = "maintenanceExecutor")
+    public ThreadPoolTaskExecutor maintenanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("maintenance-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Geo tree rebuilds after geo and school writes, off the committing request thread. Its own thread,
+    // so a rebuild never waits behind a long maintenance job; GeoTreeCache keeps at most one queued
+    @Bean(name = "geoCacheExecutor")
+    public ThreadPoolTaskExecutor geoCacheExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("geo-cache-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs the independent aggregate queries of a system metric snapshot side by side
+    @Bean(name = "metricsExecutor")
+    public ThreadPoolTaskExecutor metricsExecutor(
+            @Value("${metrics.snapshot.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("metrics-");
+        executor.initialize();
+        return executor;
+    }
+}
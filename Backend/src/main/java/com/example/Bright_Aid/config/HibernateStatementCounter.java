@@ -0,0 +1,31 @@
+package com.example.Bright_Aid.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread (JPA, JPQL and native
+// repository queries alike; plain JdbcTemplate calls do not go through here).
+// RequestQueryMetricsFilter opens a count per request and reads it back at the end.
+public class HibernateStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    // Statements since start(); clears the count
+    public static long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.Bright_Aid.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Request and query instrumentation, scraped from /actuator/prometheus.
+// Endpoint latency (http.server.requests) and per-repository-method timings
+// (spring.data.repository.invocations) come from Spring Boot; this adds the per-request
+// Hibernate statement count.
+@Configuration
+public class MetricsConfig {
+
+    private final HibernateStatementCounter statementCounter = new HibernateStatementCounter();
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestQueryMetricsFilter> requestQueryMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${metrics.queries.warn-threshold:50}") long warnThreshold) {
+        FilterRegistrationBean<RequestQueryMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestQueryMetricsFilter(meterRegistry, warnThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
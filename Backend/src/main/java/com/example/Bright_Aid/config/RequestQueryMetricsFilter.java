@@ -0,0 +1,57 @@
+package com.example.Bright_Aid.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many Hibernate statements each request ran (http.server.requests.hibernate.statements,
+// tagged like http.server.requests) and logs requests above the warn threshold, which is where
+// N+1 fan-outs show up. Registered ahead of Spring Security so the JWT user lookup is counted too.
+@Slf4j
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final long warnThreshold;
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry, long warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HibernateStatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = HibernateStatementCounter.stop();
+            // Route template, not the raw path, so ids do not explode the tag space
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("http.server.requests.hibernate.statements")
+                    .description("Hibernate statements executed per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ran {} Hibernate statements", request.getMethod(), request.getRequestURI(), statements);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.Bright_Aid.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Turns on @Scheduled background jobs (outbox re-delivery and the like)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
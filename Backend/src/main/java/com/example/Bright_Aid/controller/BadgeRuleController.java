@@ -0,0 +1,77 @@
+package com.example.Bright_Aid.controller;
+
+import com.example.Bright_Aid.Dto.BadgeRuleDto;
+import com.example.Bright_Aid.service.BadgeRecomputeService;
+import com.example.Bright_Aid.service.BadgeRuleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Donor badge/level thresholds. Every rule change starts a bulk badge recompute in the background;
+// progress is at GET /api/badge-rules/recompute.
+@RestController
+@RequestMapping("/api/badge-rules")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class BadgeRuleController {
+
+    private final BadgeRuleService badgeRuleService;
+    private final BadgeRecomputeService badgeRecomputeService;
+
+    @GetMapping
+    public ResponseEntity<List<BadgeRuleDto>> getAllRules() {
+        return ResponseEntity.ok(badgeRuleService.getAllRules());
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createRule(@RequestBody BadgeRuleDto rule) {
+        try {
+            BadgeRuleDto saved = badgeRuleService.createRule(rule);
+            badgeRecomputeService.startRecompute();
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/{ruleId}")
+    public ResponseEntity<?> updateRule(@PathVariable Integer ruleId, @RequestBody BadgeRuleDto rule) {
+        try {
+            Optional<BadgeRuleDto> saved = badgeRuleService.updateRule(ruleId, rule);
+            if (saved.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            badgeRecomputeService.startRecompute();
+            return ResponseEntity.ok(saved.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Integer ruleId) {
+        if (!badgeRuleService.deleteRule(ruleId)) {
+            return ResponseEntity.notFound().build();
+        }
+        badgeRecomputeService.startRecompute();
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/recompute")
+    public ResponseEntity<Map<String, Object>> recompute() {
+        boolean started = badgeRecomputeService.startRecompute();
+        Map<String, Object> status = badgeRecomputeService.getStatus();
+        status.put("started", started);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/recompute")
+    public ResponseEntity<Map<String, Object>> getRecomputeStatus() {
+        return ResponseEntity.ok(badgeRecomputeService.getStatus());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.DistrictDto;
 import com.example.Bright_Aid.service.DistrictService;
+import com.example.Bright_Aid.service.ReferenceDataCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -17,6 +18,7 @@ import java.util.List;
 public class DistrictController {
 
     private final DistrictService districtService;
+    private final ReferenceDataCache referenceDataCache;
 
     @PostMapping
     public ResponseEntity<DistrictDto> saveDistrict(@Valid @RequestBody DistrictDto districtDto) {
@@ -24,10 +26,14 @@ public class DistrictController {
         return new ResponseEntity<>(savedDistrict, HttpStatus.CREATED);
     }
 
+    // Served from ReferenceDataCache; a matching If-None-Match gets 304
     @GetMapping
     public ResponseEntity<List<DistrictDto>> getAllDistricts() {
-        List<DistrictDto> districts = districtService.getAllDistricts();
-        return ResponseEntity.ok(districts);
+        ReferenceDataCache.Snapshot<List<DistrictDto>> districts = referenceDataCache.getDistricts();
+        return ResponseEntity.ok()
+                .eTag(districts.etag())
+                .cacheControl(referenceDataCache.getCacheControl())
+                .body(districts.body());
     }
 
     @GetMapping("/{districtId}")
@@ -2,6 +2,8 @@ package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.DivisionDto;
 import com.example.Bright_Aid.service.DivisionService;
+import com.example.Bright_Aid.service.GeoTreeCache;
+import com.example.Bright_Aid.service.ReferenceDataCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/divisions")
@@ -17,6 +20,8 @@ import java.util.List;
 public class DivisionController {
 
     private final DivisionService divisionService;
+    private final GeoTreeCache geoTreeCache;
+    private final ReferenceDataCache referenceDataCache;
 
     @PostMapping
     public ResponseEntity<DivisionDto> saveDivision(@Valid @RequestBody DivisionDto divisionDto) {
@@ -24,10 +29,14 @@ public class DivisionController {
         return new ResponseEntity<>(savedDivision, HttpStatus.CREATED);
     }
 
+    // Served from ReferenceDataCache; a matching If-None-Match gets 304
     @GetMapping
     public ResponseEntity<List<DivisionDto>> getAllDivisions() {
-        List<DivisionDto> divisions = divisionService.getAllDivisions();
-        return ResponseEntity.ok(divisions);
+        ReferenceDataCache.Snapshot<List<DivisionDto>> divisions = referenceDataCache.getDivisions();
+        return ResponseEntity.ok()
+                .eTag(divisions.etag())
+                .cacheControl(referenceDataCache.getCacheControl())
+                .body(divisions.body());
     }
 
     @GetMapping("/{divisionId}")
@@ -54,5 +63,9 @@ public class DivisionController {
         return ResponseEntity.ok(schoolIds);
     }
 
-
+    // Version, size and reload counters of the in-memory geo tree
+    @GetMapping("/tree/stats")
+    public ResponseEntity<Map<String, Object>> getGeoTreeStats() {
+        return ResponseEntity.ok(geoTreeCache.getStats());
+    }
 }
\ No newline at end of file
@@ -1,15 +1,23 @@
 package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.DonationDto;
+import com.example.Bright_Aid.Dto.DonationImportResultDto;
+import com.example.Bright_Aid.Dto.DonationPageDto;
 import com.example.Bright_Aid.Entity.Donation;
+import com.example.Bright_Aid.service.DonationExportService;
+import com.example.Bright_Aid.service.DonationImportService;
 import com.example.Bright_Aid.service.DonationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/donations")
@@ -18,6 +26,8 @@ import java.util.List;
 public class DonationController {
 
     private final DonationService donationService;
+    private final DonationImportService donationImportService;
+    private final DonationExportService donationExportService;
 
     @PostMapping
     public ResponseEntity<DonationDto> saveDonation(@Valid @RequestBody DonationDto donationDto) {
@@ -25,6 +35,17 @@ public class DonationController {
         return new ResponseEntity<>(savedDonation, HttpStatus.CREATED);
     }
 
+    // Bulk ingest: the body is streamed, so uploads of any size never sit in memory as a whole
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<DonationImportResultDto> importNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(donationImportService.importNdjson(request.getInputStream()));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<DonationImportResultDto> importCsv(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(donationImportService.importCsv(request.getInputStream()));
+    }
+
     @GetMapping
     public ResponseEntity<List<DonationDto>> getAllDonations() {
         List<DonationDto> donations = donationService.getAllDonations();
@@ -68,6 +89,19 @@ public class DonationController {
         return ResponseEntity.ok(donations);
     }
 
+    // Cursor-paginated donor history; pass the previous page's nextCursor to continue
+    @GetMapping("/donor/{donorId}/history")
+    public ResponseEntity<?> getDonorHistoryPage(@PathVariable Integer donorId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        try {
+            DonationPageDto page = donationService.getDonorHistoryPage(donorId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Get recent donations for a specific school
     @GetMapping("/school/{schoolId}/recent")
     public ResponseEntity<List<DonationDto>> getRecentDonationsBySchool(@PathVariable Integer schoolId) {
@@ -81,4 +115,38 @@ public class DonationController {
         List<DonationDto> donations = donationService.getAllDonationsBySchool(schoolId);
         return ResponseEntity.ok(donations);
     }
-}
\ No newline at end of file
+
+    // Streaming report exports (?format=csv|xlsx); rows go straight from the DB cursor to the response
+    @GetMapping("/school/{schoolId}/export")
+    public void exportSchoolDonations(@PathVariable Integer schoolId,
+                                      @RequestParam(defaultValue = "csv") String format,
+                                      HttpServletResponse response) throws IOException {
+        export(DonationExportService.Scope.SCHOOL, schoolId, format, response);
+    }
+
+    @GetMapping("/donor/{donorId}/export")
+    public void exportDonorDonations(@PathVariable Integer donorId,
+                                     @RequestParam(defaultValue = "csv") String format,
+                                     HttpServletResponse response) throws IOException {
+        export(DonationExportService.Scope.DONOR, donorId, format, response);
+    }
+
+    @GetMapping("/ngo/{ngoId}/export")
+    public void exportNgoDonations(@PathVariable Integer ngoId,
+                                   @RequestParam(defaultValue = "csv") String format,
+                                   HttpServletResponse response) throws IOException {
+        export(DonationExportService.Scope.NGO, ngoId, format, response);
+    }
+
+    private void export(DonationExportService.Scope scope, Integer id, String format,
+                        HttpServletResponse response) throws IOException {
+        DonationExportService.Format exportFormat = "xlsx".equalsIgnoreCase(format)
+                ? DonationExportService.Format.XLSX : DonationExportService.Format.CSV;
+        String fileName = scope.name().toLowerCase() + "-" + id + "-donations." + exportFormat.getExtension();
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        donationExportService.export(scope, id, exportFormat, response.getOutputStream());
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.DonorGamificationDto;
+import com.example.Bright_Aid.Dto.LeaderboardEntryDto;
 import com.example.Bright_Aid.service.DonorGamificationService;
+import com.example.Bright_Aid.service.DonorLeaderboardService;
+import com.example.Bright_Aid.service.DonorPointsAccumulator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +20,8 @@ import java.util.Map;
 public class DonorGamificationController {
 
     private final DonorGamificationService donorGamificationService;
+    private final DonorLeaderboardService donorLeaderboardService;
+    private final DonorPointsAccumulator donorPointsAccumulator;
 
     @GetMapping
     public ResponseEntity<List<DonorGamificationDto>> getAllDonorGamification() {
@@ -36,12 +41,36 @@ public class DonorGamificationController {
         return ResponseEntity.ok(count);
     }
 
+    // Distinct schools reached by a group of donors, e.g. ?donorIds=1,2,3
+    @GetMapping("/schools-reached")
+    public ResponseEntity<Long> getSchoolsReachedByDonors(@RequestParam List<Integer> donorIds) {
+        return ResponseEntity.ok(donorGamificationService.getSchoolsReachedByDonors(donorIds));
+    }
+
     @GetMapping("/donor/{donorId}/stats")
     public ResponseEntity<Map<String, Object>> getDonorStats(@PathVariable Integer donorId) {
         Map<String, Object> stats = donorGamificationService.getDonorStats(donorId);
         return ResponseEntity.ok(stats);
     }
 
+    // Top donors by points, served from the in-memory leaderboard
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDto>> getLeaderboard(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(donorLeaderboardService.getTop(Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/donor/{donorId}/rank")
+    public ResponseEntity<LeaderboardEntryDto> getDonorRank(@PathVariable Integer donorId) {
+        LeaderboardEntryDto rank = donorLeaderboardService.getRank(donorId);
+        return rank != null ? ResponseEntity.ok(rank) : ResponseEntity.notFound().build();
+    }
+
+    // Write-behind points journal: flush counters and last flush timing
+    @GetMapping("/points-flush/stats")
+    public ResponseEntity<Map<String, Object>> getPointsFlushStats() {
+        return ResponseEntity.ok(donorPointsAccumulator.getStats());
+    }
+
     @PostMapping
     public ResponseEntity<DonorGamificationDto> createDonorGamification(@RequestBody DonorGamificationDto donorGamificationDto) {
         DonorGamificationDto created = donorGamificationService.createOrUpdateDonorGamification(donorGamificationDto);
@@ -14,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/fund-transparencies")
@@ -69,19 +70,30 @@ public class FundTransparencyController {
     }
 
     @GetMapping("/public")
-    public ResponseEntity<List<FundTransparencyDto>> getPublicFundTransparencies() {
+    public ResponseEntity<?> getPublicFundTransparencies(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("REST request to get all public fund transparencies");
 
-        List<FundTransparencyDto> transparencies = fundTransparencyService.getPublicFundTransparencies();
-        return ResponseEntity.ok(transparencies);
+        try {
+            return ResponseEntity.ok(fundTransparencyService.getPublicFundTransparencies(page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/by-utilization/{utilizationId}")
-    public ResponseEntity<List<FundTransparencyDto>> getFundTransparenciesByUtilization(@PathVariable Integer utilizationId) {
+    public ResponseEntity<?> getFundTransparenciesByUtilization(
+            @PathVariable Integer utilizationId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("REST request to get fund transparencies for utilization ID: {}", utilizationId);
 
-        List<FundTransparencyDto> transparencies = fundTransparencyService.getFundTransparenciesByUtilization(utilizationId);
-        return ResponseEntity.ok(transparencies);
+        try {
+            return ResponseEntity.ok(fundTransparencyService.getFundTransparenciesByUtilization(utilizationId, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // @GetMapping("/by-verifier/{adminId}")
@@ -2,7 +2,9 @@ package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.NgoDto;
 import com.example.Bright_Aid.Entity.Ngo;
+import com.example.Bright_Aid.service.NgoImpactRollupService;
 import com.example.Bright_Aid.service.NgoService;
+import com.example.Bright_Aid.service.NgoStatsCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,11 +12,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ngos")
@@ -24,6 +30,8 @@ import java.util.List;
 public class NgoController {
 
     private final NgoService ngoService;
+    private final NgoStatsCache ngoStatsCache;
+    private final NgoImpactRollupService ngoImpactRollupService;
 
     @PostMapping
     public ResponseEntity<NgoDto> createNgo(@Valid @RequestBody NgoDto ngoDto) {
@@ -69,28 +77,43 @@ public class NgoController {
     }
 
     @GetMapping("/by-status/{status}")
-    public ResponseEntity<List<NgoDto>> getNgosByVerificationStatus(
-            @PathVariable Ngo.VerificationStatus status) {
+    public ResponseEntity<?> getNgosByVerificationStatus(
+            @PathVariable Ngo.VerificationStatus status,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("REST request to get NGOs with verification status: {}", status);
 
-        List<NgoDto> ngos = ngoService.getNgosByVerificationStatus(status);
-        return ResponseEntity.ok(ngos);
+        try {
+            return ResponseEntity.ok(ngoService.getNgosByVerificationStatus(status, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/verified")
-    public ResponseEntity<List<NgoDto>> getVerifiedNgos() {
+    public ResponseEntity<?> getVerifiedNgos(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("REST request to get all verified NGOs");
 
-        List<NgoDto> ngos = ngoService.getVerifiedNgos();
-        return ResponseEntity.ok(ngos);
+        try {
+            return ResponseEntity.ok(ngoService.getVerifiedNgos(page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<NgoDto>> getPendingNgos() {
+    public ResponseEntity<?> getPendingNgos(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("REST request to get all pending NGOs");
 
-        List<NgoDto> ngos = ngoService.getPendingNgos();
-        return ResponseEntity.ok(ngos);
+        try {
+            return ResponseEntity.ok(ngoService.getPendingNgos(page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/by-registration/{registrationNumber}")
@@ -143,10 +166,39 @@ public class NgoController {
     public ResponseEntity<?> getNgoStats(@PathVariable Integer ngoId) {
         log.info("REST request to get stats for NGO ID: {}", ngoId);
         
-        var stats = ngoService.getNgoStats(ngoId);
+        var stats = ngoStatsCache.getStats(ngoId);
         return ResponseEntity.ok(stats);
     }
 
+    // Day-by-day impact from the daily rollup (default: the last 30 days, at most a year per request)
+    @GetMapping("/{ngoId}/impact/daily")
+    public ResponseEntity<?> getDailyImpact(
+            @PathVariable Integer ngoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) > 366) {
+            return ResponseEntity.badRequest().body("from must be on or before to, at most 366 days apart");
+        }
+        return ResponseEntity.ok(Map.of(
+                "ngoId", ngoId,
+                "from", start,
+                "to", end,
+                "days", ngoImpactRollupService.getDailyImpact(ngoId, start, end)));
+    }
+
+    @GetMapping("/impact-rollup/stats")
+    public ResponseEntity<?> getImpactRollupStats() {
+        return ResponseEntity.ok(ngoImpactRollupService.getStats());
+    }
+
+    // Hit ratio and load times of the NGO stats cache
+    @GetMapping("/stats-cache/stats")
+    public ResponseEntity<?> getNgoStatsCacheStats() {
+        return ResponseEntity.ok(ngoStatsCache.getCacheStats());
+    }
+
     @PostMapping("/{ngoId}/test-data")
     public ResponseEntity<?> createTestData(@PathVariable Integer ngoId) {
         log.info("REST request to create test data for NGO ID: {}", ngoId);
@@ -142,12 +142,18 @@ public class NgoProjectSchoolController {
     }
 
     @GetMapping("/by-ngo-project/{ngoProjectId}")
-    public ResponseEntity<List<NgoProjectSchoolDto>> getNgoProjectSchoolsByNgoProjectId(@PathVariable Integer ngoProjectId) {
+    public ResponseEntity<List<NgoProjectSchoolDto>> getNgoProjectSchoolsByNgoProjectId(
+            @PathVariable Integer ngoProjectId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("GET request received for NGO project schools by NGO project ID: {}", ngoProjectId);
         try {
-            List<NgoProjectSchoolDto> ngoProjectSchools = ngoProjectSchoolService.getNgoProjectSchoolsByNgoProjectId(ngoProjectId);
+            List<NgoProjectSchoolDto> ngoProjectSchools = ngoProjectSchoolService.getNgoProjectSchoolsByNgoProjectId(ngoProjectId, page, size);
             log.info("Successfully fetched {} NGO project schools for NGO project ID: {}", ngoProjectSchools.size(), ngoProjectId);
             return ResponseEntity.ok(ngoProjectSchools);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error fetching NGO project schools by NGO project ID {}: {}", ngoProjectId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -155,12 +161,18 @@ public class NgoProjectSchoolController {
     }
 
     @GetMapping("/by-school/{schoolId}")
-    public ResponseEntity<List<NgoProjectSchoolDto>> getNgoProjectSchoolsBySchoolId(@PathVariable Integer schoolId) {
+    public ResponseEntity<List<NgoProjectSchoolDto>> getNgoProjectSchoolsBySchoolId(
+            @PathVariable Integer schoolId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("GET request received for NGO project schools by school ID: {}", schoolId);
         try {
-            List<NgoProjectSchoolDto> ngoProjectSchools = ngoProjectSchoolService.getNgoProjectSchoolsBySchoolId(schoolId);
+            List<NgoProjectSchoolDto> ngoProjectSchools = ngoProjectSchoolService.getNgoProjectSchoolsBySchoolId(schoolId, page, size);
             log.info("Successfully fetched {} NGO project schools for school ID: {}", ngoProjectSchools.size(), schoolId);
             return ResponseEntity.ok(ngoProjectSchools);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error fetching NGO project schools by school ID {}: {}", schoolId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -168,14 +180,17 @@ public class NgoProjectSchoolController {
     }
 
     @GetMapping("/by-participation-status/{participationStatus}")
-    public ResponseEntity<List<NgoProjectSchoolDto>> getNgoProjectSchoolsByParticipationStatus(@PathVariable String participationStatus) {
+    public ResponseEntity<List<NgoProjectSchoolDto>> getNgoProjectSchoolsByParticipationStatus(
+            @PathVariable String participationStatus,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         log.info("GET request received for NGO project schools by participation status: {}", participationStatus);
         try {
-            List<NgoProjectSchoolDto> ngoProjectSchools = ngoProjectSchoolService.getNgoProjectSchoolsByParticipationStatus(participationStatus);
+            List<NgoProjectSchoolDto> ngoProjectSchools = ngoProjectSchoolService.getNgoProjectSchoolsByParticipationStatus(participationStatus, page, size);
             log.info("Successfully fetched {} NGO project schools with participation status: {}", ngoProjectSchools.size(), participationStatus);
             return ResponseEntity.ok(ngoProjectSchools);
         } catch (IllegalArgumentException e) {
-            log.error("Invalid participation status: {}", participationStatus);
+            log.error("Invalid participation status or page request for {}: {}", participationStatus, e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error fetching NGO project schools by participation status {}: {}", participationStatus, e.getMessage());
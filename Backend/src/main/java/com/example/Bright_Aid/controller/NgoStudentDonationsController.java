@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ngo-student-donations")
@@ -44,8 +45,14 @@ public class NgoStudentDonationsController {
 
     // ===================== GET BY NGO ID =====================
     @GetMapping("/ngo/{ngoId}")
-    public ResponseEntity<List<NgoStudentDonationsDTO>> getByNgoId(@PathVariable Integer ngoId) {
-        return ResponseEntity.ok(service.getByNgoId(ngoId));
+    public ResponseEntity<?> getByNgoId(@PathVariable Integer ngoId,
+                                        @RequestParam(required = false) Integer page,
+                                        @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(service.getByNgoId(ngoId, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // ===================== DELETE =====================
@@ -2,11 +2,17 @@ package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.PaymentTransactionDto;
 import com.example.Bright_Aid.Entity.PaymentTransaction;
+import com.example.Bright_Aid.service.DonationReconciliationService;
+import com.example.Bright_Aid.service.PaymentCallbackProcessor;
 import com.example.Bright_Aid.service.PaymentTransactionService;
+import com.example.Bright_Aid.service.StalePaymentSweeper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.view.RedirectView;
@@ -15,14 +21,20 @@ import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/payment-transactions")
 @RequiredArgsConstructor
+@Slf4j
 @Tag(name = "Payment Transactions", description = "Payment transaction management with SSLCommerz integration")
 public class PaymentTransactionController {
 
     private final PaymentTransactionService paymentTransactionService;
+    private final PaymentCallbackProcessor paymentCallbackProcessor;
+    private final DonationReconciliationService donationReconciliationService;
+    private final StalePaymentSweeper stalePaymentSweeper;
     
     @Value("${frontend.payment.success.url}")
     private String frontendSuccessUrl;
@@ -67,15 +79,37 @@ public class PaymentTransactionController {
     // SSLCommerz Integration Endpoints
     @PostMapping("/sslcommerz/initiate")
     @Operation(summary = "Initiate SSLCommerz Payment", description = "Start a new payment transaction with SSLCommerz")
-    public ResponseEntity<Map<String, Object>> initiateSSLCommerzPayment(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> initiateSSLCommerzPayment(
             @RequestParam Integer donorId,
             @RequestParam BigDecimal amount,
             @RequestParam String productName,
             @RequestParam(required = false) String productCategory) {
         
-        Map<String, Object> response = paymentTransactionService.initiateSSLCommerzPayment(
-            donorId, amount, productName, productCategory);
-        return ResponseEntity.ok(response);
+        // Returned as a future so the Tomcat thread is freed while the gateway responds
+        try {
+            return paymentTransactionService.initiateSSLCommerzPayment(donorId, amount, productName, productCategory)
+                    .thenApply(ResponseEntity::ok);
+        } catch (RejectedExecutionException e) {
+            // Gateway pool and queue are full; the PENDING row just created is expired by the sweeper
+            log.warn("SSLCommerz gateway pool saturated, rejecting payment initiation for donor {}", donorId);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of(
+                            "status", "BUSY",
+                            "message", "Payment gateway is busy, please try again shortly")));
+        }
+    }
+    
+    @GetMapping("/reconciliation/stats")
+    @Operation(summary = "Donation Reconciliation Stats", description = "Backlog and convergence lag between transaction and donation status")
+    public ResponseEntity<Map<String, Object>> getReconciliationStats() {
+        return ResponseEntity.ok(donationReconciliationService.getStats());
+    }
+    
+    @GetMapping("/sweeper/stats")
+    @Operation(summary = "Stale Payment Sweeper Stats", description = "Rows scanned and expired by the abandoned-session sweeper")
+    public ResponseEntity<Map<String, Object>> getSweeperStats() {
+        return ResponseEntity.ok(stalePaymentSweeper.getStats());
     }
     
     @GetMapping("/reference/{transactionReference}")
@@ -95,7 +129,7 @@ public class PaymentTransactionController {
         String status = params.get("status");
         
         if (transactionRef != null && "VALID".equals(status)) {
-            paymentTransactionService.updatePaymentStatus(transactionRef, status, params);
+            paymentCallbackProcessor.process(transactionRef, status, params, "SUCCESS");
         }
         
         return new RedirectView(frontendSuccessUrl + "?status=" + status + "&tran_id=" + transactionRef);
@@ -107,7 +141,7 @@ public class PaymentTransactionController {
         String transactionRef = params.get("tran_id");
         
         if (transactionRef != null) {
-            paymentTransactionService.updatePaymentStatus(transactionRef, "FAILED", params);
+            paymentCallbackProcessor.process(transactionRef, "FAILED", params, "FAIL");
         }
         
         return new RedirectView(frontendFailUrl + "?status=FAILED&tran_id=" + transactionRef);
@@ -119,7 +153,7 @@ public class PaymentTransactionController {
         String transactionRef = params.get("tran_id");
         
         if (transactionRef != null) {
-            paymentTransactionService.updatePaymentStatus(transactionRef, "CANCELLED", params);
+            paymentCallbackProcessor.process(transactionRef, "CANCELLED", params, "CANCEL");
         }
         
         return new RedirectView(frontendCancelUrl + "?status=CANCELLED&tran_id=" + transactionRef);
@@ -132,7 +166,7 @@ public class PaymentTransactionController {
         String status = params.get("status");
         
         if (transactionRef != null && status != null) {
-            paymentTransactionService.updatePaymentStatus(transactionRef, status, params);
+            paymentCallbackProcessor.process(transactionRef, status, params, "IPN");
         }
         
         return ResponseEntity.ok("IPN processed");
@@ -2,6 +2,7 @@ package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.ProjectTypeDto;
 import com.example.Bright_Aid.service.ProjectTypeService;
+import com.example.Bright_Aid.service.ReferenceDataCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ import java.util.List;
 public class ProjectTypeController {
 
     private final ProjectTypeService projectTypeService;
+    private final ReferenceDataCache referenceDataCache;
 
     @PostMapping
     public ResponseEntity<ProjectTypeDto> createProjectType(@Valid @RequestBody ProjectTypeDto projectTypeDto) {
@@ -44,14 +46,14 @@ public class ProjectTypeController {
         return ResponseEntity.ok(projectType);
     }
 
+    // Served from ReferenceDataCache; a matching If-None-Match gets 304
     @GetMapping
     public ResponseEntity<List<ProjectTypeDto>> getAllProjectTypes() {
-        log.info("Fetching all project types");
-
-        List<ProjectTypeDto> projectTypes = projectTypeService.getAllProjectTypes();
-
-        log.info("Successfully retrieved {} project types", projectTypes.size());
-        return ResponseEntity.ok(projectTypes);
+        ReferenceDataCache.Snapshot<List<ProjectTypeDto>> projectTypes = referenceDataCache.getProjectTypes();
+        return ResponseEntity.ok()
+                .eTag(projectTypes.etag())
+                .cacheControl(referenceDataCache.getCacheControl())
+                .body(projectTypes.body());
     }
 
     @GetMapping("/paginated")
@@ -0,0 +1,34 @@
+package com.example.Bright_Aid.controller;
+
+import com.example.Bright_Aid.service.ReferenceDataCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reference-data")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReferenceDataController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    // Allowed values of the enums used in forms, keyed by field; a matching If-None-Match gets 304
+    @GetMapping("/enums")
+    public ResponseEntity<Map<String, List<String>>> getEnums() {
+        ReferenceDataCache.Snapshot<Map<String, List<String>>> enums = referenceDataCache.getEnums();
+        return ResponseEntity.ok()
+                .eTag(enums.etag())
+                .cacheControl(referenceDataCache.getCacheControl())
+                .body(enums.body());
+    }
+
+    // Current ETag per cached data set, load and invalidation counters
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(referenceDataCache.getStats());
+    }
+}
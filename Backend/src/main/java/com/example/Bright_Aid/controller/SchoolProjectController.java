@@ -1,6 +1,8 @@
 package com.example.Bright_Aid.controller;
 
+import com.example.Bright_Aid.Dto.ProjectTypeDto;
 import com.example.Bright_Aid.Dto.SchoolProjectDto;
+import com.example.Bright_Aid.service.ReferenceDataCache;
 import com.example.Bright_Aid.service.SchoolProjectService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -15,9 +17,12 @@ import java.util.List;
 public class SchoolProjectController {
 
     private final SchoolProjectService schoolProjectService;
+    private final ReferenceDataCache referenceDataCache;
 
-    public SchoolProjectController(SchoolProjectService schoolProjectService) {
+    public SchoolProjectController(SchoolProjectService schoolProjectService,
+                                   ReferenceDataCache referenceDataCache) {
         this.schoolProjectService = schoolProjectService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     // Create new school project
@@ -57,11 +62,14 @@ public class SchoolProjectController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
     
-    // Get all project types
+    // Get all project types (same cached list as /api/project-types)
     @GetMapping("/types")
-    public ResponseEntity<List<com.example.Bright_Aid.Entity.ProjectType>> getProjectTypes() {
-        List<com.example.Bright_Aid.Entity.ProjectType> projectTypes = schoolProjectService.getAllProjectTypes();
-        return new ResponseEntity<>(projectTypes, HttpStatus.OK);
+    public ResponseEntity<List<ProjectTypeDto>> getProjectTypes() {
+        ReferenceDataCache.Snapshot<List<ProjectTypeDto>> projectTypes = referenceDataCache.getProjectTypes();
+        return ResponseEntity.ok()
+                .eTag(projectTypes.etag())
+                .cacheControl(referenceDataCache.getCacheControl())
+                .body(projectTypes.body());
     }
     
     // Initialize project types (for testing)
@@ -0,0 +1,48 @@
+package com.example.Bright_Aid.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Local stand-in for the SSLCommerz session API so checkout throughput can be load-tested offline.
+// Enable with sslcommerz.stub.enabled=true and point sslcommerz.sandbox.url at /api/payments/stub/gwprocess/v4/api.php
+@RestController
+@RequestMapping("/api/payments/stub")
+@ConditionalOnProperty(name = "sslcommerz.stub.enabled", havingValue = "true")
+@Tag(name = "SSLCommerz Stub", description = "Offline SSLCommerz gateway stub for load testing")
+public class SslCommerzStubController {
+
+    @Value("${sslcommerz.stub.latency-ms:300}")
+    private long latencyMs;
+
+    @Value("${frontend.payment.success.url}")
+    private String frontendSuccessUrl;
+
+    @PostMapping(value = "/gwprocess/v4/api.php", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    @Operation(summary = "Stub Session API", description = "Mimics the SSLCommerz session response after a configurable delay")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> createSession(@RequestParam Map<String, String> params) {
+        String tranId = params.get("tran_id");
+
+        // Delay without holding a servlet thread, like a real remote gateway would
+        return CompletableFuture.supplyAsync(() -> {
+            if (tranId == null || params.get("total_amount") == null) {
+                return ResponseEntity.ok(Map.<String, Object>of(
+                        "status", "FAILED",
+                        "failedreason", "Missing tran_id or total_amount"));
+            }
+            return ResponseEntity.ok(Map.<String, Object>of(
+                    "status", "SUCCESS",
+                    "sessionkey", "STUB" + UUID.randomUUID().toString().replace("-", ""),
+                    "GatewayPageURL", frontendSuccessUrl + "?status=VALID&tran_id=" + tranId));
+        }, CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Bright_Aid.controller;
+
+import com.example.Bright_Aid.Dto.MetricSeriesDto;
+import com.example.Bright_Aid.Entity.SystemMetric;
+import com.example.Bright_Aid.service.SystemMetricSeriesService;
+import com.example.Bright_Aid.service.SystemMetricService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Admin dashboard figures, served from the daily system_metrics snapshots
+@RestController
+@RequestMapping("/api/system-metrics")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class SystemMetricController {
+
+    private final SystemMetricService systemMetricService;
+    private final SystemMetricSeriesService systemMetricSeriesService;
+
+    @GetMapping("/latest")
+    public ResponseEntity<SystemMetric> getLatest() {
+        SystemMetric latest = systemMetricService.getLatest();
+        return latest != null ? ResponseEntity.ok(latest) : ResponseEntity.notFound().build();
+    }
+
+    // Daily snapshots in a date range (default: the last 30 days, at most a year per request)
+    @GetMapping
+    public ResponseEntity<List<SystemMetric>> getRange(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) > 366) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(systemMetricService.getRange(start, end));
+    }
+
+    // Chart data, downsampled server-side and returned column-wise, e.g.
+    // ?from=2024-01-01&to=2025-12-31&bucket=MONTH&metrics=totalDonors,totalFundsRaised&aggregates=max
+    @GetMapping("/series")
+    public ResponseEntity<?> getSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") SystemMetricSeriesService.Bucket bucket,
+            @RequestParam(required = false) List<String> metrics,
+            @RequestParam(required = false) List<String> aggregates) {
+        try {
+            MetricSeriesDto series = systemMetricSeriesService.getSeries(
+                    from, to != null ? to : LocalDate.now(), bucket, metrics, aggregates);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/series/metrics")
+    public ResponseEntity<Set<String>> getSeriesMetrics() {
+        return ResponseEntity.ok(SystemMetricSeriesService.metricNames());
+    }
+
+    // Recompute today's snapshot now
+    @PostMapping("/snapshot")
+    public ResponseEntity<SystemMetric> snapshotToday() {
+        log.info("REST request to recompute today's system metrics");
+        return ResponseEntity.ok(systemMetricService.snapshot(LocalDate.now()));
+    }
+
+    // Compute (or recompute) one snapshot per day for a past range, in the background
+    @PostMapping("/backfill")
+    public ResponseEntity<Map<String, Object>> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("REST request to backfill system metrics from {} to {}", from, to);
+        try {
+            boolean started = systemMetricService.startBackfill(from, to);
+            return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                    .body(systemMetricService.getBackfillStatus());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/backfill/status")
+    public ResponseEntity<Map<String, Object>> getBackfillStatus() {
+        return ResponseEntity.ok(systemMetricService.getBackfillStatus());
+    }
+}
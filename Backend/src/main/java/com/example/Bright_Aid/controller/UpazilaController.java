@@ -1,6 +1,7 @@
 package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.UpazilaDto;
+import com.example.Bright_Aid.service.ReferenceDataCache;
 import com.example.Bright_Aid.service.UpazilaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import java.util.List;
 public class UpazilaController {
 
     private final UpazilaService upazilaService;
+    private final ReferenceDataCache referenceDataCache;
 
     @PostMapping
     public ResponseEntity<?> createUpazila(@Valid @RequestBody UpazilaDto dto) {
@@ -37,10 +39,14 @@ public class UpazilaController {
         }
     }
 
+    // Served from ReferenceDataCache; a matching If-None-Match gets 304
     @GetMapping
     public ResponseEntity<List<UpazilaDto>> getAllUpazilas() {
-        List<UpazilaDto> upazilas = upazilaService.getAllUpazilas();
-        return ResponseEntity.ok(upazilas);
+        ReferenceDataCache.Snapshot<List<UpazilaDto>> upazilas = referenceDataCache.getUpazilas();
+        return ResponseEntity.ok()
+                .eTag(upazilas.etag())
+                .cacheControl(referenceDataCache.getCacheControl())
+                .body(upazilas.body());
     }
 
     @PutMapping("/{id}")
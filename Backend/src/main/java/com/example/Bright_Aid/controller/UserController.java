@@ -1,6 +1,7 @@
 package com.example.Bright_Aid.controller;
 
 import com.example.Bright_Aid.Dto.UserDTO;
+import com.example.Bright_Aid.Security.UserStatusCache;
 import com.example.Bright_Aid.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -8,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -15,12 +17,19 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserStatusCache userStatusCache;
 
     @GetMapping
     public ResponseEntity<List<UserDTO>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    // Hit ratio and size of the cache the JWT filter checks tokens against
+    @GetMapping("/status-cache/stats")
+    public ResponseEntity<Map<String, Object>> getStatusCacheStats() {
+        return ResponseEntity.ok(userStatusCache.getStats());
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Integer userId) {
         return userService.getUserById(userId)
@@ -0,0 +1,5 @@
+package com.example.Bright_Aid.event;
+
+// Published when a write changes the division/district/upazila hierarchy or which schools sit in it
+public record GeoDataChangedEvent(String reason) {
+}
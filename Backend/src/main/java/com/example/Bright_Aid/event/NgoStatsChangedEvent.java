@@ -0,0 +1,6 @@
+package com.example.Bright_Aid.event;
+
+// Published when a write changes the figures behind an NGO's stats page; ngoId null means every NGO
+// (e.g. a school project was added, which moves the global project count)
+public record NgoStatsChangedEvent(Integer ngoId) {
+}
@@ -0,0 +1,12 @@
+package com.example.Bright_Aid.event;
+
+import java.math.BigDecimal;
+
+// Published after a payment transaction moves to SUCCESS; backed by an outbox_events row
+public record PaymentCompletedEvent(Long outboxEventId,
+                                    Integer transactionId,
+                                    String transactionReference,
+                                    Integer donorId,
+                                    Integer ngoId,
+                                    BigDecimal amount) {
+}
@@ -0,0 +1,5 @@
+package com.example.Bright_Aid.event;
+
+// Published when a write changes a cached reference data set (see ReferenceDataCache)
+public record ReferenceDataChangedEvent(String dataset) {
+}
@@ -0,0 +1,5 @@
+package com.example.Bright_Aid.event;
+
+// Published when a write changes a user's login, role, password or active flag (or removes the user)
+public record UserAccountChangedEvent(String email) {
+}
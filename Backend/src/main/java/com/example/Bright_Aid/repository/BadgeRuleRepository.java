@@ -0,0 +1,15 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.BadgeRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BadgeRuleRepository extends JpaRepository<BadgeRule, Integer> {
+
+    List<BadgeRule> findByActiveTrueOrderByMinPointsAsc();
+
+    List<BadgeRule> findAllByOrderByRuleTypeAscMinPointsAsc();
+}
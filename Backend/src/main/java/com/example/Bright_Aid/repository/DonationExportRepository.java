@@ -0,0 +1,92 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.repository.projection.DonationExportRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+// Forward-only reads for report exports. The JdbcTemplate uses fetch size Integer.MIN_VALUE,
+// which makes MySQL Connector/J stream rows one at a time instead of buffering the whole result.
+// Callers must close the returned Stream (try-with-resources) to release the connection.
+@Repository
+public class DonationExportRepository {
+
+    private static final RowMapper<DonationExportRow> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp donatedAt = rs.getTimestamp(2);
+        return new DonationExportRow(
+                rs.getString(1),
+                donatedAt != null ? donatedAt.toLocalDateTime() : null,
+                rs.getBigDecimal(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7));
+    };
+
+    private static final String SCHOOL_SQL = "SELECT CAST(l.donation_id AS CHAR), l.donated_at, l.amount, l.payment_status, " +
+            "l.transaction_ref, l.donor_name, l.recipient_name " +
+            "FROM school_donation_ledger l " +
+            "WHERE l.school_id = ? " +
+            "ORDER BY l.donated_at DESC, l.donation_id DESC";
+
+    private static final String DONOR_SQL = "SELECT CAST(d.donation_id AS CHAR), d.donated_at, d.amount, d.payment_status, " +
+            "COALESCE(pt.transaction_reference, CONCAT('TXN', LPAD(d.donation_id, 9, '0'))), " +
+            "COALESCE(donor.donor_name, 'Anonymous Donor'), " +
+            "CASE " +
+            "  WHEN d.student_id IS NOT NULL THEN CONCAT('Student: ', s.student_name) " +
+            "  WHEN d.project_id IS NOT NULL THEN CONCAT('Project: ', sp.project_title) " +
+            "  ELSE 'General Donation' " +
+            "END " +
+            "FROM donations d " +
+            "LEFT JOIN payment_transactions pt ON d.transaction_id = pt.transaction_id " +
+            "LEFT JOIN donors donor ON d.donor_id = donor.donor_id " +
+            "LEFT JOIN students s ON d.student_id = s.student_id " +
+            "LEFT JOIN school_projects sp ON d.project_id = sp.project_id " +
+            "WHERE d.donor_id = ? " +
+            "ORDER BY d.donated_at DESC, d.donation_id DESC";
+
+    // NGO donations live in two tables; ids are prefixed so the two sequences stay distinguishable.
+    // Rows sharing a donated_at are ordered by id, then by the unique ref, so the order is stable.
+    private static final String NGO_SQL = "SELECT donation_ref, donated_at, amount, payment_status, " +
+            "transaction_reference, ngo_name, recipient FROM (" +
+            "SELECT CONCAT('NSD-', nsd.student_donation_id) AS donation_ref, nsd.donated_at, nsd.amount, nsd.payment_status, " +
+            "pt.transaction_reference, n.ngo_name, CONCAT('Student: ', s.student_name) AS recipient, " +
+            "nsd.student_donation_id AS donation_id " +
+            "FROM ngo_student_donations nsd " +
+            "LEFT JOIN payment_transactions pt ON nsd.transaction_id = pt.transaction_id " +
+            "LEFT JOIN ngos n ON nsd.ngo_id = n.ngo_id " +
+            "LEFT JOIN students s ON nsd.student_id = s.student_id " +
+            "WHERE nsd.ngo_id = ? " +
+            "UNION ALL " +
+            "SELECT CONCAT('NPD-', npd.project_donation_id), npd.donated_at, npd.amount, npd.payment_status, " +
+            "pt.transaction_reference, n.ngo_name, CONCAT('Project: ', sp.project_title), npd.project_donation_id " +
+            "FROM ngo_project_donations npd " +
+            "LEFT JOIN payment_transactions pt ON npd.transaction_id = pt.transaction_id " +
+            "LEFT JOIN ngos n ON npd.ngo_id = n.ngo_id " +
+            "LEFT JOIN school_projects sp ON npd.project_id = sp.project_id " +
+            "WHERE npd.ngo_id = ?" +
+            ") ngo_donations ORDER BY donated_at DESC, donation_id DESC, donation_ref DESC";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public DonationExportRepository(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public Stream<DonationExportRow> streamBySchool(Integer schoolId) {
+        return streamingJdbcTemplate.queryForStream(SCHOOL_SQL, ROW_MAPPER, schoolId);
+    }
+
+    public Stream<DonationExportRow> streamByDonor(Integer donorId) {
+        return streamingJdbcTemplate.queryForStream(DONOR_SQL, ROW_MAPPER, donorId);
+    }
+
+    public Stream<DonationExportRow> streamByNgo(Integer ngoId) {
+        return streamingJdbcTemplate.queryForStream(NGO_SQL, ROW_MAPPER, ngoId, ngoId);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.Donation;
+import com.example.Bright_Aid.repository.projection.DonorDonationHistoryRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Donor history reads. Rows are mapped straight off the ResultSet, each column read once in its
+// target type: a Spring Data interface projection over the same native SQL builds a proxy per row
+// and converts on every getter call, which costs tens of times more per row on long histories.
+// Runs on the caller's transaction when there is one (same DataSource as JPA).
+@Repository
+public class DonorHistoryRepository {
+
+    private static final RowMapper<DonorDonationHistoryRow> ROW_MAPPER = (rs, rowNum) -> new DonorDonationHistoryRow(
+            rs.getObject(1, Integer.class),
+            rs.getObject(2, Integer.class),
+            rs.getObject(3, Integer.class),
+            rs.getObject(4, Integer.class),
+            rs.getBigDecimal(5),
+            toEnum(Donation.DonationType.class, rs.getString(6)),
+            rs.getObject(7, Integer.class),
+            toEnum(Donation.PaymentStatus.class, rs.getString(8)),
+            toEnum(Donation.DonationPurpose.class, rs.getString(9)),
+            rs.getString(10),
+            rs.getObject(11, Boolean.class),
+            toDateTime(rs, 12),
+            toDateTime(rs, 13),
+            toDateTime(rs, 14),
+            toDateTime(rs, 15),
+            rs.getString(16),
+            rs.getString(17),
+            rs.getString(18));
+
+    private static final String SELECT = "SELECT d.donation_id, d.donor_id, d.project_id, d.student_id, d.amount, " +
+            "d.donation_type, d.transaction_id, d.payment_status, d.purpose, d.donor_message, d.is_anonymous, " +
+            "d.donated_at, d.payment_completed_at, d.created_at, d.updated_at, " +
+            "COALESCE(pt.transaction_reference, CONCAT('TXN', LPAD(d.donation_id, 9, '0'))), " +
+            "COALESCE(sp.project_title, s.student_name, 'General Donation'), " +
+            "CASE " +
+            "  WHEN d.student_id IS NOT NULL THEN CONCAT('Student: ', s.student_name) " +
+            "  WHEN d.project_id IS NOT NULL THEN CONCAT('Project: ', sp.project_title) " +
+            "  ELSE 'General Donation' " +
+            "END " +
+            "FROM donations d " +
+            "LEFT JOIN payment_transactions pt ON d.transaction_id = pt.transaction_id " +
+            "LEFT JOIN school_projects sp ON d.project_id = sp.project_id " +
+            "LEFT JOIN students s ON d.student_id = s.student_id ";
+
+    // Full donor history, recent first. Ordered by the idx_donation_donor_donated key, not an expression.
+    public static final String ALL_SQL = SELECT +
+            "WHERE d.donor_id = ? " +
+            "ORDER BY d.donated_at DESC, d.donation_id DESC";
+
+    // Keyset pagination over (donated_at, donation_id): first page
+    private static final String FIRST_PAGE_SQL = SELECT +
+            "WHERE d.donor_id = ? " +
+            "ORDER BY d.donated_at DESC, d.donation_id DESC " +
+            "LIMIT ?";
+
+    // Keyset pagination: rows strictly after the cursor. The leading donated_at <= bound keeps it a
+    // range scan on idx_donation_donor_donated, so every page costs the same as the first.
+    private static final String AFTER_SQL = SELECT +
+            "WHERE d.donor_id = ? " +
+            "AND d.donated_at <= ? " +
+            "AND (d.donated_at < ? OR d.donation_id < ?) " +
+            "ORDER BY d.donated_at DESC, d.donation_id DESC " +
+            "LIMIT ?";
+
+    // Rows with a NULL donated_at sort after every dated row (MySQL puts NULLs last in DESC order)
+    // and are paged by id alone, still on idx_donation_donor_donated
+    private static final String UNDATED_AFTER_SQL = SELECT +
+            "WHERE d.donor_id = ? " +
+            "AND d.donated_at IS NULL " +
+            "AND d.donation_id < ? " +
+            "ORDER BY d.donation_id DESC " +
+            "LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DonorHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<DonorDonationHistoryRow> findAllByDonor(Integer donorId) {
+        return jdbcTemplate.query(ALL_SQL, ROW_MAPPER, donorId);
+    }
+
+    public List<DonorDonationHistoryRow> findFirstPage(Integer donorId, int limit) {
+        return jdbcTemplate.query(FIRST_PAGE_SQL, ROW_MAPPER, donorId, limit);
+    }
+
+    public List<DonorDonationHistoryRow> findAfter(Integer donorId, LocalDateTime cursorDonatedAt,
+                                                   Integer cursorDonationId, int limit) {
+        Timestamp bound = Timestamp.valueOf(cursorDonatedAt);
+        return jdbcTemplate.query(AFTER_SQL, ROW_MAPPER, donorId, bound, bound, cursorDonationId, limit);
+    }
+
+    public List<DonorDonationHistoryRow> findUndatedAfter(Integer donorId, Integer cursorDonationId, int limit) {
+        return jdbcTemplate.query(UNDATED_AFTER_SQL, ROW_MAPPER, donorId, cursorDonationId, limit);
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String value) {
+        return value != null ? Enum.valueOf(type, value) : null;
+    }
+
+    private static LocalDateTime toDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value != null ? value.toLocalDateTime() : null;
+    }
+}
@@ -7,12 +7,17 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DonorRepository extends JpaRepository<Donor, Integer> {
 
+    // Id-only existence check for bulk import (one IN query per chunk instead of a findById per row)
+    @Query("SELECT d.donorId FROM Donor d WHERE d.donorId IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
     // 1. Find donor by userId
     @Query("SELECT d FROM Donor d WHERE d.user.userId = :userId")
     Optional<Donor> findByUserId(@Param("userId") Integer userId);
@@ -0,0 +1,60 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.DonorSchoolReach;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DonorSchoolReachRepository extends JpaRepository<DonorSchoolReach, Long> {
+
+    String REACH_INSERT = "INSERT INTO donor_school_reach (donor_id, school_id, donation_count) " +
+           "SELECT donor_id, school_id, COUNT(*) FROM school_donation_ledger " +
+           "WHERE payment_status = 'COMPLETED' AND donor_id IS NOT NULL ";
+
+    // Unique-schools figure: a range count on uk_donor_school_reach
+    long countByDonorId(Integer donorId);
+
+    // Schools reached by any of these donors
+    @Query(value = "SELECT COUNT(DISTINCT school_id) FROM donor_school_reach WHERE donor_id IN (:donorIds)",
+           nativeQuery = true)
+    long countDistinctSchoolsForDonors(@Param("donorIds") Collection<Integer> donorIds);
+
+    // Re-derive the pairs of these donors from their ledger rows in place: existing pairs get their
+    // count updated on uk_donor_school_reach, new pairs are inserted, nothing is deleted first
+    @Modifying
+    @Query(value = REACH_INSERT + "AND donor_id IN (:donorIds) GROUP BY donor_id, school_id " +
+           "ON DUPLICATE KEY UPDATE donation_count = VALUES(donation_count)",
+           nativeQuery = true)
+    int upsertForDonors(@Param("donorIds") Collection<Integer> donorIds);
+
+    // Pairs of these donors with no completed ledger row left (idx_ledger_donor_status_school probe).
+    // A plain read, so the delete that follows only locks the rows it removes
+    @Query(value = "SELECT r.reach_id FROM donor_school_reach r WHERE r.donor_id IN (:donorIds) " +
+           "AND NOT EXISTS (SELECT 1 FROM school_donation_ledger l WHERE l.donor_id = r.donor_id " +
+           "AND l.payment_status = 'COMPLETED' AND l.school_id = r.school_id)",
+           nativeQuery = true)
+    List<Long> findStaleReachIds(@Param("donorIds") Collection<Integer> donorIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM donor_school_reach WHERE reach_id IN (:reachIds)", nativeQuery = true)
+    int deleteByReachIds(@Param("reachIds") Collection<Long> reachIds);
+
+    // Rebuild helpers, walking donors by id range
+    @Modifying
+    @Query(value = "DELETE FROM donor_school_reach WHERE donor_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteDonorRange(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    @Modifying
+    @Query(value = REACH_INSERT + "AND donor_id BETWEEN :fromId AND :toId GROUP BY donor_id, school_id",
+           nativeQuery = true)
+    int insertDonorRange(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    @Query(value = "SELECT COALESCE(MAX(donor_id), 0) FROM donors", nativeQuery = true)
+    Integer findMaxDonorId();
+}
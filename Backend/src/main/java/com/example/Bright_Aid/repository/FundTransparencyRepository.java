@@ -3,6 +3,7 @@ package com.example.Bright_Aid.repository;
 import com.example.Bright_Aid.Entity.FundTransparency;
 import com.example.Bright_Aid.Entity.FundUtilization;
 // import com.example.Bright_Aid.Entity.Admin;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,5 +16,10 @@ import java.util.Optional;
 @Repository
 public interface FundTransparencyRepository extends JpaRepository<FundTransparency, Integer> {
 
+    // Public transparency feed (idx_fund_transparency_public)
+    List<FundTransparency> findByIsPublicTrue(Pageable pageable);
+
+    // utilization_id is indexed by its foreign key
+    List<FundTransparency> findByUtilizationUtilizationId(Integer utilizationId, Pageable pageable);
 
 }
\ No newline at end of file
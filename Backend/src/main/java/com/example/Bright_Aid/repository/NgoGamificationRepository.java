@@ -1,12 +1,16 @@
 package com.example.Bright_Aid.repository;
 
 import com.example.Bright_Aid.Entity.NgoGamification;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NgoGamificationRepository extends JpaRepository<NgoGamification, Integer> {
@@ -21,5 +25,57 @@ public interface NgoGamificationRepository extends JpaRepository<NgoGamification
     
     // Check if NGO gamification exists for given ngo_id
     boolean existsByNgoId(Integer ngoId);
+
+    // Row lock for incremental counter updates, so concurrent donations to one NGO serialise
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<NgoGamification> findForUpdateByNgoId(Integer ngoId);
+
+    // Same lock for a reconciliation chunk, taken in ngo_id order; ids only, so no stale entities
+    // stay in the persistence context across the bulk counter update
+    @Query(value = "SELECT ngo_id FROM ngo_gamification WHERE ngo_id BETWEEN :fromId AND :toId " +
+           "ORDER BY ngo_id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockNgoIds(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    List<NgoGamification> findByNgoIdBetween(Integer fromId, Integer toId);
+
+    @Query("SELECT g.ngoId FROM NgoGamification g ORDER BY g.ngoId")
+    List<Integer> findAllNgoIds();
+
+    // Rows created before the impact counters existed
+    long countByTotalDonatedIsNull();
+
+    // Returns 1 when the row was created, 0 when the NGO already had one
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO ngo_gamification (ngo_id, ngo_name, total_points, impact_score, badges_earned, " +
+           "total_donated, completed_donations, students_helped, schools_reached, last_updated) " +
+           "VALUES (:ngoId, :ngoName, 50, 0, '[]', 0, 0, 0, 0, NOW())", nativeQuery = true)
+    int insertIfAbsent(@Param("ngoId") Integer ngoId, @Param("ngoName") String ngoName);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO ngo_gamification (ngo_id, ngo_name, total_points, impact_score, badges_earned, " +
+           "total_donated, completed_donations, students_helped, schools_reached, last_updated) " +
+           "SELECT n.ngo_id, n.ngo_name, 50, 0, '[]', 0, 0, 0, 0, NOW() FROM ngos n", nativeQuery = true)
+    int insertMissingForAllNgos();
+
+    // Re-derive the counters from the NGO donation tables and ngo_reach (NGOs fromId..toId inclusive).
+    // Rebuild ngo_reach first.
+    @Modifying
+    @Query(value = "UPDATE ngo_gamification g " +
+           "LEFT JOIN (" +
+           "  SELECT ngo_id, SUM(amount) AS total, COUNT(*) AS donations FROM (" +
+           "    SELECT ngo_id, amount FROM ngo_student_donations " +
+           "    WHERE (payment_status = 'COMPLETED' OR payment_status IS NULL) AND ngo_id BETWEEN :fromId AND :toId " +
+           "    UNION ALL " +
+           "    SELECT ngo_id, amount FROM ngo_project_donations " +
+           "    WHERE (payment_status = 'COMPLETED' OR payment_status IS NULL) AND ngo_id BETWEEN :fromId AND :toId" +
+           "  ) counted GROUP BY ngo_id" +
+           ") t ON t.ngo_id = g.ngo_id " +
+           "LEFT JOIN (" +
+           "  SELECT ngo_id, SUM(reach_type = 'STUDENT') AS students, SUM(reach_type = 'SCHOOL') AS schools " +
+           "  FROM ngo_reach WHERE ngo_id BETWEEN :fromId AND :toId GROUP BY ngo_id" +
+           ") r ON r.ngo_id = g.ngo_id " +
+           "SET g.total_donated = COALESCE(t.total, 0), g.completed_donations = COALESCE(t.donations, 0), " +
+           "g.students_helped = COALESCE(r.students, 0), g.schools_reached = COALESCE(r.schools, 0) " +
+           "WHERE g.ngo_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int reconcileCounters(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
 }
- 
\ No newline at end of file
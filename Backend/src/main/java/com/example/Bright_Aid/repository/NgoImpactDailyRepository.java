@@ -0,0 +1,100 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.NgoImpactDaily;
+import com.example.Bright_Aid.repository.projection.NgoDayKeyView;
+import com.example.Bright_Aid.repository.projection.NgoImpactDayView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NgoImpactDailyRepository extends JpaRepository<NgoImpactDaily, Long> {
+
+    // Counted NGO donation rows (legacy rows without a status count as completed), with the school
+    // resolved through the student or the project. Each branch is completed with its own filter.
+    String STUDENT_ROWS = "SELECT nsd.ngo_id, nsd.donated_at, nsd.amount, nsd.student_id, st.school_id " +
+           "FROM ngo_student_donations nsd LEFT JOIN students st ON st.student_id = nsd.student_id " +
+           "WHERE (nsd.payment_status = 'COMPLETED' OR nsd.payment_status IS NULL) ";
+
+    String PROJECT_ROWS = "SELECT npd.ngo_id, npd.donated_at, npd.amount, NULL, sp.school_id " +
+           "FROM ngo_project_donations npd LEFT JOIN school_projects sp ON sp.project_id = npd.project_id " +
+           "WHERE (npd.payment_status = 'COMPLETED' OR npd.payment_status IS NULL) ";
+
+    // One NGO's rows for one day: range predicates so both branches stay on idx_*_ngo_donated
+    String ONE_DAY_ROWS = STUDENT_ROWS +
+           "AND nsd.ngo_id = :ngoId AND nsd.donated_at >= :dayStart AND nsd.donated_at < :dayEnd " +
+           "UNION ALL " + PROJECT_ROWS +
+           "AND npd.ngo_id = :ngoId AND npd.donated_at >= :dayStart AND npd.donated_at < :dayEnd";
+
+    String ROLLUP_INSERT = "INSERT INTO ngo_impact_daily (ngo_id, day, amount_donated, donations, " +
+           "students_reached, schools_reached, updated_at) " +
+           "SELECT u.ngo_id, DATE(u.donated_at), SUM(u.amount), COUNT(*), " +
+           "COUNT(DISTINCT u.student_id), COUNT(DISTINCT u.school_id), NOW() " +
+           "FROM (";
+
+    String ROLLUP_GROUP = ") u " +
+           "GROUP BY u.ngo_id, DATE(u.donated_at)";
+
+    List<NgoImpactDaily> findByNgoIdAndDayBetweenOrderByDayAsc(Integer ngoId, LocalDate from, LocalDate to);
+
+    // Buckets touched by rows written in (after, upTo]; walks idx_*_updated
+    @Query(value = "SELECT ngo_id AS ngoId, TIMESTAMP(DATE(donated_at)) AS dayStart FROM ngo_student_donations " +
+           "WHERE updated_at > :after AND updated_at <= :upTo AND ngo_id IS NOT NULL AND donated_at IS NOT NULL " +
+           "UNION " +
+           "SELECT ngo_id, TIMESTAMP(DATE(donated_at)) FROM ngo_project_donations " +
+           "WHERE updated_at > :after AND updated_at <= :upTo AND ngo_id IS NOT NULL AND donated_at IS NOT NULL",
+           nativeQuery = true)
+    List<NgoDayKeyView> findTouchedDays(@Param("after") LocalDateTime after, @Param("upTo") LocalDateTime upTo);
+
+    // Same, for one NGO from the watermark on: the live delta a read layers over the rollup
+    @Query(value = "SELECT ngo_id AS ngoId, TIMESTAMP(DATE(donated_at)) AS dayStart FROM ngo_student_donations " +
+           "WHERE updated_at > :after AND ngo_id = :ngoId AND donated_at IS NOT NULL " +
+           "UNION " +
+           "SELECT ngo_id, TIMESTAMP(DATE(donated_at)) FROM ngo_project_donations " +
+           "WHERE updated_at > :after AND ngo_id = :ngoId AND donated_at IS NOT NULL",
+           nativeQuery = true)
+    List<NgoDayKeyView> findTouchedDaysForNgo(@Param("ngoId") Integer ngoId, @Param("after") LocalDateTime after);
+
+    @Query(value = "SELECT TIMESTAMP(DATE(u.donated_at)) AS dayStart, COALESCE(SUM(u.amount), 0) AS amountDonated, " +
+           "COUNT(*) AS donations, COUNT(DISTINCT u.student_id) AS studentsReached, " +
+           "COUNT(DISTINCT u.school_id) AS schoolsReached FROM (" + ONE_DAY_ROWS + ") " +
+           "u GROUP BY DATE(u.donated_at)",
+           nativeQuery = true)
+    List<NgoImpactDayView> aggregateDay(@Param("ngoId") Integer ngoId,
+                                        @Param("dayStart") LocalDateTime dayStart,
+                                        @Param("dayEnd") LocalDateTime dayEnd);
+
+    // Re-derive one bucket in place on uk_ngo_impact_daily_ngo_day: the existing row is updated under
+    // its record lock, with no delete+insert gap locks for concurrent refreshes to deadlock on.
+    // Returns 0 when the day has no counted rows left (the SELECT is empty)
+    @Modifying
+    @Query(value = ROLLUP_INSERT + ONE_DAY_ROWS + ROLLUP_GROUP + " " +
+           "ON DUPLICATE KEY UPDATE amount_donated = VALUES(amount_donated), donations = VALUES(donations), " +
+           "students_reached = VALUES(students_reached), schools_reached = VALUES(schools_reached), " +
+           "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int upsertDay(@Param("ngoId") Integer ngoId,
+                  @Param("dayStart") LocalDateTime dayStart,
+                  @Param("dayEnd") LocalDateTime dayEnd);
+
+    @Modifying
+    @Query(value = "DELETE FROM ngo_impact_daily WHERE ngo_id = :ngoId AND day = :day", nativeQuery = true)
+    int deleteDay(@Param("ngoId") Integer ngoId, @Param("day") LocalDate day);
+
+    // Full rebuild
+    @Modifying
+    @Query(value = "DELETE FROM ngo_impact_daily", nativeQuery = true)
+    int deleteAllDays();
+
+    @Modifying
+    @Query(value = ROLLUP_INSERT + STUDENT_ROWS + "AND nsd.ngo_id IS NOT NULL AND nsd.donated_at IS NOT NULL " +
+           "UNION ALL " + PROJECT_ROWS + "AND npd.ngo_id IS NOT NULL AND npd.donated_at IS NOT NULL" + ROLLUP_GROUP,
+           nativeQuery = true)
+    int insertAllDays();
+}
@@ -1,6 +1,7 @@
 package com.example.Bright_Aid.repository;
 
 import com.example.Bright_Aid.Entity.NgoProjectDonations;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +20,9 @@ public interface NgoProjectDonationsRepository extends JpaRepository<NgoProjectD
     @Query(value = "SELECT * FROM ngo_project_donations WHERE ngo_id = :ngoId", nativeQuery = true)
     List<NgoProjectDonations> findByNgoId(@Param("ngoId") Integer ngoId);
 
+    // One page of an NGO's donations; the service sorts newest first (idx_npd_ngo_donated)
+    List<NgoProjectDonations> findByNgoId(Integer ngoId, Pageable pageable);
+
     // Find donations by payment status
     @Query(value = "SELECT * FROM ngo_project_donations WHERE payment_status = :status", nativeQuery = true)
     List<NgoProjectDonations> findByPaymentStatus(@Param("status") String status);
@@ -5,6 +5,8 @@ import com.example.Bright_Aid.Entity.NgoProjectSchool.ParticipationStatus;
 import com.example.Bright_Aid.Entity.NgoProject;
 import com.example.Bright_Aid.Entity.School;
 import com.example.Bright_Aid.Entity.ProjectType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,4 +20,14 @@ import java.util.Optional;
 @Repository
 public interface NgoProjectSchoolRepository extends JpaRepository<NgoProjectSchool, Integer> {
 
+    // Filtered listings; the graph loads what convertToDto reads in the same query
+    @EntityGraph(attributePaths = {"ngoProject", "ngoProject.ngo", "school", "projectType"})
+    List<NgoProjectSchool> findByNgoProjectNgoProjectId(Integer ngoProjectId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"ngoProject", "ngoProject.ngo", "school", "projectType"})
+    List<NgoProjectSchool> findBySchoolSchoolId(Integer schoolId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"ngoProject", "ngoProject.ngo", "school", "projectType"})
+    List<NgoProjectSchool> findByParticipationStatus(ParticipationStatus participationStatus, Pageable pageable);
+
 }
\ No newline at end of file
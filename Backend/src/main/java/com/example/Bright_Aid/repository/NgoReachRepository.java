@@ -0,0 +1,65 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.NgoReach;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NgoReachRepository extends JpaRepository<NgoReach, Long> {
+
+    // Donations that count towards an NGO's impact (legacy rows without a status count as completed)
+    String COUNTED = "(payment_status = 'COMPLETED' OR payment_status IS NULL)";
+
+    // Returns 1 when the pair is new (first donation to this target), 2 when it already existed
+    @Modifying
+    @Query(value = "INSERT INTO ngo_reach (ngo_id, reach_type, target_id, donation_count) " +
+           "VALUES (:ngoId, :reachType, :targetId, 1) " +
+           "ON DUPLICATE KEY UPDATE donation_count = donation_count + 1", nativeQuery = true)
+    int increment(@Param("ngoId") Integer ngoId, @Param("reachType") String reachType,
+                  @Param("targetId") Integer targetId);
+
+    @Modifying
+    @Query(value = "UPDATE ngo_reach SET donation_count = donation_count - 1 " +
+           "WHERE ngo_id = :ngoId AND reach_type = :reachType AND target_id = :targetId", nativeQuery = true)
+    int decrement(@Param("ngoId") Integer ngoId, @Param("reachType") String reachType,
+                  @Param("targetId") Integer targetId);
+
+    // Returns 1 when the last donation to this target was reversed and the pair is gone
+    @Modifying
+    @Query(value = "DELETE FROM ngo_reach " +
+           "WHERE ngo_id = :ngoId AND reach_type = :reachType AND target_id = :targetId AND donation_count <= 0",
+           nativeQuery = true)
+    int deleteIfEmpty(@Param("ngoId") Integer ngoId, @Param("reachType") String reachType,
+                      @Param("targetId") Integer targetId);
+
+    // ===================== Reconciliation (NGOs fromId..toId inclusive) =====================
+
+    @Modifying
+    @Query(value = "DELETE FROM ngo_reach WHERE ngo_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteForNgos(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    // Students come from NGO student donations; schools from the donated student's school
+    // or the donated school project's school
+    @Modifying
+    @Query(value = "INSERT INTO ngo_reach (ngo_id, reach_type, target_id, donation_count) " +
+           "SELECT ngo_id, 'STUDENT', student_id, COUNT(*) FROM ngo_student_donations " +
+           "WHERE ngo_id IS NOT NULL AND student_id IS NOT NULL AND " + COUNTED + " " +
+           "AND ngo_id BETWEEN :fromId AND :toId " +
+           "GROUP BY ngo_id, student_id " +
+           "UNION ALL " +
+           "SELECT ngo_id, 'SCHOOL', school_id, COUNT(*) FROM (" +
+           "  SELECT nsd.ngo_id, st.school_id FROM ngo_student_donations nsd " +
+           "  JOIN students st ON st.student_id = nsd.student_id " +
+           "  WHERE nsd.ngo_id IS NOT NULL AND (nsd.payment_status = 'COMPLETED' OR nsd.payment_status IS NULL) " +
+           "  AND nsd.ngo_id BETWEEN :fromId AND :toId " +
+           "  UNION ALL " +
+           "  SELECT npd.ngo_id, sp.school_id FROM ngo_project_donations npd " +
+           "  JOIN school_projects sp ON sp.project_id = npd.project_id " +
+           "  WHERE npd.ngo_id IS NOT NULL AND (npd.payment_status = 'COMPLETED' OR npd.payment_status IS NULL) " +
+           "  AND npd.ngo_id BETWEEN :fromId AND :toId" +
+           ") reached GROUP BY ngo_id, school_id", nativeQuery = true)
+    int insertForNgos(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+}
@@ -1,6 +1,7 @@
 package com.example.Bright_Aid.repository;
 
 import com.example.Bright_Aid.Entity.NgoStudentDonations;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +20,9 @@ public interface NgoStudentDonationsRepository extends JpaRepository<NgoStudentD
     @Query(value = "SELECT * FROM ngo_student_donations WHERE ngo_id = :ngoId", nativeQuery = true)
     List<NgoStudentDonations> findByNgoId(@Param("ngoId") Integer ngoId);
 
+    // One page of an NGO's donations; the service sorts newest first (idx_nsd_ngo_donated)
+    List<NgoStudentDonations> findByNgoId(Integer ngoId, Pageable pageable);
+
     // Find donations by payment status
     @Query(value = "SELECT * FROM ngo_student_donations WHERE payment_status = :status", nativeQuery = true)
     List<NgoStudentDonations> findByPaymentStatus(@Param("status") String status);
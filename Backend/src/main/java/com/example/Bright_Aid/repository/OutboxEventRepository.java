@@ -0,0 +1,84 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // PENDING events of one type that nobody has handled since :before (left over from a crash or a full queue)
+    @Query(value = "SELECT event_id FROM outbox_events " +
+           "WHERE status = 'PENDING' AND event_type = :eventType AND created_at < :before " +
+           "ORDER BY event_id LIMIT :limit", nativeQuery = true)
+    List<Long> findStalePendingIds(@Param("eventType") String eventType,
+                                   @Param("before") LocalDateTime before,
+                                   @Param("limit") int limit);
+
+    // Oldest-first batch of unprocessed events of one type
+    List<OutboxEvent> findByStatusAndEventTypeOrderByEventIdAsc(OutboxEvent.OutboxStatus status,
+                                                               OutboxEvent.EventType eventType,
+                                                               Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET status = 'PROCESSED', processed_at = NOW(), attempts = attempts + 1 " +
+           "WHERE event_id IN (:eventIds) AND status = 'PENDING'", nativeQuery = true)
+    int markAllProcessed(@Param("eventIds") Collection<Long> eventIds);
+
+    // Age of the oldest event still waiting, used to report convergence lag
+    @Query(value = "SELECT MIN(created_at) FROM outbox_events WHERE status = 'PENDING' AND event_type = :eventType",
+           nativeQuery = true)
+    LocalDateTime findOldestPendingCreatedAt(@Param("eventType") String eventType);
+
+    @Query(value = "SELECT COUNT(*) FROM outbox_events WHERE status = 'PENDING' AND event_type = :eventType",
+           nativeQuery = true)
+    long countPending(@Param("eventType") String eventType);
+
+    // One TRANSACTION_STATUS_CHANGED event per transaction and status: uk_outbox_dedup_key turns a
+    // redelivered or replayed change into a no-op. Returns 0 when the event already exists.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outbox_events " +
+           "(event_type, aggregate_reference, dedup_key, payload, status, attempts, created_at) " +
+           "VALUES ('TRANSACTION_STATUS_CHANGED', :transactionReference, " +
+           "CONCAT('STATUS:', :transactionId, ':', :status), " +
+           "JSON_OBJECT('transactionId', :transactionId, 'status', :status), 'PENDING', 0, NOW())",
+           nativeQuery = true)
+    int recordStatusChange(@Param("transactionId") Integer transactionId,
+                           @Param("transactionReference") String transactionReference,
+                           @Param("status") String status);
+
+    // Set-based counterpart of recordStatusChange for bulk status moves, equally idempotent.
+    // Only rows that actually ended up in :status are recorded.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outbox_events " +
+           "(event_type, aggregate_reference, dedup_key, payload, status, attempts, created_at) " +
+           "SELECT 'TRANSACTION_STATUS_CHANGED', transaction_reference, " +
+           "CONCAT('STATUS:', transaction_id, ':', status), " +
+           "JSON_OBJECT('transactionId', transaction_id, 'status', status), 'PENDING', 0, NOW() " +
+           "FROM payment_transactions WHERE transaction_id IN (:transactionIds) AND status = :status",
+           nativeQuery = true)
+    int recordStatusChanges(@Param("transactionIds") Collection<Integer> transactionIds,
+                            @Param("status") String status);
+
+    // Claim an event for processing; row lock makes a concurrent second claim wait and then see 0 rows
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET status = 'PROCESSED', processed_at = NOW(), attempts = attempts + 1 " +
+           "WHERE event_id = :eventId AND status = 'PENDING'", nativeQuery = true)
+    int markProcessed(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET attempts = attempts + 1, last_error = :error, " +
+           "status = CASE WHEN attempts >= :maxAttempts THEN 'FAILED' ELSE status END " +
+           "WHERE event_id = :eventId AND status = 'PENDING'", nativeQuery = true)
+    int recordFailure(@Param("eventId") Long eventId,
+                      @Param("error") String error,
+                      @Param("maxAttempts") int maxAttempts);
+}
@@ -2,7 +2,15 @@ package com.example.Bright_Aid.repository;
 
 import com.example.Bright_Aid.Entity.PaymentTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -10,4 +18,46 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
     
     Optional<PaymentTransaction> findByTransactionReference(String transactionReference);
     Optional<PaymentTransaction> findBySessionKey(String sessionKey);
+
+    // Store the gateway session key without reloading and re-saving the whole transaction row
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE payment_transactions SET session_key = :sessionKey, updated_at = NOW() WHERE transaction_id = :transactionId", nativeQuery = true)
+    int updateSessionKey(@Param("transactionId") Integer transactionId, @Param("sessionKey") String sessionKey);
+
+    // Move a PENDING transaction to its final status in one statement. A confirmed SUCCESS also
+    // overrides a row the sweeper expired (:expiredReason), because the donor did pay.
+    // Returns 0 when the row is missing or was already finalised by an earlier callback.
+    @Modifying
+    @Query(value = "UPDATE payment_transactions SET status = :status, " +
+           "completed_at = CASE WHEN :status = 'SUCCESS' THEN NOW() ELSE completed_at END, " +
+           "bank_transaction_id = :bankTransactionId, card_type = :cardType, card_no = :cardNo, " +
+           "gateway_response_code = :gatewayResponseCode, gateway_response_message = :gatewayResponseMessage, " +
+           "updated_at = NOW() " +
+           "WHERE transaction_reference = :transactionReference AND (status = 'PENDING' " +
+           "OR (:status = 'SUCCESS' AND status = 'CANCELLED' AND gateway_response_message = :expiredReason))",
+           nativeQuery = true)
+    int transitionFromPending(@Param("transactionReference") String transactionReference,
+                              @Param("status") String status,
+                              @Param("bankTransactionId") String bankTransactionId,
+                              @Param("cardType") String cardType,
+                              @Param("cardNo") String cardNo,
+                              @Param("gatewayResponseCode") String gatewayResponseCode,
+                              @Param("gatewayResponseMessage") String gatewayResponseMessage,
+                              @Param("expiredReason") String expiredReason);
+
+    boolean existsByTransactionReference(String transactionReference);
+
+    // Oldest abandoned sessions first; served by idx_payment_status_initiated
+    @Query(value = "SELECT transaction_id FROM payment_transactions " +
+           "WHERE status = 'PENDING' AND initiated_at < :cutoff " +
+           "ORDER BY initiated_at LIMIT :limit", nativeQuery = true)
+    List<Integer> findStalePendingIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // Expire a chunk in one statement; the PENDING guard lets a late callback that got there first win
+    @Modifying
+    @Query(value = "UPDATE payment_transactions SET status = 'CANCELLED', " +
+           "gateway_response_message = :reason, updated_at = NOW() " +
+           "WHERE transaction_id IN (:transactionIds) AND status = 'PENDING'", nativeQuery = true)
+    int expirePending(@Param("transactionIds") Collection<Integer> transactionIds, @Param("reason") String reason);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.PointJournal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PointJournalRepository extends JpaRepository<PointJournal, Long> {
+
+    // Append-only, so concurrent awards for one donor never contend on a row lock.
+    // Returns 0 when the event was already journalled.
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO point_journal (donor_id, points, source_event_id, created_at)
+        VALUES (:donorId, :points, :sourceEventId, :createdAt)
+        """, nativeQuery = true)
+    int append(@Param("donorId") Integer donorId,
+               @Param("points") Integer points,
+               @Param("sourceEventId") Long sourceEventId,
+               @Param("createdAt") LocalDateTime createdAt);
+}
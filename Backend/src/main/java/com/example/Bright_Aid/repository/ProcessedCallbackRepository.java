@@ -0,0 +1,14 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.ProcessedCallback;
+import com.example.Bright_Aid.Entity.PaymentTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedCallbackRepository extends JpaRepository<ProcessedCallback, Long> {
+
+    // Uses uk_processed_callback_status
+    boolean existsByTransactionReferenceAndResultingStatus(String transactionReference,
+                                                           PaymentTransaction.TransactionStatus resultingStatus);
+}
@@ -1,6 +1,7 @@
 package com.example.Bright_Aid.repository;
 
 import com.example.Bright_Aid.Entity.ProjectType;
+import com.example.Bright_Aid.repository.projection.ProjectTypeProjectView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,5 +13,8 @@ import java.util.Optional;
 @Repository
 public interface ProjectTypeRepository extends JpaRepository<ProjectType, Integer> {
 
-
+    // Project ids of every type in one pass, instead of initialising each type's project collection
+    @Query("SELECT p.projectType.projectTypeId AS projectTypeId, p.ngoProjectId AS projectId " +
+           "FROM NgoProject p WHERE p.projectType IS NOT NULL ORDER BY p.ngoProjectId")
+    List<ProjectTypeProjectView> findProjectIdsByType();
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.Bright_Aid.repository;
+
+import com.example.Bright_Aid.Entity.SchoolDonationLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SchoolDonationLedgerRepository extends JpaRepository<SchoolDonationLedger, Integer> {
+
+    // Resolve school, recipient label and donor name for a set of donations.
+    // The student's school wins when a donation names both a student and a project.
+    String LEDGER_SELECT = "SELECT d.donation_id, COALESCE(s.school_id, sp.school_id), d.donor_id, d.amount, " +
+           "d.payment_status, COALESCE(d.donated_at, d.created_at), " +
+           "COALESCE(pt.transaction_reference, CONCAT('TXN', LPAD(d.donation_id, 6, '0'))), " +
+           "COALESCE(donor.donor_name, 'Anonymous Donor'), " +
+           "CASE " +
+           "  WHEN d.student_id IS NOT NULL THEN CONCAT('Student: ', s.student_name) " +
+           "  WHEN d.project_id IS NOT NULL THEN CONCAT('Project: ', sp.project_title) " +
+           "  ELSE 'Unknown' " +
+           "END, NOW() " +
+           "FROM donations d " +
+           "LEFT JOIN payment_transactions pt ON d.transaction_id = pt.transaction_id " +
+           "LEFT JOIN donors donor ON d.donor_id = donor.donor_id " +
+           "LEFT JOIN students s ON d.student_id = s.student_id " +
+           "LEFT JOIN school_projects sp ON d.project_id = sp.project_id ";
+
+    String LEDGER_INSERT = "INSERT INTO school_donation_ledger (donation_id, school_id, donor_id, amount, " +
+           "payment_status, donated_at, transaction_ref, donor_name, recipient_name, updated_at) ";
+
+    // Dashboard reads: one range scan on idx_ledger_school_donated
+    List<SchoolDonationLedger> findTop5BySchoolIdOrderByDonatedAtDescDonationIdDesc(Integer schoolId);
+
+    List<SchoolDonationLedger> findBySchoolIdOrderByDonatedAtDescDonationIdDesc(Integer schoolId);
+
+    // Donors whose reach may change when these ledger rows change
+    @Query(value = "SELECT DISTINCT donor_id FROM school_donation_ledger " +
+           "WHERE donation_id IN (:donationIds) AND donor_id IS NOT NULL", nativeQuery = true)
+    List<Integer> findDonorIdsByDonationIds(@Param("donationIds") Collection<Integer> donationIds);
+
+    @Query(value = "SELECT DISTINCT d.donor_id FROM donations d " +
+           "WHERE d.transaction_id IN (:transactionIds) AND d.donor_id IS NOT NULL", nativeQuery = true)
+    List<Integer> findDonorIdsByTransactionIds(@Param("transactionIds") Collection<Integer> transactionIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM school_donation_ledger WHERE donation_id IN (:donationIds)", nativeQuery = true)
+    int deleteByDonationIds(@Param("donationIds") Collection<Integer> donationIds);
+
+    // Re-derive ledger rows for these donations (call deleteByDonationIds first)
+    @Modifying
+    @Query(value = LEDGER_INSERT + LEDGER_SELECT +
+           "WHERE d.donation_id IN (:donationIds) AND COALESCE(s.school_id, sp.school_id) IS NOT NULL",
+           nativeQuery = true)
+    int insertForDonations(@Param("donationIds") Collection<Integer> donationIds);
+
+    // Rebuild helpers, walking donations by primary key range
+    @Modifying
+    @Query(value = "DELETE FROM school_donation_ledger WHERE donation_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteRange(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    @Modifying
+    @Query(value = LEDGER_INSERT + LEDGER_SELECT +
+           "WHERE d.donation_id BETWEEN :fromId AND :toId AND COALESCE(s.school_id, sp.school_id) IS NOT NULL",
+           nativeQuery = true)
+    int insertRange(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    @Query(value = "SELECT COALESCE(MAX(donation_id), 0) FROM donations", nativeQuery = true)
+    Integer findMaxDonationId();
+
+    // Status moves driven by payment transactions only touch one column
+    @Modifying
+    @Query(value = "UPDATE school_donation_ledger l JOIN donations d ON d.donation_id = l.donation_id " +
+           "SET l.payment_status = d.payment_status, l.updated_at = NOW() " +
+           "WHERE d.transaction_id IN (:transactionIds)", nativeQuery = true)
+    int syncPaymentStatusByTransactionIds(@Param("transactionIds") Collection<Integer> transactionIds);
+}
@@ -4,16 +4,26 @@ import com.example.Bright_Aid.Entity.SchoolProject;
 import com.example.Bright_Aid.Entity.School;
 import com.example.Bright_Aid.Entity.User;
 import com.example.Bright_Aid.Entity.ProjectType;
+import com.example.Bright_Aid.repository.projection.ProjectProgressView;
+import com.example.Bright_Aid.repository.projection.ProjectRaisedView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SchoolProjectRepository extends JpaRepository<SchoolProject, Integer> {
 
+    // Id-only existence check for bulk import (one IN query per chunk instead of a findById per row)
+    @Query("SELECT sp.projectId FROM SchoolProject sp WHERE sp.projectId IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Query(value = "SELECT school_id FROM school_projects WHERE project_id = :projectId", nativeQuery = true)
+    Integer findSchoolIdByProjectId(@Param("projectId") Integer projectId);
+
     @Query("SELECT sp FROM SchoolProject sp JOIN FETCH sp.projectType WHERE sp.projectId = :projectId")
     SchoolProject findByIdWithProjectType(@Param("projectId") Integer projectId);
     
@@ -26,4 +36,19 @@ public interface SchoolProjectRepository extends JpaRepository<SchoolProject, In
     @Query(value = "SELECT COALESCE(SUM(d.amount), 0.0) FROM donations d WHERE d.project_id = :projectId AND d.payment_status = 'COMPLETED'", nativeQuery = true)
     java.math.BigDecimal getTotalRaisedAmount(@Param("projectId") Integer projectId);
 
+    // Bulk variants for listings: one grouped query each, whatever the number of projects.
+    // Projects without completed donations / progress updates are simply absent.
+    @Query(value = "SELECT d.project_id AS projectId, SUM(d.amount) AS raisedAmount FROM donations d " +
+           "WHERE d.project_id IN (:projectIds) AND d.payment_status = 'COMPLETED' GROUP BY d.project_id",
+           nativeQuery = true)
+    List<ProjectRaisedView> getTotalRaisedAmounts(@Param("projectIds") Collection<Integer> projectIds);
+
+    @Query(value = "SELECT latest.project_id AS projectId, latest.progress_percentage AS completionRate FROM (" +
+           "  SELECT pu.project_id, pu.progress_percentage, " +
+           "    ROW_NUMBER() OVER (PARTITION BY pu.project_id ORDER BY pu.created_at DESC, pu.update_id DESC) AS rn " +
+           "  FROM project_updates pu " +
+           "  WHERE pu.project_id IN (:projectIds) AND pu.progress_percentage IS NOT NULL" +
+           ") latest WHERE latest.rn = 1", nativeQuery = true)
+    List<ProjectProgressView> getLatestCompletionRates(@Param("projectIds") Collection<Integer> projectIds);
+
 }
\ No newline at end of file
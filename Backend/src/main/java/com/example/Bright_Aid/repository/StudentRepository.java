@@ -10,12 +10,20 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Integer> {
 
+    // Id-only existence check for bulk import (one IN query per chunk instead of a findById per row)
+    @Query("SELECT s.studentId FROM Student s WHERE s.studentId IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Query(value = "SELECT school_id FROM students WHERE student_id = :studentId", nativeQuery = true)
+    Integer findSchoolIdByStudentId(@Param("studentId") Integer studentId);
+
     // Find all students by school
     List<Student> findBySchool(School school);
 
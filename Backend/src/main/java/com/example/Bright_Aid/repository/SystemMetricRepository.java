@@ -19,6 +19,9 @@ public interface SystemMetricRepository extends JpaRepository<SystemMetric, Inte
 
     List<SystemMetric> findByMetricDateBetween(LocalDate startDate, LocalDate endDate);
 
+    // Admin dashboard range read: one range scan on uk_system_metrics_date
+    List<SystemMetric> findByMetricDateBetweenOrderByMetricDateAsc(LocalDate startDate, LocalDate endDate);
+
     List<SystemMetric> findByCalculatedAtBetween(LocalDateTime startDateTime, LocalDateTime endDateTime);
 
     List<SystemMetric> findByTotalActiveSchoolsGreaterThanEqual(Integer totalActiveSchools);
@@ -1,7 +1,10 @@
 package com.example.Bright_Aid.repository;
 
 import com.example.Bright_Aid.Entity.User;
+import com.example.Bright_Aid.repository.projection.UserStatusView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,4 +17,9 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     // Optional: check if email exists
     boolean existsByEmail(String email);
+
+    // Scalar columns only, so none of the user's one-to-one associations are loaded
+    @Query("SELECT u.userId AS userId, u.isActive AS isActive, u.userType AS userType, u.passwordHash AS passwordHash " +
+           "FROM User u WHERE u.email = :email")
+    Optional<UserStatusView> findStatusByEmail(@Param("email") String email);
 }
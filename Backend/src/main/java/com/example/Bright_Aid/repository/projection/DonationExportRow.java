@@ -0,0 +1,15 @@
+package com.example.Bright_Aid.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One line of a donation report export, in output column order
+public record DonationExportRow(
+        String donationRef,
+        LocalDateTime donatedAt,
+        BigDecimal amount,
+        String paymentStatus,
+        String transactionRef,
+        String donorName,
+        String recipientName) {
+}
@@ -0,0 +1,29 @@
+package com.example.Bright_Aid.repository.projection;
+
+import com.example.Bright_Aid.Entity.Donation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row of a donor's donation history, as read by DonorHistoryRepository, with every column
+// already in its target type (enum, BigDecimal, LocalDateTime)
+public record DonorDonationHistoryRow(
+        Integer donationId,
+        Integer donorId,
+        Integer projectId,
+        Integer studentId,
+        BigDecimal amount,
+        Donation.DonationType donationType,
+        Integer transactionId,
+        Donation.PaymentStatus paymentStatus,
+        Donation.DonationPurpose purpose,
+        String donorMessage,
+        Boolean isAnonymous,
+        LocalDateTime donatedAt,
+        LocalDateTime paymentCompletedAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String transactionRef,
+        String projectName,
+        String recipientName) {
+}
@@ -0,0 +1,11 @@
+package com.example.Bright_Aid.repository.projection;
+
+// Minimal donor gamification row used to seed the in-memory leaderboard
+public interface DonorPointsView {
+
+    Integer getDonorId();
+
+    String getDonorName();
+
+    Integer getTotalPoints();
+}
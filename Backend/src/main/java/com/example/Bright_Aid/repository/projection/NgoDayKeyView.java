@@ -0,0 +1,11 @@
+package com.example.Bright_Aid.repository.projection;
+
+import java.time.LocalDateTime;
+
+// An (NGO, day) rollup bucket touched by NGO donation writes
+public interface NgoDayKeyView {
+
+    Integer getNgoId();
+
+    LocalDateTime getDayStart();
+}
@@ -0,0 +1,18 @@
+package com.example.Bright_Aid.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One NGO impact day aggregated live from the NGO donation tables (same shape as an ngo_impact_daily row)
+public interface NgoImpactDayView {
+
+    LocalDateTime getDayStart();
+
+    BigDecimal getAmountDonated();
+
+    Long getDonations();
+
+    Long getStudentsReached();
+
+    Long getSchoolsReached();
+}
@@ -0,0 +1,9 @@
+package com.example.Bright_Aid.repository.projection;
+
+// Progress reported by a project's latest update (bulk enrichment of project listings)
+public interface ProjectProgressView {
+
+    Integer getProjectId();
+
+    Double getCompletionRate();
+}
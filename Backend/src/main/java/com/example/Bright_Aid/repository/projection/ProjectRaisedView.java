@@ -0,0 +1,11 @@
+package com.example.Bright_Aid.repository.projection;
+
+import java.math.BigDecimal;
+
+// Completed donation total for one project (bulk enrichment of project listings)
+public interface ProjectRaisedView {
+
+    Integer getProjectId();
+
+    BigDecimal getRaisedAmount();
+}
@@ -0,0 +1,9 @@
+package com.example.Bright_Aid.repository.projection;
+
+// One NGO project id under its project type (project type listings)
+public interface ProjectTypeProjectView {
+
+    Integer getProjectTypeId();
+
+    Integer getProjectId();
+}
@@ -0,0 +1,15 @@
+package com.example.Bright_Aid.repository.projection;
+
+import com.example.Bright_Aid.Entity.User;
+
+// The user columns the JWT filter checks a token against
+public interface UserStatusView {
+
+    Integer getUserId();
+
+    Boolean getIsActive();
+
+    User.UserType getUserType();
+
+    String getPasswordHash();
+}
@@ -5,6 +5,7 @@ import com.example.Bright_Aid.Dto.AuthDTO;
 import com.example.Bright_Aid.Dto.AuthResponse;
 import com.example.Bright_Aid.Dto.UserDTO;
 import com.example.Bright_Aid.Security.JwtUtil;
+import com.example.Bright_Aid.Security.UserStatusCache;
 import com.example.Bright_Aid.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,11 +38,13 @@ public class AuthService {
             );
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwtToken = jwtUtil.generateToken(userDetails);
 
             User user = userRepository.findByEmail(authDTO.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            // The principal's password is erased after authentication, so take the hash from the row
+            String jwtToken = jwtUtil.generateToken(userDetails, UserStatusCache.credentialsVersion(user.getPasswordHash()));
+
             return AuthResponse.builder()
                     .token(jwtToken)
                     .user(mapToDTO(user))
@@ -0,0 +1,202 @@
+package com.example.Bright_Aid.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bulk re-evaluation of donor badges after a rule change.
+// Walks donor_gamification by primary key in chunks (keyset, so every chunk is an index range),
+// evaluates the current rules and batch-updates only the rows whose badge set changed. Each
+// update is guarded on total_points: a donor whose points moved since the chunk was read was
+// already re-badged by that write and is left alone.
+@Service
+@Slf4j
+public class BadgeRecomputeService {
+
+    private static final TypeReference<List<String>> BADGE_LIST = new TypeReference<>() {
+    };
+
+    private final BadgeRuleService badgeRuleService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor maintenanceExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${badges.recompute.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    // A rule change during a run asks for one more pass once the current one ends
+    private final AtomicBoolean rerunRequested = new AtomicBoolean();
+
+    private final AtomicLong rowsScanned = new AtomicLong();
+    private final AtomicLong rowsChanged = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+    private final AtomicLong chunksDone = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long lastRunMs;
+    private volatile String lastError;
+
+    private record Row(int gamificationId, int totalPoints, String badgesJson) {
+    }
+
+    public BadgeRecomputeService(BadgeRuleService badgeRuleService,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("maintenanceExecutor") ThreadPoolTaskExecutor maintenanceExecutor,
+                                 PlatformTransactionManager transactionManager) {
+        this.badgeRuleService = badgeRuleService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Returns false when a run is already in progress (it will pick the new rules up with one more pass)
+    public boolean startRecompute() {
+        if (!running.compareAndSet(false, true)) {
+            rerunRequested.set(true);
+            return false;
+        }
+        try {
+            maintenanceExecutor.execute(this::runUntilSettled);
+            return true;
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    private void runUntilSettled() {
+        do {
+            try {
+                do {
+                    rerunRequested.set(false);
+                    recomputeAll();
+                } while (rerunRequested.get());
+            } finally {
+                running.set(false);
+            }
+            // A rule change that landed between the last check and the release above found running
+            // still set and only raised rerunRequested: take the run back for it. If a new
+            // startRecompute wins the flag instead, its own run makes that pass.
+        } while (rerunRequested.get() && running.compareAndSet(false, true));
+    }
+
+    private void recomputeAll() {
+        long started = System.currentTimeMillis();
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        lastError = null;
+        rowsScanned.set(0);
+        rowsChanged.set(0);
+        rowsSkipped.set(0);
+        chunksDone.set(0);
+        try {
+            int lastId = 0;
+            while (true) {
+                List<Row> chunk = jdbcTemplate.query(
+                        "SELECT gamification_id, total_points, badges_earned FROM donor_gamification " +
+                        "WHERE gamification_id > ? ORDER BY gamification_id LIMIT ?",
+                        (rs, i) -> new Row(rs.getInt(1), rs.getInt(2), rs.getString(3)),
+                        lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                applyChunk(chunk);
+                lastId = chunk.get(chunk.size() - 1).gamificationId();
+                rowsScanned.addAndGet(chunk.size());
+                chunksDone.incrementAndGet();
+            }
+            log.info("Badge recompute finished: {} donors scanned, {} updated in {} ms",
+                    rowsScanned.get(), rowsChanged.get(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Badge recompute failed after {} donors: {}", rowsScanned.get(), e.getMessage());
+        } finally {
+            lastRunMs = System.currentTimeMillis() - started;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private void applyChunk(List<Row> chunk) {
+        List<Object[]> updates = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Row row : chunk) {
+            List<String> expected = badgeRuleService.badgesFor(row.totalPoints());
+            if (sameBadges(parseBadges(row.badgesJson()), expected)) {
+                continue;
+            }
+            updates.add(new Object[] {toJson(expected), now, row.gamificationId(), row.totalPoints()});
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        int[] results = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+                "UPDATE donor_gamification SET badges_earned = ?, last_updated = ? " +
+                "WHERE gamification_id = ? AND total_points = ?", updates));
+        for (int result : results != null ? results : new int[0]) {
+            // The driver may report SUCCESS_NO_INFO (-2) for rewritten batches; count those as applied
+            if (result == 0) {
+                rowsSkipped.incrementAndGet();
+            } else {
+                rowsChanged.incrementAndGet();
+            }
+        }
+    }
+
+    // Order is not significant: a stored set in a different order is still current
+    private boolean sameBadges(List<String> stored, List<String> expected) {
+        return stored != null && stored.size() == expected.size() && new HashSet<>(stored).equals(new HashSet<>(expected));
+    }
+
+    private List<String> parseBadges(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, BADGE_LIST);
+        } catch (JsonProcessingException e) {
+            return null; // unreadable value: rewrite it
+        }
+    }
+
+    private String toJson(List<String> badges) {
+        try {
+            return objectMapper.writeValueAsString(badges);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("rerunPending", rerunRequested.get());
+        status.put("rowsScanned", rowsScanned.get());
+        status.put("rowsChanged", rowsChanged.get());
+        status.put("rowsSkippedConcurrentUpdate", rowsSkipped.get());
+        status.put("chunksDone", chunksDone.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("lastRunMs", lastRunMs);
+        status.put("lastError", lastError);
+        return status;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.BadgeRuleDto;
+import com.example.Bright_Aid.Entity.BadgeRule;
+import com.example.Bright_Aid.repository.BadgeRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Single source of the donor badge and level rules, read from badge_rules.
+// The active rules are held in memory as sorted threshold arrays, swapped whole on every change,
+// so evaluating a donor is a short array walk with no query. The rules load on first use, so a
+// scheduled job running before ApplicationReady never evaluates donors against an empty rule set.
+@Service
+@Slf4j
+public class BadgeRuleService {
+
+    private static final String DEFAULT_LEVEL = "Beginner";
+
+    private final BadgeRuleRepository badgeRuleRepository;
+
+    // Null until first loaded
+    private volatile RuleSet rules;
+
+    // Thresholds ascending; parallel name arrays
+    private record RuleSet(int[] badgePoints, String[] badgeNames, int[] levelPoints, String[] levelNames) {
+    }
+
+    public BadgeRuleService(BadgeRuleRepository badgeRuleRepository) {
+        this.badgeRuleRepository = badgeRuleRepository;
+    }
+
+    // Warm-up only: whichever of this and the first badgesFor/levelFor call comes first loads the rules
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void seedAndLoad() {
+        currentRules();
+    }
+
+    // A failed load throws, so the caller's transaction rolls back instead of wiping badges
+    private RuleSet currentRules() {
+        RuleSet current = rules;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (rules == null) {
+                if (badgeRuleRepository.count() == 0) {
+                    badgeRuleRepository.saveAll(defaultRules());
+                    log.info("Seeded default badge and level rules");
+                }
+                reload();
+            }
+            return rules;
+        }
+    }
+
+    public void reload() {
+        List<BadgeRule> active = badgeRuleRepository.findByActiveTrueOrderByMinPointsAsc();
+        List<BadgeRule> badges = active.stream().filter(r -> r.getRuleType() == BadgeRule.RuleType.BADGE).toList();
+        List<BadgeRule> levels = active.stream().filter(r -> r.getRuleType() == BadgeRule.RuleType.LEVEL).toList();
+        rules = new RuleSet(
+                badges.stream().mapToInt(BadgeRule::getMinPoints).toArray(),
+                badges.stream().map(BadgeRule::getName).toArray(String[]::new),
+                levels.stream().mapToInt(BadgeRule::getMinPoints).toArray(),
+                levels.stream().map(BadgeRule::getName).toArray(String[]::new));
+    }
+
+    // Every badge reached, lowest threshold first
+    public List<String> badgesFor(Integer totalPoints) {
+        RuleSet current = currentRules();
+        int points = totalPoints != null ? totalPoints : 0;
+        List<String> badges = new ArrayList<>();
+        for (int i = 0; i < current.badgePoints().length && current.badgePoints()[i] <= points; i++) {
+            badges.add(current.badgeNames()[i]);
+        }
+        return badges;
+    }
+
+    public String levelFor(Integer totalPoints) {
+        RuleSet current = currentRules();
+        int points = totalPoints != null ? totalPoints : 0;
+        String level = DEFAULT_LEVEL;
+        for (int i = 0; i < current.levelPoints().length && current.levelPoints()[i] <= points; i++) {
+            level = current.levelNames()[i];
+        }
+        return level;
+    }
+
+    // ===================== RULE MAINTENANCE =====================
+
+    public List<BadgeRuleDto> getAllRules() {
+        return badgeRuleRepository.findAllByOrderByRuleTypeAscMinPointsAsc().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public BadgeRuleDto createRule(BadgeRuleDto dto) {
+        BadgeRule rule = new BadgeRule();
+        applyDto(rule, dto);
+        return convertToDto(saveAndReload(rule));
+    }
+
+    // Empty when no rule has this id
+    @Transactional
+    public Optional<BadgeRuleDto> updateRule(Integer ruleId, BadgeRuleDto dto) {
+        return badgeRuleRepository.findById(ruleId)
+                .map(rule -> {
+                    applyDto(rule, dto);
+                    return convertToDto(saveAndReload(rule));
+                });
+    }
+
+    // False when no rule has this id
+    @Transactional
+    public boolean deleteRule(Integer ruleId) {
+        if (!badgeRuleRepository.existsById(ruleId)) {
+            return false;
+        }
+        badgeRuleRepository.deleteById(ruleId);
+        badgeRuleRepository.flush();
+        reload();
+        return true;
+    }
+
+    private BadgeRule saveAndReload(BadgeRule rule) {
+        rule.setUpdatedAt(LocalDateTime.now());
+        BadgeRule saved = badgeRuleRepository.saveAndFlush(rule);
+        reload();
+        return saved;
+    }
+
+    private void applyDto(BadgeRule rule, BadgeRuleDto dto) {
+        if (dto.getRuleType() == null || dto.getName() == null || dto.getName().isBlank()
+                || dto.getMinPoints() == null || dto.getMinPoints() < 0) {
+            throw new IllegalArgumentException("ruleType, name and a non-negative minPoints are required");
+        }
+        try {
+            rule.setRuleType(BadgeRule.RuleType.valueOf(dto.getRuleType().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid ruleType: " + dto.getRuleType());
+        }
+        rule.setName(dto.getName().trim());
+        rule.setMinPoints(dto.getMinPoints());
+        rule.setActive(dto.getActive() != null ? dto.getActive() : true);
+    }
+
+    private BadgeRuleDto convertToDto(BadgeRule rule) {
+        return BadgeRuleDto.builder()
+                .ruleId(rule.getRuleId())
+                .ruleType(rule.getRuleType().name())
+                .name(rule.getName())
+                .minPoints(rule.getMinPoints())
+                .active(rule.getActive())
+                .updatedAt(rule.getUpdatedAt())
+                .build();
+    }
+
+    // The thresholds the platform has always used (1 BDT = 5 points)
+    private List<BadgeRule> defaultRules() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BadgeRule> defaults = new ArrayList<>();
+        defaults.add(rule(BadgeRule.RuleType.BADGE, "First Donor", 500, now));         // ৳100
+        defaults.add(rule(BadgeRule.RuleType.BADGE, "Generous Heart", 2500, now));     // ৳500
+        defaults.add(rule(BadgeRule.RuleType.BADGE, "Education Champion", 5000, now)); // ৳1,000
+        defaults.add(rule(BadgeRule.RuleType.BADGE, "School Builder", 10000, now));    // ৳2,000
+        defaults.add(rule(BadgeRule.RuleType.BADGE, "Community Hero", 25000, now));    // ৳5,000
+        defaults.add(rule(BadgeRule.RuleType.BADGE, "BrightAid Legend", 50000, now));  // ৳10,000
+        defaults.add(rule(BadgeRule.RuleType.LEVEL, "Bronze", 1, now));
+        defaults.add(rule(BadgeRule.RuleType.LEVEL, "Silver", 2500, now));
+        defaults.add(rule(BadgeRule.RuleType.LEVEL, "Gold", 10000, now));
+        defaults.add(rule(BadgeRule.RuleType.LEVEL, "Platinum", 25000, now));
+        defaults.add(rule(BadgeRule.RuleType.LEVEL, "Diamond", 50000, now));
+        return defaults;
+    }
+
+    private BadgeRule rule(BadgeRule.RuleType type, String name, int minPoints, LocalDateTime now) {
+        return BadgeRule.builder().ruleType(type).name(name).minPoints(minPoints).active(true).updatedAt(now).build();
+    }
+}
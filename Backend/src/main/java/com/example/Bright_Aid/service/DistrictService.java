@@ -5,9 +5,12 @@ import com.example.Bright_Aid.Entity.Division;
 import com.example.Bright_Aid.Entity.School;
 import com.example.Bright_Aid.Entity.Upazila;
 import com.example.Bright_Aid.Dto.DistrictDto;
+import com.example.Bright_Aid.event.GeoDataChangedEvent;
 import com.example.Bright_Aid.repository.DistrictRepository;
 import com.example.Bright_Aid.repository.DivisionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -19,10 +22,17 @@ public class DistrictService {
 
     private final DistrictRepository districtRepository;
     private final DivisionRepository divisionRepository;
+    private final GeoTreeCache geoTreeCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DistrictService(DistrictRepository districtRepository, DivisionRepository divisionRepository) {
+    public DistrictService(DistrictRepository districtRepository,
+                           DivisionRepository divisionRepository,
+                           GeoTreeCache geoTreeCache,
+                           ApplicationEventPublisher eventPublisher) {
         this.districtRepository = districtRepository;
         this.divisionRepository = divisionRepository;
+        this.geoTreeCache = geoTreeCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // Create or update District
@@ -38,21 +48,22 @@ public class DistrictService {
                 .build();
 
         District saved = districtRepository.save(district);
+        eventPublisher.publishEvent(new GeoDataChangedEvent("district " + saved.getDistrictId() + " saved"));
         return mapToDto(saved);
     }
 
-    // Get all districts
+    // Reads are served from the geo tree and need no transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<DistrictDto> getAllDistricts() {
-        return districtRepository.findAll().stream()
+        return geoTreeCache.getTree().districts().values().stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
     // Get district by ID
+    @Transactional(propagation = Propagation.SUPPORTS)
     public DistrictDto getDistrictById(Integer districtId) {
-        return districtRepository.findById(districtId)
-                .map(this::mapToDto)
-                .orElseThrow(() -> new RuntimeException("District not found"));
+        return mapToDto(geoTreeCache.getDistrict(districtId));
     }
 
     // Delete district
@@ -61,27 +72,36 @@ public class DistrictService {
             throw new RuntimeException("District not found");
         }
         districtRepository.deleteById(districtId);
+        eventPublisher.publishEvent(new GeoDataChangedEvent("district " + districtId + " deleted"));
     }
 
     // Get all upazilas for a district
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Integer> getUpazilaIds(Integer districtId) {
-        District district = districtRepository.findById(districtId)
-                .orElseThrow(() -> new RuntimeException("District not found"));
-        List<Upazila> upazilas = district.getUpazilas();
-        if (upazilas == null) return List.of();
-        return upazilas.stream().map(Upazila::getUpazilaId).collect(Collectors.toList());
+        return geoTreeCache.getDistrict(districtId).upazilaIds();
     }
 
     // Get all schools for a district
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Integer> getSchoolIds(Integer districtId) {
-        District district = districtRepository.findById(districtId)
-                .orElseThrow(() -> new RuntimeException("District not found"));
-        List<School> schools = district.getSchools();
-        if (schools == null) return List.of();
-        return schools.stream().map(School::getSchoolId).collect(Collectors.toList());
+        return geoTreeCache.getDistrict(districtId).schoolIds();
+    }
+
+    // Map a cached district node to DTO (the id lists are immutable and shared with the tree)
+    private DistrictDto mapToDto(GeoTreeCache.DistrictNode node) {
+        return DistrictDto.builder()
+                .districtId(node.districtId())
+                .districtName(node.districtName())
+                .districtCode(node.districtCode())
+                .divisionId(node.divisionId())
+                .divisionName(node.divisionName())
+                .upazilaIds(node.upazilaIds())
+                .schoolIds(node.schoolIds())
+                .schoolCount(node.schoolIds().size())
+                .build();
     }
 
-    // Map District entity to DTO
+    // Map District entity to DTO (write responses, before the tree has been rebuilt)
     private DistrictDto mapToDto(District district) {
         List<Integer> upazilaIds = district.getUpazilas() != null ?
                 district.getUpazilas().stream().map(Upazila::getUpazilaId).toList() :
@@ -99,6 +119,7 @@ public class DistrictService {
                 .divisionName(district.getDivision().getDivisionName())
                 .upazilaIds(upazilaIds)
                 .schoolIds(schoolIds)
+                .schoolCount(schoolIds.size())
                 .build();
     }
 }
\ No newline at end of file
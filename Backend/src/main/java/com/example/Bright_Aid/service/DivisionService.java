@@ -4,8 +4,11 @@ import com.example.Bright_Aid.Entity.District;
 import com.example.Bright_Aid.Entity.Division;
 import com.example.Bright_Aid.Entity.School;
 import com.example.Bright_Aid.Dto.DivisionDto;
+import com.example.Bright_Aid.event.GeoDataChangedEvent;
 import com.example.Bright_Aid.repository.DivisionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -16,14 +19,21 @@ import java.util.stream.Collectors;
 public class DivisionService {
 
     private final DivisionRepository divisionRepository;
+    private final GeoTreeCache geoTreeCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DivisionService(DivisionRepository divisionRepository) {
+    public DivisionService(DivisionRepository divisionRepository,
+                           GeoTreeCache geoTreeCache,
+                           ApplicationEventPublisher eventPublisher) {
         this.divisionRepository = divisionRepository;
+        this.geoTreeCache = geoTreeCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // ✅ Insert all divisions of Bangladesh (custom query)
     public void insertDefaultBangladeshDivisions() {
         divisionRepository.insertAllBangladeshDivisions();
+        eventPublisher.publishEvent(new GeoDataChangedEvent("default divisions inserted"));
     }
 
     // Create or update Division
@@ -35,21 +45,22 @@ public class DivisionService {
                 .build();
 
         Division saved = divisionRepository.save(division);
+        eventPublisher.publishEvent(new GeoDataChangedEvent("division " + saved.getDivisionId() + " saved"));
         return mapToDto(saved);
     }
 
-    // Get all divisions
+    // Reads are served from the geo tree and need no transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<DivisionDto> getAllDivisions() {
-        return divisionRepository.findAll().stream()
+        return geoTreeCache.getTree().divisions().values().stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
     // Get division by ID
+    @Transactional(propagation = Propagation.SUPPORTS)
     public DivisionDto getDivisionById(Integer divisionId) {
-        return divisionRepository.findById(divisionId)
-                .map(this::mapToDto)
-                .orElseThrow(() -> new RuntimeException("Division not found"));
+        return mapToDto(geoTreeCache.getDivision(divisionId));
     }
 
     // Delete division
@@ -58,29 +69,35 @@ public class DivisionService {
             throw new RuntimeException("Division not found");
         }
         divisionRepository.deleteById(divisionId);
+        eventPublisher.publishEvent(new GeoDataChangedEvent("division " + divisionId + " deleted"));
     }
 
     // Get all districts for a division
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Integer> getDistrictIds(Integer divisionId) {
-        Division division = divisionRepository.findById(divisionId)
-                .orElseThrow(() -> new RuntimeException("Division not found"));
-        List<District> districts = division.getDistricts();
-        if (districts == null) return List.of();
-        return districts.stream().map(District::getDistrictId).collect(Collectors.toList());
+        return geoTreeCache.getDivision(divisionId).districtIds();
     }
 
     // Get all schools for a division
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Integer> getSchoolIds(Integer divisionId) {
-        Division division = divisionRepository.findById(divisionId)
-                .orElseThrow(() -> new RuntimeException("Division not found"));
-        List<School> schools = division.getSchools();
-        if (schools == null) return List.of();
-        return schools.stream().map(School::getSchoolId).collect(Collectors.toList());
+        return geoTreeCache.getDivision(divisionId).schoolIds();
     }
 
+    // Map a cached division node to DTO (the id lists are immutable and shared with the tree)
+    private DivisionDto mapToDto(GeoTreeCache.DivisionNode node) {
+        return DivisionDto.builder()
+                .divisionId(node.divisionId())
+                .divisionName(node.divisionName())
+                .divisionCode(node.divisionCode())
+                .districtIds(node.districtIds())
+                .schoolIds(node.schoolIds())
+                .schoolCount(node.schoolIds().size())
+                .donorIds(List.of())
+                .build();
+    }
 
-
-    // Map Division entity to DTO
+    // Map Division entity to DTO (write responses, before the tree has been rebuilt)
     private DivisionDto mapToDto(Division division) {
         List<Integer> districtIds = division.getDistricts() != null ?
                 division.getDistricts().stream().map(District::getDistrictId).toList() :
@@ -96,6 +113,7 @@ public class DivisionService {
                 .divisionCode(division.getDivisionCode())
                 .districtIds(districtIds)
                 .schoolIds(schoolIds)
+                .schoolCount(schoolIds.size())
                 .donorIds(List.of())
                 .build();
     }
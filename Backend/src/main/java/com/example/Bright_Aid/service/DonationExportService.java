@@ -0,0 +1,213 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.repository.DonationExportRepository;
+import com.example.Bright_Aid.repository.projection.DonationExportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Writes donation reports straight from a streaming JDBC cursor to the response body.
+// Each row is written and dropped, so memory stays flat however long the history is.
+@Service
+@RequiredArgsConstructor
+public class DonationExportService {
+
+    private static final String[] HEADERS = {
+            "Donation ID", "Donated At", "Amount", "Payment Status", "Transaction Ref", "Donor", "Recipient"
+    };
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DonationExportRepository donationExportRepository;
+
+    public enum Scope {
+        SCHOOL, DONOR, NGO
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public void export(Scope scope, Integer id, Format format, OutputStream out) throws IOException {
+        try (Stream<DonationExportRow> rows = openStream(scope, id)) {
+            if (format == Format.XLSX) {
+                writeXlsx(rows.iterator(), out);
+            } else {
+                writeCsv(rows.iterator(), out);
+            }
+        }
+    }
+
+    private Stream<DonationExportRow> openStream(Scope scope, Integer id) {
+        switch (scope) {
+            case SCHOOL:
+                return donationExportRepository.streamBySchool(id);
+            case DONOR:
+                return donationExportRepository.streamByDonor(id);
+            default:
+                return donationExportRepository.streamByNgo(id);
+        }
+    }
+
+    // ===================== CSV =====================
+
+    private void writeCsv(Iterator<DonationExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, HEADERS);
+        while (rows.hasNext()) {
+            writeCsvLine(writer, toCells(rows.next()));
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvEscape(cells[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Spreadsheets run a cell starting with one of these as a formula; the quote keeps it text
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    // ===================== XLSX =====================
+    // A minimal single-sheet workbook written part by part into the zip stream, with inline strings,
+    // so no shared-string table or in-memory sheet model is ever built.
+
+    private void writeXlsx(Iterator<DonationExportRow> rows, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+
+        writeZipEntry(zip, writer, "[Content_Types].xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+                "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+                "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+                "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+                "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+                "</Types>");
+        writeZipEntry(zip, writer, "_rels/.rels",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                "</Relationships>");
+        writeZipEntry(zip, writer, "xl/workbook.xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+                "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+                "<sheets><sheet name=\"Donations\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+        writeZipEntry(zip, writer, "xl/_rels/workbook.xml.rels",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>" +
+                "</Relationships>");
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        writeXlsxRow(writer, HEADERS, -1);
+        while (rows.hasNext()) {
+            DonationExportRow row = rows.next();
+            // Amount (column index 2) is written as a number so spreadsheets can sum it
+            writeXlsxRow(writer, toCells(row), 2);
+        }
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+
+    private void writeZipEntry(ZipOutputStream zip, Writer writer, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeXlsxRow(Writer writer, String[] cells, int numericColumn) throws IOException {
+        writer.write("<row>");
+        for (int i = 0; i < cells.length; i++) {
+            String value = cells[i];
+            if (value == null) {
+                writer.write("<c/>");
+            } else if (i == numericColumn) {
+                writer.write("<c><v>" + value + "</v></c>");
+            } else {
+                writer.write("<c t=\"inlineStr\"><is><t>" + xmlEscape(value) + "</t></is></c>");
+            }
+        }
+        writer.write("</row>");
+    }
+
+    private String xmlEscape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '&': escaped.append("&amp;"); break;
+                case '"': escaped.append("&quot;"); break;
+                default:
+                    // Control characters other than tab/newline are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private String[] toCells(DonationExportRow row) {
+        return new String[] {
+                row.donationRef(),
+                row.donatedAt() != null ? row.donatedAt().format(DATE_FORMAT) : null,
+                row.amount() != null ? row.amount().toPlainString() : null,
+                row.paymentStatus(),
+                row.transactionRef(),
+                row.donorName(),
+                row.recipientName()
+        };
+    }
+}
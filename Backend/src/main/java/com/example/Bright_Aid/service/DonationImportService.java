@@ -0,0 +1,438 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.DonationDto;
+import com.example.Bright_Aid.Dto.DonationImportResultDto;
+import com.example.Bright_Aid.Entity.Donation;
+import com.example.Bright_Aid.Entity.PaymentTransaction;
+import com.example.Bright_Aid.repository.DonorRepository;
+import com.example.Bright_Aid.repository.PaymentTransactionRepository;
+import com.example.Bright_Aid.repository.SchoolProjectRepository;
+import com.example.Bright_Aid.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Bulk ingest for offline / NGO-collected donations (NDJSON or CSV).
+// Rows are streamed and handled in chunks: every referenced id in a chunk is resolved with one
+// IN query per table, valid rows go to MySQL as a single JDBC batch, and bad rows are reported
+// back individually instead of failing the whole upload.
+@Service
+@Slf4j
+public class DonationImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO donations (donor_id, project_id, student_id, amount, " +
+            "donation_type, transaction_id, payment_status, purpose, donor_message, is_anonymous, donated_at, " +
+            "payment_completed_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DonorRepository donorRepository;
+    private final SchoolProjectRepository schoolProjectRepository;
+    private final StudentRepository studentRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final SchoolDonationLedgerService schoolDonationLedgerService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${donation.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${donation.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public DonationImportService(DonorRepository donorRepository,
+                                 SchoolProjectRepository schoolProjectRepository,
+                                 StudentRepository studentRepository,
+                                 PaymentTransactionRepository paymentTransactionRepository,
+                                 SchoolDonationLedgerService schoolDonationLedgerService,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.donorRepository = donorRepository;
+        this.schoolProjectRepository = schoolProjectRepository;
+        this.studentRepository = studentRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.schoolDonationLedgerService = schoolDonationLedgerService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // One DonationDto JSON object per line
+    public DonationImportResultDto importNdjson(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.accept(lineNumber, objectMapper.readValue(line, DonationDto.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    // Header row with DonationDto field names (donorId, amount, donationType, purpose, ...), then one donation per line
+    public DonationImportResultDto importCsv(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return run.finish();
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> headers = parseCsvLine(headerLine.replace("\uFEFF", ""));
+            for (int i = 0; i < headers.size(); i++) {
+                columns.put(headers.get(i).trim().toLowerCase(), i);
+            }
+
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.accept(lineNumber, toDonationDto(parseCsvLine(line), columns));
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, e.getMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    private record ParsedRow(long rowNumber, DonationDto dto) {
+    }
+
+    private record ResolvedRow(long rowNumber, DonationDto dto, Integer transactionId,
+                               Donation.PaymentStatus paymentStatus) {
+    }
+
+    // Accumulates one upload: buffers a chunk of parsed rows and tracks the running result
+    private class ImportRun {
+
+        private final DonationImportResultDto result = DonationImportResultDto.builder().build();
+        private final List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        void accept(long rowNumber, DonationDto dto) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            chunk.add(new ParsedRow(rowNumber, dto));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long rowNumber, String message) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            fail(rowNumber, message);
+        }
+
+        void fail(long rowNumber, String message) {
+            result.setFailedRows(result.getFailedRows() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new DonationImportResultDto.RowError(rowNumber, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+
+        DonationImportResultDto finish() {
+            flush();
+            log.info("Donation import finished: {} rows, {} imported, {} failed",
+                    result.getTotalRows(), result.getImportedRows(), result.getFailedRows());
+            return result;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ResolvedRow> valid = resolve(chunk);
+            chunk.clear();
+            if (!valid.isEmpty()) {
+                insert(valid);
+            }
+        }
+
+        // Validate the chunk and resolve all of its references with one IN lookup per table
+        private List<ResolvedRow> resolve(List<ParsedRow> rows) {
+            Set<Integer> donorIds = new HashSet<>();
+            Set<Integer> projectIds = new HashSet<>();
+            Set<Integer> studentIds = new HashSet<>();
+            Set<Integer> transactionIds = new HashSet<>();
+            for (ParsedRow row : rows) {
+                DonationDto dto = row.dto();
+                addIfPresent(donorIds, dto.getDonorId());
+                addIfPresent(projectIds, dto.getProjectId());
+                addIfPresent(studentIds, dto.getStudentId());
+                addIfPresent(transactionIds, dto.getTransactionId());
+            }
+
+            Set<Integer> existingDonors = donorIds.isEmpty() ? Set.of()
+                    : new HashSet<>(donorRepository.findExistingIds(donorIds));
+            Set<Integer> existingProjects = projectIds.isEmpty() ? Set.of()
+                    : new HashSet<>(schoolProjectRepository.findExistingIds(projectIds));
+            Set<Integer> existingStudents = studentIds.isEmpty() ? Set.of()
+                    : new HashSet<>(studentRepository.findExistingIds(studentIds));
+            Map<Integer, PaymentTransaction.TransactionStatus> transactionStatuses = new HashMap<>();
+            if (!transactionIds.isEmpty()) {
+                paymentTransactionRepository.findAllById(transactionIds)
+                        .forEach(t -> transactionStatuses.put(t.getTransactionId(), t.getStatus()));
+            }
+
+            List<ResolvedRow> valid = new ArrayList<>(rows.size());
+            for (ParsedRow row : rows) {
+                DonationDto dto = row.dto();
+                String error = validate(dto);
+                if (error == null && !existingDonors.contains(dto.getDonorId())) {
+                    error = "Donor not found: " + dto.getDonorId();
+                }
+                if (error == null && dto.getProjectId() != null && !existingProjects.contains(dto.getProjectId())) {
+                    error = "Project not found: " + dto.getProjectId();
+                }
+                if (error == null && dto.getStudentId() != null && !existingStudents.contains(dto.getStudentId())) {
+                    error = "Student not found: " + dto.getStudentId();
+                }
+                if (error != null) {
+                    fail(row.rowNumber(), error);
+                    continue;
+                }
+
+                // Same rule as saveDonation: an unknown transaction is dropped rather than rejected
+                Integer transactionId = transactionStatuses.containsKey(dto.getTransactionId())
+                        ? dto.getTransactionId() : null;
+                Donation.PaymentStatus paymentStatus = DonationService.resolvePaymentStatus(
+                        dto.getPaymentStatus(), transactionId != null ? transactionStatuses.get(transactionId) : null);
+                valid.add(new ResolvedRow(row.rowNumber(), dto, transactionId, paymentStatus));
+            }
+            return valid;
+        }
+
+        // One multi-row batch per chunk; if MySQL rejects it, retry row by row to isolate the bad rows.
+        // The new rows' school ledger entries are written in the same transaction.
+        private void insert(List<ResolvedRow> rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        schoolDonationLedgerService.refresh(batchInsert(rows)));
+                result.setImportedRows(result.getImportedRows() + rows.size());
+            } catch (DataAccessException batchFailure) {
+                log.warn("Donation import batch of {} rows failed, retrying row by row: {}",
+                        rows.size(), batchFailure.getMostSpecificCause().getMessage());
+                for (ResolvedRow row : rows) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                schoolDonationLedgerService.refresh(batchInsert(List.of(row))));
+                        result.setImportedRows(result.getImportedRows() + 1);
+                    } catch (DataAccessException e) {
+                        fail(row.rowNumber(), e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    // JDBC batch insert returning the generated donation ids (Connector/J reports keys for rewritten batches too)
+    private List<Integer> batchInsert(List<ResolvedRow> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (ResolvedRow row : rows) {
+                    bindRow(ps, row);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Integer> ids = new ArrayList<>(rows.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getInt(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    private void bindRow(PreparedStatement ps, ResolvedRow row) throws SQLException {
+        DonationDto dto = row.dto();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime donatedAt = dto.getDonatedAt() != null ? dto.getDonatedAt() : now;
+        LocalDateTime completedAt = dto.getPaymentCompletedAt() != null ? dto.getPaymentCompletedAt()
+                : row.paymentStatus() == Donation.PaymentStatus.COMPLETED ? donatedAt : null;
+
+        ps.setInt(1, dto.getDonorId());
+        setNullableInt(ps, 2, dto.getProjectId());
+        setNullableInt(ps, 3, dto.getStudentId());
+        ps.setBigDecimal(4, dto.getAmount());
+        ps.setString(5, dto.getDonationType().name());
+        setNullableInt(ps, 6, row.transactionId());
+        ps.setString(7, row.paymentStatus().name());
+        ps.setString(8, dto.getPurpose().name());
+        ps.setString(9, dto.getDonorMessage());
+        ps.setBoolean(10, dto.getIsAnonymous() != null && dto.getIsAnonymous());
+        ps.setTimestamp(11, Timestamp.valueOf(donatedAt));
+        ps.setTimestamp(12, completedAt != null ? Timestamp.valueOf(completedAt) : null);
+        ps.setTimestamp(13, Timestamp.valueOf(now));
+        ps.setTimestamp(14, Timestamp.valueOf(now));
+    }
+
+    private void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private void addIfPresent(Set<Integer> ids, Integer id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private String validate(DonationDto dto) {
+        if (dto.getDonorId() == null) {
+            return "Donor ID is required";
+        }
+        if (dto.getAmount() == null || dto.getAmount().signum() <= 0) {
+            return "Amount must be greater than zero";
+        }
+        if (dto.getDonationType() == null) {
+            return "Donation type is required";
+        }
+        if (dto.getPurpose() == null) {
+            return "Purpose is required";
+        }
+        return null;
+    }
+
+    private DonationDto toDonationDto(List<String> fields, Map<String, Integer> columns) {
+        return DonationDto.builder()
+                .donorId(parseInteger(field(fields, columns, "donorid"), "donorId"))
+                .projectId(parseInteger(field(fields, columns, "projectid"), "projectId"))
+                .studentId(parseInteger(field(fields, columns, "studentid"), "studentId"))
+                .amount(parseAmount(field(fields, columns, "amount")))
+                .donationType(parseEnum(Donation.DonationType.class, field(fields, columns, "donationtype"), "donationType"))
+                .transactionId(parseInteger(field(fields, columns, "transactionid"), "transactionId"))
+                .paymentStatus(parseEnum(Donation.PaymentStatus.class, field(fields, columns, "paymentstatus"), "paymentStatus"))
+                .purpose(parseEnum(Donation.DonationPurpose.class, field(fields, columns, "purpose"), "purpose"))
+                .donorMessage(field(fields, columns, "donormessage"))
+                .isAnonymous(Boolean.parseBoolean(field(fields, columns, "isanonymous")))
+                .donatedAt(parseDateTime(field(fields, columns, "donatedat"), "donatedAt"))
+                .paymentCompletedAt(parseDateTime(field(fields, columns, "paymentcompletedat"), "paymentCompletedAt"))
+                .build();
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer parseInteger(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private BigDecimal parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // Accepts ISO date-time (2024-05-01T10:15:00) or a plain date (2024-05-01)
+    private LocalDateTime parseDateTime(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // RFC 4180 style fields on a single line: commas inside quotes, "" as an escaped quote
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Entity.Donation;
+import com.example.Bright_Aid.Entity.OutboxEvent;
+import com.example.Bright_Aid.repository.DonationRepository;
+import com.example.Bright_Aid.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps donations.payment_status in step with payment_transactions.status.
+// Every transaction status change writes a TRANSACTION_STATUS_CHANGED outbox row in the same
+// commit; this job drains those rows oldest-first, keeps the latest status per transaction,
+// and applies each target status to all linked donations with one set-based UPDATE.
+@Service
+@Slf4j
+public class DonationReconciliationService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final DonationRepository donationRepository;
+    private final SchoolDonationLedgerService schoolDonationLedgerService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${donation.reconciliation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${donation.reconciliation.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    private final AtomicLong eventsApplied = new AtomicLong();
+    private final AtomicLong donationsUpdated = new AtomicLong();
+    private final AtomicLong lastBatchMaxLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+
+    public DonationReconciliationService(OutboxEventRepository outboxEventRepository,
+                                         DonationRepository donationRepository,
+                                         SchoolDonationLedgerService schoolDonationLedgerService,
+                                         PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.donationRepository = donationRepository;
+        this.schoolDonationLedgerService = schoolDonationLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${donation.reconciliation.interval-ms:2000}")
+    public void reconcile() {
+        lastRunAt = LocalDateTime.now();
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer drained = transactionTemplate.execute(status -> drainBatch());
+            if (drained == null || drained < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // One batch = one transaction: the donation updates and the PROCESSED marks commit together
+    private int drainBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findByStatusAndEventTypeOrderByEventIdAsc(
+                OutboxEvent.OutboxStatus.PENDING,
+                OutboxEvent.EventType.TRANSACTION_STATUS_CHANGED,
+                PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Events arrive in id order, so a later change for the same transaction overwrites an earlier one
+        Map<Integer, Donation.PaymentStatus> latestByTransaction = new HashMap<>();
+        for (OutboxEvent event : events) {
+            Object transactionId = event.getPayload().get("transactionId");
+            if (transactionId == null) {
+                continue;
+            }
+            latestByTransaction.put(((Number) transactionId).intValue(),
+                    toDonationStatus(String.valueOf(event.getPayload().get("status"))));
+        }
+
+        Map<Donation.PaymentStatus, List<Integer>> transactionsByStatus = new EnumMap<>(Donation.PaymentStatus.class);
+        latestByTransaction.forEach((transactionId, donationStatus) -> {
+            if (donationStatus != null) {
+                transactionsByStatus.computeIfAbsent(donationStatus, s -> new ArrayList<>()).add(transactionId);
+            }
+        });
+
+        int updated = 0;
+        for (Map.Entry<Donation.PaymentStatus, List<Integer>> entry : transactionsByStatus.entrySet()) {
+            updated += donationRepository.syncPaymentStatusByTransactionIds(entry.getValue(), entry.getKey().name());
+        }
+        if (updated > 0) {
+            schoolDonationLedgerService.syncPaymentStatusForTransactions(latestByTransaction.keySet());
+        }
+
+        List<Long> eventIds = events.stream().map(OutboxEvent::getEventId).toList();
+        outboxEventRepository.markAllProcessed(eventIds);
+
+        recordLag(events, updated);
+        return events.size();
+    }
+
+    // REFUNDED and PENDING have no donation counterpart, so those events are consumed without an update
+    private Donation.PaymentStatus toDonationStatus(String transactionStatus) {
+        switch (transactionStatus) {
+            case "SUCCESS":
+                return Donation.PaymentStatus.COMPLETED;
+            case "FAILED":
+            case "CANCELLED":
+                return Donation.PaymentStatus.FAILED;
+            default:
+                return null;
+        }
+    }
+
+    // Convergence lag = time from the transaction status commit to the donation rows catching up
+    private void recordLag(List<OutboxEvent> events, int updated) {
+        LocalDateTime now = LocalDateTime.now();
+        long batchMaxLag = events.stream()
+                .map(OutboxEvent::getCreatedAt)
+                .filter(Objects::nonNull)
+                .mapToLong(createdAt -> Duration.between(createdAt, now).toMillis())
+                .max()
+                .orElse(0);
+
+        eventsApplied.addAndGet(events.size());
+        donationsUpdated.addAndGet(updated);
+        lastBatchMaxLagMs.set(batchMaxLag);
+        maxLagMs.accumulateAndGet(batchMaxLag, Math::max);
+        log.debug("Reconciled {} status events, {} donations updated, max lag {} ms",
+                events.size(), updated, batchMaxLag);
+    }
+
+    public Map<String, Object> getStats() {
+        String eventType = OutboxEvent.EventType.TRANSACTION_STATUS_CHANGED.name();
+        LocalDateTime oldestPending = outboxEventRepository.findOldestPendingCreatedAt(eventType);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingEvents", outboxEventRepository.countPending(eventType));
+        stats.put("oldestPendingAgeMs", oldestPending != null
+                ? Duration.between(oldestPending, LocalDateTime.now()).toMillis() : 0);
+        stats.put("lastBatchMaxLagMs", lastBatchMaxLagMs.get());
+        stats.put("maxLagMs", maxLagMs.get());
+        stats.put("eventsApplied", eventsApplied.get());
+        stats.put("donationsUpdated", donationsUpdated.get());
+        stats.put("lastRunAt", lastRunAt);
+        return stats;
+    }
+}
@@ -2,12 +2,17 @@ package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Entity.*;
 import com.example.Bright_Aid.Dto.DonationDto;
+import com.example.Bright_Aid.Dto.DonationPageDto;
 import com.example.Bright_Aid.repository.*;
+import com.example.Bright_Aid.repository.projection.DonorDonationHistoryRow;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,22 +20,33 @@ import java.util.stream.Collectors;
 @Transactional
 public class DonationService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final DonationRepository donationRepository;
+    private final DonorHistoryRepository donorHistoryRepository;
     private final DonorRepository donorRepository;
     private final SchoolProjectRepository schoolProjectRepository;
     private final StudentRepository studentRepository;
     private final PaymentTransactionRepository paymentTransactionRepository;
+    private final SchoolDonationLedgerRepository schoolDonationLedgerRepository;
+    private final SchoolDonationLedgerService schoolDonationLedgerService;
 
     public DonationService(DonationRepository donationRepository,
+                           DonorHistoryRepository donorHistoryRepository,
                            DonorRepository donorRepository,
                            SchoolProjectRepository schoolProjectRepository,
                            StudentRepository studentRepository,
-                           PaymentTransactionRepository paymentTransactionRepository) {
+                           PaymentTransactionRepository paymentTransactionRepository,
+                           SchoolDonationLedgerRepository schoolDonationLedgerRepository,
+                           SchoolDonationLedgerService schoolDonationLedgerService) {
         this.donationRepository = donationRepository;
+        this.donorHistoryRepository = donorHistoryRepository;
         this.donorRepository = donorRepository;
         this.schoolProjectRepository = schoolProjectRepository;
         this.studentRepository = studentRepository;
         this.paymentTransactionRepository = paymentTransactionRepository;
+        this.schoolDonationLedgerRepository = schoolDonationLedgerRepository;
+        this.schoolDonationLedgerService = schoolDonationLedgerService;
     }
 
     // Create or update Donation
@@ -56,6 +72,11 @@ public class DonationService {
                     .orElse(null); // Make transaction optional
         }
 
+        // A donation recorded after its payment already settled takes the settled status,
+        // so it never sits PENDING waiting for a reconciliation event that has already run
+        Donation.PaymentStatus paymentStatus = resolvePaymentStatus(donationDto.getPaymentStatus(),
+                transaction != null ? transaction.getStatus() : null);
+
         Donation donation;
         if (donationDto.getDonationId() != null && donationDto.getDonationId() > 0) {
             // Try to update existing donation, create new if not found
@@ -70,8 +91,7 @@ public class DonationService {
                 donation.setAmount(donationDto.getAmount());
                 donation.setDonationType(donationDto.getDonationType());
                 donation.setTransaction(transaction);
-                donation.setPaymentStatus(donationDto.getPaymentStatus() != null ?
-                        donationDto.getPaymentStatus() : Donation.PaymentStatus.PENDING);
+                donation.setPaymentStatus(paymentStatus);
                 donation.setPurpose(donationDto.getPurpose());
                 donation.setDonorMessage(donationDto.getDonorMessage());
                 donation.setIsAnonymous(donationDto.getIsAnonymous() != null ?
@@ -88,8 +108,7 @@ public class DonationService {
                         .amount(donationDto.getAmount())
                         .donationType(donationDto.getDonationType())
                         .transaction(transaction)
-                        .paymentStatus(donationDto.getPaymentStatus() != null ?
-                                donationDto.getPaymentStatus() : Donation.PaymentStatus.PENDING)
+                        .paymentStatus(paymentStatus)
                         .purpose(donationDto.getPurpose())
                         .donorMessage(donationDto.getDonorMessage())
                         .isAnonymous(donationDto.getIsAnonymous() != null ?
@@ -108,8 +127,7 @@ public class DonationService {
                     .amount(donationDto.getAmount())
                     .donationType(donationDto.getDonationType())
                     .transaction(transaction)
-                    .paymentStatus(donationDto.getPaymentStatus() != null ?
-                            donationDto.getPaymentStatus() : Donation.PaymentStatus.PENDING)
+                    .paymentStatus(paymentStatus)
                     .purpose(donationDto.getPurpose())
                     .donorMessage(donationDto.getDonorMessage())
                     .isAnonymous(donationDto.getIsAnonymous() != null ?
@@ -120,10 +138,32 @@ public class DonationService {
                     .build();
         }
 
-        Donation saved = donationRepository.save(donation);
+        // Flushed first so the ledger refresh reads the row as just written
+        Donation saved = donationRepository.saveAndFlush(donation);
+        schoolDonationLedgerService.refresh(List.of(saved.getDonationId()));
         return mapToDto(saved);
     }
 
+    // Shared with DonationImportService so bulk-loaded rows follow the same rule
+    static Donation.PaymentStatus resolvePaymentStatus(Donation.PaymentStatus requested,
+                                                       PaymentTransaction.TransactionStatus transactionStatus) {
+        if (requested != null && requested != Donation.PaymentStatus.PENDING) {
+            return requested;
+        }
+        if (transactionStatus != null) {
+            switch (transactionStatus) {
+                case SUCCESS:
+                    return Donation.PaymentStatus.COMPLETED;
+                case FAILED:
+                case CANCELLED:
+                    return Donation.PaymentStatus.FAILED;
+                default:
+                    break;
+            }
+        }
+        return Donation.PaymentStatus.PENDING;
+    }
+
     // Get all donations
     public List<DonationDto> getAllDonations() {
         return donationRepository.findAll().stream()
@@ -144,6 +184,7 @@ public class DonationService {
             throw new RuntimeException("Donation not found");
         }
         donationRepository.deleteById(donationId);
+        schoolDonationLedgerService.remove(donationId);
     }
 
     // Update payment status
@@ -156,7 +197,8 @@ public class DonationService {
             donation.setPaymentCompletedAt(LocalDateTime.now());
         }
 
-        Donation saved = donationRepository.save(donation);
+        Donation saved = donationRepository.saveAndFlush(donation);
+        schoolDonationLedgerService.refresh(List.of(saved.getDonationId()));
         return mapToDto(saved);
     }
 
@@ -179,12 +221,70 @@ public class DonationService {
 
     // Get donations by donor ID with transaction details and proper ordering (recent first)
     public List<DonationDto> getDonationsByDonorWithDetails(Integer donorId) {
-        List<Object[]> results = donationRepository.findDonationsByDonorWithDetailsOrderByDateDesc(donorId);
-        return results.stream()
-                .map(this::mapResultToDto)
+        return donorHistoryRepository.findAllByDonor(donorId).stream()
+                .map(this::mapHistoryRowToDto)
                 .collect(Collectors.toList());
     }
 
+    // One page of a donor's history, recent first. The cursor carries the last row's
+    // (donated_at, donation_id), so the next page is a seek on the index instead of an OFFSET.
+    // Rows whose donated_at is still NULL (not yet backfilled) come last, paged by id alone.
+    // A malformed cursor throws IllegalArgumentException.
+    @Transactional(readOnly = true)
+    public DonationPageDto getDonorHistoryPage(Integer donorId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+
+        // Fetch one extra row to learn whether another page exists
+        List<DonorDonationHistoryRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = donorHistoryRepository.findFirstPage(donorId, pageSize + 1);
+        } else {
+            DonationCursor position = DonationCursor.decode(cursor);
+            if (position.donatedAt() == null) {
+                rows = donorHistoryRepository.findUndatedAfter(donorId, position.donationId(), pageSize + 1);
+            } else {
+                rows = new ArrayList<>(donorHistoryRepository.findAfter(
+                        donorId, position.donatedAt(), position.donationId(), pageSize + 1));
+                if (rows.size() <= pageSize) {
+                    // Dated rows ran out: continue into the undated tail
+                    rows.addAll(donorHistoryRepository.findUndatedAfter(
+                            donorId, Integer.MAX_VALUE, pageSize + 1 - rows.size()));
+                }
+            }
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<DonorDonationHistoryRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+        DonorDonationHistoryRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return DonationPageDto.builder()
+                .items(page.stream().map(this::mapHistoryRowToDto).collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new DonationCursor(last.donatedAt(), last.donationId()).encode() : null)
+                .build();
+    }
+
+    // donatedAt is null for a position inside the undated tail, encoded as an empty date part
+    private record DonationCursor(LocalDateTime donatedAt, Integer donationId) {
+
+        String encode() {
+            String raw = (donatedAt != null ? donatedAt.toString() : "") + "|" + donationId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static DonationCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                String date = raw.substring(0, separator);
+                return new DonationCursor(date.isEmpty() ? null : LocalDateTime.parse(date),
+                        Integer.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
     // Map Donation entity to DTO
     private DonationDto mapToDto(Donation donation) {
         return DonationDto.builder()
@@ -206,56 +306,54 @@ public class DonationService {
                 .build();
     }
 
-    // Map native query result to DTO with transaction and project details
-    private DonationDto mapResultToDto(Object[] result) {
+    // Map donor history row to DTO with transaction and project details
+    private DonationDto mapHistoryRowToDto(DonorDonationHistoryRow row) {
         return DonationDto.builder()
-                .donationId((Integer) result[0])
-                .donorId((Integer) result[1])
-                .projectId((Integer) result[2])
-                .studentId((Integer) result[3])
-                .amount(result[4] != null ? new BigDecimal(result[4].toString()) : null)
-                .donationType(result[5] != null ? Donation.DonationType.valueOf((String) result[5]) : null)
-                .transactionId((Integer) result[6])
-                .paymentStatus(result[7] != null ? Donation.PaymentStatus.valueOf((String) result[7]) : Donation.PaymentStatus.PENDING)
-                .purpose(result[8] != null ? Donation.DonationPurpose.valueOf((String) result[8]) : null)
-                .donorMessage((String) result[9])
-                .isAnonymous((Boolean) result[10])
-                .donatedAt(result[11] != null ? ((java.sql.Timestamp) result[11]).toLocalDateTime() : null)
-                .paymentCompletedAt(result[12] != null ? ((java.sql.Timestamp) result[12]).toLocalDateTime() : null)
-                .createdAt(result[13] != null ? ((java.sql.Timestamp) result[13]).toLocalDateTime() : null)
-                .updatedAt(result[14] != null ? ((java.sql.Timestamp) result[14]).toLocalDateTime() : null)
-                .transactionRef((String) result[15]) // Transaction reference from native query
-                .projectName((String) result[16]) // Project name from native query
-                .recipientName((String) result[17]) // Recipient name from native query
+                .donationId(row.donationId())
+                .donorId(row.donorId())
+                .projectId(row.projectId())
+                .studentId(row.studentId())
+                .amount(row.amount())
+                .donationType(row.donationType())
+                .transactionId(row.transactionId())
+                .paymentStatus(row.paymentStatus() != null ? row.paymentStatus() : Donation.PaymentStatus.PENDING)
+                .purpose(row.purpose())
+                .donorMessage(row.donorMessage())
+                .isAnonymous(row.isAnonymous())
+                .donatedAt(row.donatedAt())
+                .paymentCompletedAt(row.paymentCompletedAt())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .transactionRef(row.transactionRef())
+                .projectName(row.projectName())
+                .recipientName(row.recipientName())
                 .build();
     }
 
-    // Get recent donations RECEIVED by a specific school using native query
+    // Get recent donations RECEIVED by a specific school, read from the per-school ledger
     public List<DonationDto> getRecentDonationsBySchool(Integer schoolId) {
-        List<Object[]> results = donationRepository.findRecentDonationsReceivedBySchool(schoolId);
-        return results.stream()
-                .map(this::mapSchoolDonationResultToDto)
+        return schoolDonationLedgerRepository.findTop5BySchoolIdOrderByDonatedAtDescDonationIdDesc(schoolId).stream()
+                .map(this::mapLedgerToDto)
                 .collect(Collectors.toList());
     }
 
-    // Get all donations RECEIVED by a specific school using native query
+    // Get all donations RECEIVED by a specific school, read from the per-school ledger
     public List<DonationDto> getAllDonationsBySchool(Integer schoolId) {
-        List<Object[]> results = donationRepository.findAllDonationsReceivedBySchool(schoolId);
-        return results.stream()
-                .map(this::mapSchoolDonationResultToDto)
+        return schoolDonationLedgerRepository.findBySchoolIdOrderByDonatedAtDescDonationIdDesc(schoolId).stream()
+                .map(this::mapLedgerToDto)
                 .collect(Collectors.toList());
     }
 
-    // Map school donation native query result to DTO
-    private DonationDto mapSchoolDonationResultToDto(Object[] result) {
+    // Map school ledger row to DTO
+    private DonationDto mapLedgerToDto(SchoolDonationLedger entry) {
         return DonationDto.builder()
-                .donationId((Integer) result[0])
-                .amount(result[1] != null ? new BigDecimal(result[1].toString()) : BigDecimal.ZERO)
-                .paymentStatus(result[2] != null ? Donation.PaymentStatus.valueOf((String) result[2]) : Donation.PaymentStatus.PENDING)
-                .donatedAt(result[3] != null ? ((java.sql.Timestamp) result[3]).toLocalDateTime() : null)
-                .transactionRef((String) result[4])
-                .donorName((String) result[5])
-                .recipientName((String) result[6])
+                .donationId(entry.getDonationId())
+                .amount(entry.getAmount() != null ? entry.getAmount() : BigDecimal.ZERO)
+                .paymentStatus(entry.getPaymentStatus() != null ? entry.getPaymentStatus() : Donation.PaymentStatus.PENDING)
+                .donatedAt(entry.getDonatedAt())
+                .transactionRef(entry.getTransactionRef())
+                .donorName(entry.getDonorName())
+                .recipientName(entry.getRecipientName())
                 .build();
     }
 }
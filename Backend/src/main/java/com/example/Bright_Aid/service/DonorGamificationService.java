@@ -1,16 +1,20 @@
 package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Dto.DonorGamificationDto;
+import com.example.Bright_Aid.Dto.LeaderboardEntryDto;
 import com.example.Bright_Aid.Entity.Donor;
 import com.example.Bright_Aid.Entity.DonorGamification;
 import com.example.Bright_Aid.repository.DonorGamificationRepository;
 import com.example.Bright_Aid.repository.DonorRepository;
+import com.example.Bright_Aid.repository.DonorSchoolReachRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,6 +26,10 @@ public class DonorGamificationService {
 
     private final DonorGamificationRepository donorGamificationRepository;
     private final DonorRepository donorRepository;
+    private final DonorSchoolReachRepository donorSchoolReachRepository;
+    private final DonorLeaderboardService donorLeaderboardService;
+    private final BadgeRuleService badgeRuleService;
+    private final DonorPointsAccumulator donorPointsAccumulator;
 
     public List<DonorGamificationDto> getAllDonorGamification() {
         return donorGamificationRepository.findAll().stream()
@@ -32,7 +40,9 @@ public class DonorGamificationService {
     public DonorGamificationDto getDonorGamificationByDonorId(Integer donorId) {
         DonorGamification gamification = donorGamificationRepository.findByDonorDonorId(donorId)
                 .orElseThrow(() -> new RuntimeException("Donor gamification not found"));
-        return convertToDto(gamification);
+        DonorGamificationDto dto = convertToDto(gamification);
+        dto.setTotalPoints(dto.getTotalPoints() + donorPointsAccumulator.pendingPoints(donorId));
+        return dto;
     }
 
     public DonorGamificationDto createOrUpdateDonorGamification(DonorGamificationDto dto) {
@@ -65,6 +75,7 @@ public class DonorGamificationService {
         gamification.setLastUpdated(LocalDateTime.now());
 
         DonorGamification saved = donorGamificationRepository.save(gamification);
+        donorLeaderboardService.updateAfterCommit(dto.getDonorId(), saved.getDonorName(), saved.getTotalPoints());
         return convertToDto(saved);
     }
 
@@ -72,29 +83,40 @@ public class DonorGamificationService {
         DonorGamification gamification = donorGamificationRepository.findByDonorDonorId(donorId)
                 .orElseThrow(() -> new RuntimeException("Donor gamification not found"));
         donorGamificationRepository.delete(gamification);
+        donorLeaderboardService.removeAfterCommit(donorId);
     }
 
+    // Read from donor_school_reach, which the school ledger keeps in step with every donation write
     public Integer getUniqueSchoolsCountByDonor(Integer donorId) {
-        // This would require a native query to count unique schools from donations
-        // For now, return a default value
-        return donorGamificationRepository.getUniqueSchoolsCountByDonor(donorId);
+        return (int) donorSchoolReachRepository.countByDonorId(donorId);
+    }
+
+    // Distinct schools reached by any of the given donors
+    public Long getSchoolsReachedByDonors(Collection<Integer> donorIds) {
+        return donorIds.isEmpty() ? 0L : donorSchoolReachRepository.countDistinctSchoolsForDonors(donorIds);
     }
 
     public Map<String, Object> getDonorStats(Integer donorId) {
         DonorGamification gamification = donorGamificationRepository.findByDonorDonorId(donorId)
                 .orElse(null);
         
+        // Points still in the write-behind journal count towards what the donor sees
+        int pendingPoints = donorPointsAccumulator.pendingPoints(donorId);
+
         Map<String, Object> stats = new java.util.HashMap<>();
         if (gamification != null) {
-            stats.put("totalPoints", gamification.getTotalPoints());
+            int totalPoints = gamification.getTotalPoints() + pendingPoints;
+            stats.put("totalPoints", totalPoints);
             stats.put("impactScore", gamification.getImpactScore());
             stats.put("badgesEarned", gamification.getBadgesEarned() != null ? gamification.getBadgesEarned().size() : 0);
-            stats.put("level", calculateLevel(gamification.getTotalPoints()));
+            stats.put("level", badgeRuleService.levelFor(totalPoints));
+            LeaderboardEntryDto ranking = donorLeaderboardService.getRank(donorId);
+            stats.put("rank", ranking != null ? ranking.getRank() : null);
         } else {
-            stats.put("totalPoints", 0);
+            stats.put("totalPoints", pendingPoints);
             stats.put("impactScore", 0.0);
             stats.put("badgesEarned", 0);
-            stats.put("level", "Beginner");
+            stats.put("level", badgeRuleService.levelFor(pendingPoints));
         }
         
         // Add unique schools count
@@ -103,13 +125,14 @@ public class DonorGamificationService {
         return stats;
     }
 
-    private String calculateLevel(Integer totalPoints) {
-        if (totalPoints == null || totalPoints == 0) return "Beginner";
-        if (totalPoints >= 50000) return "Diamond";
-        if (totalPoints >= 25000) return "Platinum";
-        if (totalPoints >= 10000) return "Gold";
-        if (totalPoints >= 2500) return "Silver";
-        return "Bronze";
+    // Automatic Point System: 1 BDT = 5 Points (৳100 = 500 points)
+    // Runs from PaymentEventDispatcher inside the transaction that marks the outbox event processed.
+    // The points are journalled and folded into donor_gamification by DonorPointsAccumulator's flush,
+    // so concurrent payments for one donor no longer race on the row.
+    public void awardPointsForDonation(Integer donorId, BigDecimal amount, Long sourceEventId) {
+        // Convert to int first, then multiply by 5 for exact calculation
+        int pointsToAward = amount.intValue() * 5;
+        donorPointsAccumulator.record(donorId, pointsToAward, sourceEventId);
     }
 
     private DonorGamificationDto convertToDto(DonorGamification gamification) {
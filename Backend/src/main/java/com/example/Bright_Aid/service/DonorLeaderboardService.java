@@ -0,0 +1,183 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.LeaderboardEntryDto;
+import com.example.Bright_Aid.repository.DonorGamificationRepository;
+import com.example.Bright_Aid.repository.projection.DonorPointsView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory donor leaderboard.
+// Donors are kept in a sorted set (points desc, donor id asc) for top-N, and counted in a
+// PointsRankIndex for rank: rank = 1 + donors with strictly more points, in O(log n) of the
+// distinct points values.
+// Seeded from donor_gamification at startup and updated after each points commit.
+@Service
+@Slf4j
+public class DonorLeaderboardService {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt(Entry::points).reversed()
+            .thenComparingInt(Entry::donorId);
+
+    private final DonorGamificationRepository donorGamificationRepository;
+    private final PointsRankIndex rankIndex;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableSet<Entry> ranking = new TreeSet<>(ORDER);
+    private final Map<Integer, Entry> byDonor = new HashMap<>();
+
+    private record Entry(int donorId, String donorName, int points) {
+    }
+
+    public DonorLeaderboardService(DonorGamificationRepository donorGamificationRepository) {
+        this.donorGamificationRepository = donorGamificationRepository;
+        this.rankIndex = new PointsRankIndex();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<DonorPointsView> rows = donorGamificationRepository.findAllPoints();
+        lock.writeLock().lock();
+        try {
+            ranking.clear();
+            byDonor.clear();
+            rankIndex.clear();
+            for (DonorPointsView row : rows) {
+                if (row.getDonorId() == null) {
+                    continue;
+                }
+                Entry entry = new Entry(row.getDonorId(), row.getDonorName(),
+                        row.getTotalPoints() != null ? row.getTotalPoints() : 0);
+                Entry previous = byDonor.put(entry.donorId(), entry);
+                if (previous != null) {
+                    ranking.remove(previous);
+                    rankIndex.remove(previous.points());
+                }
+                ranking.add(entry);
+                rankIndex.add(entry.points());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Donor leaderboard loaded with {} donors", rows.size());
+    }
+
+    // Apply a points change once the surrounding transaction commits (immediately if there is none)
+    public void updateAfterCommit(Integer donorId, String donorName, Integer totalPoints) {
+        runAfterCommit(() -> update(donorId, donorName, totalPoints));
+    }
+
+    public void removeAfterCommit(Integer donorId) {
+        runAfterCommit(() -> remove(donorId));
+    }
+
+    public List<LeaderboardEntryDto> getTop(int limit) {
+        lock.readLock().lock();
+        try {
+            List<LeaderboardEntryDto> top = new ArrayList<>(Math.min(limit, ranking.size()));
+            int position = 0;
+            int rank = 0;
+            Integer previousPoints = null;
+            for (Entry entry : ranking) {
+                if (position == limit) {
+                    break;
+                }
+                position++;
+                // Ties share the rank of the first donor with those points
+                if (previousPoints == null || entry.points() != previousPoints) {
+                    rank = position;
+                    previousPoints = entry.points();
+                }
+                top.add(toDto(entry, rank));
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Null when the donor has no gamification row yet
+    public LeaderboardEntryDto getRank(Integer donorId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byDonor.get(donorId);
+            if (entry == null) {
+                return null;
+            }
+            // Ties share a rank: only donors with strictly more points are ahead
+            return toDto(entry, (int) (1 + rankIndex.countAbove(entry.points())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Integer donorId, String donorName, Integer totalPoints) {
+        if (donorId == null) {
+            return;
+        }
+        Entry updated = new Entry(donorId, donorName, totalPoints != null ? totalPoints : 0);
+        lock.writeLock().lock();
+        try {
+            Entry previous = byDonor.put(donorId, updated);
+            if (previous != null) {
+                ranking.remove(previous);
+                rankIndex.remove(previous.points());
+            }
+            ranking.add(updated);
+            rankIndex.add(updated.points());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Integer donorId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = byDonor.remove(donorId);
+            if (previous != null) {
+                ranking.remove(previous);
+                rankIndex.remove(previous.points());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private LeaderboardEntryDto toDto(Entry entry, int rank) {
+        return LeaderboardEntryDto.builder()
+                .rank(rank)
+                .donorId(entry.donorId())
+                .donorName(entry.donorName())
+                .totalPoints(entry.points())
+                .build();
+    }
+}
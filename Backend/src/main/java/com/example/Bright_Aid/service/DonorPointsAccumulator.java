@@ -0,0 +1,251 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.repository.PointJournalRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Write-behind donor points.
+// An award appends a point_journal row (same transaction as the outbox PROCESSED mark) and bumps a
+// per-donor LongAdder once that commits, so a burst of payments for one donor never does a
+// read-modify-write of its donor_gamification row. A scheduled flush folds the journal into
+// donor_gamification in batches with `total_points = total_points + ?`, refreshes the badges of
+// the donors it touched and deletes the applied journal rows, all in one transaction. The journal
+// is the source of truth: after a crash the next flush simply applies whatever rows remain.
+// The adders only serve read-your-writes (stored points + pending) until the flush lands.
+@Service
+@Slf4j
+public class DonorPointsAccumulator {
+
+    private final PointJournalRepository pointJournalRepository;
+    private final DonorLeaderboardService donorLeaderboardService;
+    private final BadgeRuleService badgeRuleService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gamification.points.flush-batch-size:5000}")
+    private int batchSize;
+
+    @Value("${gamification.points.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    // Points journalled on this instance and not yet flushed, per donor
+    private final ConcurrentHashMap<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong pointsJournalled = new AtomicLong();
+    private final AtomicLong entriesFlushed = new AtomicLong();
+    private final AtomicLong donorRowsUpdated = new AtomicLong();
+    private final AtomicLong flushBatches = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+    private volatile long lastFlushMs;
+    private volatile String lastError;
+
+    private record JournalRow(long journalId, int donorId, int points) {
+    }
+
+    private record FlushedDonor(int donorId, String donorName, int totalPoints, long delta) {
+    }
+
+    public DonorPointsAccumulator(PointJournalRepository pointJournalRepository,
+                                  DonorLeaderboardService donorLeaderboardService,
+                                  BadgeRuleService badgeRuleService,
+                                  JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.pointJournalRepository = pointJournalRepository;
+        this.donorLeaderboardService = donorLeaderboardService;
+        this.badgeRuleService = badgeRuleService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Must run inside the transaction that consumes the source event
+    public void record(Integer donorId, int points, Long sourceEventId) {
+        if (donorId == null || points == 0) {
+            return;
+        }
+        if (pointJournalRepository.append(donorId, points, sourceEventId, LocalDateTime.now()) == 0) {
+            return; // event already journalled
+        }
+        Runnable addPending = () -> {
+            pending.computeIfAbsent(donorId, id -> new LongAdder()).add(points);
+            pointsJournalled.addAndGet(points);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addPending.run();
+                }
+            });
+        } else {
+            addPending.run();
+        }
+    }
+
+    // Journalled points not yet visible in donor_gamification (never negative)
+    public int pendingPoints(Integer donorId) {
+        LongAdder adder = pending.get(donorId);
+        return adder == null ? 0 : (int) Math.max(0, adder.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${gamification.points.flush-interval-ms:1000}")
+    public void flush() {
+        long started = System.currentTimeMillis();
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<FlushedDonor> flushed = transactionTemplate.execute(status -> flushBatch());
+                if (flushed == null || flushed.isEmpty()) {
+                    if (batch == 0) {
+                        // Journal drained: drop the pending view so any drift (restart, rolled-back
+                        // after-commit race) cannot outlive an idle moment
+                        pending.clear();
+                    }
+                    break;
+                }
+                for (FlushedDonor donor : flushed) {
+                    LongAdder adder = pending.get(donor.donorId());
+                    if (adder != null) {
+                        adder.add(-donor.delta());
+                    }
+                    donorLeaderboardService.updateAfterCommit(donor.donorId(), donor.donorName(), donor.totalPoints());
+                }
+                flushBatches.incrementAndGet();
+            }
+            lastError = null;
+        } catch (RuntimeException e) {
+            // The batch rolled back with its journal rows intact; the next run retries it
+            flushFailures.incrementAndGet();
+            lastError = e.getMessage();
+            log.error("Donor points flush failed: {}", e.getMessage());
+        } finally {
+            lastFlushMs = System.currentTimeMillis() - started;
+            lastFlushAt = LocalDateTime.now();
+        }
+    }
+
+    private List<FlushedDonor> flushBatch() {
+        // SKIP LOCKED lets a second instance flush other rows instead of queueing behind this one
+        List<JournalRow> rows = jdbcTemplate.query(
+                "SELECT journal_id, donor_id, points FROM point_journal " +
+                "ORDER BY journal_id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, i) -> new JournalRow(rs.getLong(1), rs.getInt(2), rs.getInt(3)),
+                batchSize);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        // Sorted by donor so concurrent flushers take row locks in the same order
+        Map<Integer, Long> deltas = new TreeMap<>();
+        for (JournalRow row : rows) {
+            deltas.merge(row.donorId(), (long) row.points(), Long::sum);
+        }
+        List<Integer> donorIds = new ArrayList<>(deltas.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> increments = new ArrayList<>(deltas.size());
+        deltas.forEach((donorId, delta) -> increments.add(new Object[] {Math.toIntExact(delta), now, donorId}));
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE donor_gamification SET total_points = total_points + ?, last_updated = ? WHERE donor_id = ?",
+                increments);
+
+        // Donors earning their first points: create the row from the donor record
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Integer donorId = donorIds.get(i);
+                inserts.add(new Object[] {Math.toIntExact(deltas.get(donorId)), now, donorId});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO donor_gamification (donor_id, total_points, impact_score, badges_earned, donor_name, last_updated) " +
+                    "SELECT d.donor_id, ?, 0, JSON_ARRAY(), COALESCE(d.donor_name, 'Unknown Donor'), ? FROM donors d WHERE d.donor_id = ?",
+                    inserts);
+        }
+
+        // Badges follow the new totals
+        String placeholders = donorIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        List<FlushedDonor> flushed = new ArrayList<>(donorIds.size());
+        List<Object[]> badgeUpdates = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT gamification_id, donor_id, donor_name, total_points, badges_earned FROM donor_gamification " +
+                "WHERE donor_id IN (" + placeholders + ")",
+                rs -> {
+                    int donorId = rs.getInt(2);
+                    int totalPoints = rs.getInt(4);
+                    flushed.add(new FlushedDonor(donorId, rs.getString(3), totalPoints, deltas.get(donorId)));
+                    String badges = toJson(badgeRuleService.badgesFor(totalPoints));
+                    if (!badges.equals(normalize(rs.getString(5)))) {
+                        badgeUpdates.add(new Object[] {badges, rs.getInt(1)});
+                    }
+                },
+                donorIds.toArray());
+        if (!badgeUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE donor_gamification SET badges_earned = ? WHERE gamification_id = ?", badgeUpdates);
+        }
+
+        List<Object[]> applied = rows.stream().map(row -> new Object[] {row.journalId()}).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("DELETE FROM point_journal WHERE journal_id = ?", applied);
+
+        entriesFlushed.addAndGet(rows.size());
+        donorRowsUpdated.addAndGet(deltas.size());
+        if (flushed.size() < deltas.size()) {
+            log.warn("Dropped journalled points for {} donors that no longer exist", deltas.size() - flushed.size());
+        }
+        return flushed;
+    }
+
+    private String toJson(List<String> badges) {
+        try {
+            return objectMapper.writeValueAsString(badges);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Re-serialise the stored JSON so formatting differences (MySQL adds spaces) are not seen as changes
+    private String normalize(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(objectMapper.readTree(json));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("donorsWithPendingPoints", pending.size());
+        stats.put("pointsJournalled", pointsJournalled.get());
+        stats.put("journalEntriesFlushed", entriesFlushed.get());
+        stats.put("donorRowsUpdated", donorRowsUpdated.get());
+        stats.put("flushBatches", flushBatches.get());
+        stats.put("flushFailures", flushFailures.get());
+        stats.put("lastFlushAt", lastFlushAt);
+        stats.put("lastFlushMs", lastFlushMs);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
@@ -11,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -145,22 +146,19 @@ public class FundTransparencyService {
         log.info("Successfully deleted fund transparency with ID: {}", transparencyId);
     }
 
-    public List<FundTransparencyDto> getPublicFundTransparencies() {
+    public List<FundTransparencyDto> getPublicFundTransparencies(Integer page, Integer size) {
         log.info("Fetching all public fund transparencies");
 
-        List<FundTransparency> transparencies = fundTransparencyRepository.findAll();
-        return transparencies.stream()
-                .filter(transparency -> transparency.getIsPublic())
+        return fundTransparencyRepository.findByIsPublicTrue(LookupPage.of(page, size, Sort.by("transparencyId"))).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
-    public List<FundTransparencyDto> getFundTransparenciesByUtilization(Integer utilizationId) {
+    public List<FundTransparencyDto> getFundTransparenciesByUtilization(Integer utilizationId, Integer page, Integer size) {
         log.info("Fetching fund transparencies for utilization ID: {}", utilizationId);
 
-        List<FundTransparency> transparencies = fundTransparencyRepository.findAll();
-        return transparencies.stream()
-                .filter(transparency -> transparency.getUtilization().getUtilizationId().equals(utilizationId))
+        return fundTransparencyRepository.findByUtilizationUtilizationId(utilizationId,
+                        LookupPage.of(page, size, Sort.by("transparencyId"))).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
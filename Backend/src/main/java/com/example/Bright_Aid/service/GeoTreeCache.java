@@ -0,0 +1,273 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.event.GeoDataChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// In-memory Bangladesh geo tree: division -> district -> upazila, each node carrying its child ids
+// and the ids of the schools inside it.
+// The tree is immutable and built from four flat queries; a reload builds a complete new tree and
+// swaps the reference, so readers see either the old or the new version, never a half-built one.
+// Loaded at startup, rebuilt after committed geo or school-placement writes (GeoDataChangedEvent)
+// and on geo.cache.refresh-interval-ms as a safety net for writes made outside this instance.
+// Rebuilds after writes run on geoCacheExecutor, not on the committing request thread, and a burst of
+// writes (e.g. a bulk school import) coalesces into one rebuild that reads them all. Reads keep seeing
+// the previous version until it is swapped in.
+@Service
+@Slf4j
+public class GeoTreeCache {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor geoCacheExecutor;
+
+    private final AtomicReference<GeoTree> tree = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    // Reason of the first change not yet picked up by a rebuild; null when none is pending
+    private final AtomicReference<String> pendingReason = new AtomicReference<>();
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong reloadFailures = new AtomicLong();
+    private final AtomicLong coalescedChanges = new AtomicLong();
+    private volatile long lastReloadMs;
+    private volatile String lastReloadReason;
+    private volatile String lastError;
+
+    public record DivisionNode(Integer divisionId, String divisionName, String divisionCode,
+                               List<Integer> districtIds, List<Integer> schoolIds) {
+    }
+
+    public record DistrictNode(Integer districtId, String districtName, String districtCode,
+                               Integer divisionId, String divisionName,
+                               List<Integer> upazilaIds, List<Integer> schoolIds) {
+    }
+
+    public record UpazilaNode(Integer upazilaId, String upazilaName, String upazilaCode,
+                              Integer districtId, String districtName, List<Integer> schoolIds) {
+    }
+
+    // Maps are id-ordered and unmodifiable, id lists are immutable
+    public record GeoTree(long version, LocalDateTime loadedAt,
+                          Map<Integer, DivisionNode> divisions,
+                          Map<Integer, DistrictNode> districts,
+                          Map<Integer, UpazilaNode> upazilas) {
+    }
+
+    private record GeoRow(int id, String name, String code, Integer parentId) {
+    }
+
+    private record SchoolPlacement(int schoolId, Integer divisionId, Integer districtId, Integer upazilaId) {
+    }
+
+    public GeoTreeCache(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        @Qualifier("geoCacheExecutor") ThreadPoolTaskExecutor geoCacheExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.geoCacheExecutor = geoCacheExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public GeoTree getTree() {
+        reads.incrementAndGet();
+        GeoTree current = tree.get();
+        return current != null ? current : reload("first read");
+    }
+
+    public long getVersion() {
+        return getTree().version();
+    }
+
+    public DivisionNode getDivision(Integer divisionId) {
+        DivisionNode node = getTree().divisions().get(divisionId);
+        if (node == null) {
+            throw new RuntimeException("Division not found");
+        }
+        return node;
+    }
+
+    public DistrictNode getDistrict(Integer districtId) {
+        DistrictNode node = getTree().districts().get(districtId);
+        if (node == null) {
+            throw new RuntimeException("District not found");
+        }
+        return node;
+    }
+
+    public UpazilaNode getUpazila(Integer upazilaId) {
+        UpazilaNode node = getTree().upazilas().get(upazilaId);
+        if (node == null) {
+            throw new RuntimeException("Upazila not found with id: " + upazilaId);
+        }
+        return node;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload("startup");
+        } catch (RuntimeException e) {
+            // First read retries the load
+            log.error("Geo tree load at startup failed: {}", e.getMessage());
+        }
+    }
+
+    // After commit, so the rebuild reads the edited rows. Only the first change of a burst submits a
+    // rebuild; later ones join it until it starts. A change committed while a rebuild is running
+    // submits the next one, so no committed write is left out.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeoDataChanged(GeoDataChangedEvent event) {
+        if (pendingReason.compareAndSet(null, event.reason())) {
+            try {
+                geoCacheExecutor.execute(this::reloadPending);
+            } catch (RejectedExecutionException e) {
+                pendingReason.set(null);
+                log.warn("Geo tree reload after '{}' not queued; the periodic refresh picks it up", event.reason());
+            }
+        } else {
+            coalescedChanges.incrementAndGet();
+        }
+    }
+
+    private void reloadPending() {
+        // Cleared before the rebuild reads, so a change committed from here on schedules another pass
+        String reason = pendingReason.getAndSet(null);
+        try {
+            reload(reason);
+        } catch (RuntimeException e) {
+            // Keep serving the previous version; the periodic refresh picks the change up
+            log.error("Geo tree reload after '{}' failed: {}", reason, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${geo.cache.refresh-interval-ms:3600000}",
+            initialDelayString = "${geo.cache.refresh-interval-ms:3600000}")
+    public void scheduledRefresh() {
+        try {
+            reload("scheduled refresh");
+        } catch (RuntimeException e) {
+            log.error("Scheduled geo tree refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // Serialised so two rebuilds never race to publish out of order
+    public synchronized GeoTree reload(String reason) {
+        long started = System.currentTimeMillis();
+        try {
+            GeoTree loaded = readOnlyTransaction.execute(status -> build());
+            tree.set(loaded);
+            reloads.incrementAndGet();
+            lastReloadReason = reason;
+            lastError = null;
+            log.debug("Geo tree v{} loaded ({}): {} divisions, {} districts, {} upazilas",
+                    loaded.version(), reason, loaded.divisions().size(),
+                    loaded.districts().size(), loaded.upazilas().size());
+            return loaded;
+        } catch (RuntimeException e) {
+            reloadFailures.incrementAndGet();
+            lastError = e.getMessage();
+            throw e;
+        } finally {
+            lastReloadMs = System.currentTimeMillis() - started;
+        }
+    }
+
+    private GeoTree build() {
+        List<GeoRow> divisionRows = jdbcTemplate.query(
+                "SELECT division_id, division_name, division_code FROM divisions ORDER BY division_id",
+                (rs, i) -> new GeoRow(rs.getInt(1), rs.getString(2), rs.getString(3), null));
+        List<GeoRow> districtRows = jdbcTemplate.query(
+                "SELECT district_id, district_name, district_code, division_id FROM districts ORDER BY district_id",
+                (rs, i) -> new GeoRow(rs.getInt(1), rs.getString(2), rs.getString(3), (Integer) rs.getObject(4)));
+        List<GeoRow> upazilaRows = jdbcTemplate.query(
+                "SELECT upazila_id, upazila_name, upazila_code, district_id FROM upazilas ORDER BY upazila_id",
+                (rs, i) -> new GeoRow(rs.getInt(1), rs.getString(2), rs.getString(3), (Integer) rs.getObject(4)));
+        List<SchoolPlacement> schools = jdbcTemplate.query(
+                "SELECT school_id, division_id, district_id, upazila_id FROM schools ORDER BY school_id",
+                (rs, i) -> new SchoolPlacement(rs.getInt(1), (Integer) rs.getObject(2),
+                        (Integer) rs.getObject(3), (Integer) rs.getObject(4)));
+
+        // Child and school id lists, grouped by parent
+        Map<Integer, List<Integer>> districtsByDivision = new HashMap<>();
+        districtRows.forEach(d -> districtsByDivision.computeIfAbsent(d.parentId(), k -> new ArrayList<>()).add(d.id()));
+        Map<Integer, List<Integer>> upazilasByDistrict = new HashMap<>();
+        upazilaRows.forEach(u -> upazilasByDistrict.computeIfAbsent(u.parentId(), k -> new ArrayList<>()).add(u.id()));
+        Map<Integer, List<Integer>> schoolsByDivision = new HashMap<>();
+        Map<Integer, List<Integer>> schoolsByDistrict = new HashMap<>();
+        Map<Integer, List<Integer>> schoolsByUpazila = new HashMap<>();
+        for (SchoolPlacement school : schools) {
+            if (school.divisionId() != null) {
+                schoolsByDivision.computeIfAbsent(school.divisionId(), k -> new ArrayList<>()).add(school.schoolId());
+            }
+            if (school.districtId() != null) {
+                schoolsByDistrict.computeIfAbsent(school.districtId(), k -> new ArrayList<>()).add(school.schoolId());
+            }
+            if (school.upazilaId() != null) {
+                schoolsByUpazila.computeIfAbsent(school.upazilaId(), k -> new ArrayList<>()).add(school.schoolId());
+            }
+        }
+
+        Map<Integer, DivisionNode> divisions = new LinkedHashMap<>();
+        for (GeoRow row : divisionRows) {
+            divisions.put(row.id(), new DivisionNode(row.id(), row.name(), row.code(),
+                    idsOf(districtsByDivision, row.id()), idsOf(schoolsByDivision, row.id())));
+        }
+        Map<Integer, DistrictNode> districts = new LinkedHashMap<>();
+        for (GeoRow row : districtRows) {
+            DivisionNode division = divisions.get(row.parentId());
+            districts.put(row.id(), new DistrictNode(row.id(), row.name(), row.code(), row.parentId(),
+                    division != null ? division.divisionName() : null,
+                    idsOf(upazilasByDistrict, row.id()), idsOf(schoolsByDistrict, row.id())));
+        }
+        Map<Integer, UpazilaNode> upazilas = new LinkedHashMap<>();
+        for (GeoRow row : upazilaRows) {
+            DistrictNode district = districts.get(row.parentId());
+            upazilas.put(row.id(), new UpazilaNode(row.id(), row.name(), row.code(), row.parentId(),
+                    district != null ? district.districtName() : null, idsOf(schoolsByUpazila, row.id())));
+        }
+
+        return new GeoTree(versions.incrementAndGet(), LocalDateTime.now(),
+                Collections.unmodifiableMap(divisions),
+                Collections.unmodifiableMap(districts),
+                Collections.unmodifiableMap(upazilas));
+    }
+
+    private static List<Integer> idsOf(Map<Integer, List<Integer>> grouped, Integer key) {
+        List<Integer> ids = grouped.get(key);
+        return ids == null ? List.of() : List.copyOf(ids);
+    }
+
+    public Map<String, Object> getStats() {
+        GeoTree current = tree.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", current != null ? current.version() : null);
+        stats.put("loadedAt", current != null ? current.loadedAt() : null);
+        stats.put("divisions", current != null ? current.divisions().size() : 0);
+        stats.put("districts", current != null ? current.districts().size() : 0);
+        stats.put("upazilas", current != null ? current.upazilas().size() : 0);
+        stats.put("reads", reads.get());
+        stats.put("reloads", reloads.get());
+        stats.put("reloadFailures", reloadFailures.get());
+        stats.put("coalescedChanges", coalescedChanges.get());
+        stats.put("reloadPending", pendingReason.get() != null);
+        stats.put("lastReloadReason", lastReloadReason);
+        stats.put("lastReloadMs", lastReloadMs);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
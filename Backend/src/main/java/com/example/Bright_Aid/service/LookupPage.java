@@ -0,0 +1,34 @@
+package com.example.Bright_Aid.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+// Page of a filtered list lookup (NGOs by status, donations by NGO, ...).
+// Without page and size the whole list comes back, sorted, as these endpoints always returned it.
+// With either one, a single page of at most MAX_SIZE rows; an out-of-range page or size is rejected
+// (IllegalArgumentException, answered 400) instead of being cut down, so a caller never takes a
+// truncated page for the end of the list. The sort must end in the id so rows with equal sort
+// values keep their place between pages.
+final class LookupPage {
+
+    static final int MAX_SIZE = 500;
+
+    private LookupPage() {
+    }
+
+    static Pageable of(Integer page, Integer size, Sort sort) {
+        if (page == null && size == null) {
+            return Pageable.unpaged(sort);
+        }
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? size : MAX_SIZE;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (pageSize < 1 || pageSize > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SIZE);
+        }
+        return PageRequest.of(pageNumber, pageSize, sort);
+    }
+}
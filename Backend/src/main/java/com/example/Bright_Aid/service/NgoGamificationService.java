@@ -1,45 +1,81 @@
 package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Entity.NgoGamification;
+import com.example.Bright_Aid.Entity.NgoReach;
 import com.example.Bright_Aid.Dto.NgoGamificationDTO;
+import com.example.Bright_Aid.event.NgoStatsChangedEvent;
 import com.example.Bright_Aid.repository.NgoGamificationRepository;
-import com.example.Bright_Aid.repository.NgoRepository;
+import com.example.Bright_Aid.repository.NgoReachRepository;
+import com.example.Bright_Aid.repository.SchoolProjectRepository;
+import com.example.Bright_Aid.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+// NGO scores are derived from impact counters kept on the ngo_gamification row.
+// NGO donation writes apply their delta here in the same transaction (amount and donation count
+// directly, distinct students/schools through ngo_reach), so reading a score is a single
+// indexed lookup. A nightly reconciliation re-derives every counter from the donation tables.
 @Service
+@Slf4j
 public class NgoGamificationService {
 
     private final NgoGamificationRepository repository;
-    private final NgoRepository ngoRepository;
+    private final NgoReachRepository reachRepository;
+    private final StudentRepository studentRepository;
+    private final SchoolProjectRepository schoolProjectRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    public NgoGamificationService(NgoGamificationRepository repository, NgoRepository ngoRepository) {
+    @Value("${ngo.impact.reconcile-chunk-size:200}")
+    private int reconcileChunkSize;
+
+    public NgoGamificationService(NgoGamificationRepository repository,
+                                  NgoReachRepository reachRepository,
+                                  StudentRepository studentRepository,
+                                  SchoolProjectRepository schoolProjectRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
         this.repository = repository;
-        this.ngoRepository = ngoRepository;
+        this.reachRepository = reachRepository;
+        this.studentRepository = studentRepository;
+        this.schoolProjectRepository = schoolProjectRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Reconciliation chunks read the donation tables without locking them (MySQL takes no shared
+        // locks for INSERT ... SELECT / UPDATE ... JOIN sources under READ COMMITTED with row binlog);
+        // the counter row locks below keep the result consistent with concurrent donation writes
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
     }
 
     // ===================== CREATE =====================
+    // Seeds the counters from the NGO's existing donations once; after that they move incrementally
+    @Transactional
     public NgoGamificationDTO create(NgoGamificationDTO dto) {
         // Check if NGO gamification already exists
         if (repository.existsByNgoId(dto.getNgoId())) {
             throw new RuntimeException("NGO Gamification already exists for NGO ID: " + dto.getNgoId());
         }
-        
-        NgoGamification entity = mapToEntity(dto);
-
-        // Auto-calculate gamification metrics
-        calculateGamificationMetrics(entity);
-        entity.setLastUpdated(LocalDateTime.now());
 
-        NgoGamification saved = repository.save(entity);
-        return mapToDTO(saved);
+        repository.insertIfAbsent(dto.getNgoId(), dto.getNgoName());
+        return mapToDTO(reconcileNgo(dto.getNgoId()));
     }
 
     // ===================== UPDATE =====================
+    @Transactional
     public NgoGamificationDTO update(Integer id, NgoGamificationDTO dto) {
         NgoGamification entity = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("NGO Gamification not found"));
@@ -47,9 +83,8 @@ public class NgoGamificationService {
         entity.setNgoName(dto.getNgoName());
         entity.setNgoId(dto.getNgoId());
         
-        // Recalculate metrics on update
-        calculateGamificationMetrics(entity);
-        entity.setLastUpdated(LocalDateTime.now());
+        // Re-score from the stored counters
+        applyScore(entity);
 
         NgoGamification updated = repository.save(entity);
         return mapToDTO(updated);
@@ -70,6 +105,7 @@ public class NgoGamificationService {
     }
 
     // ===================== GET BY NGO ID =====================
+    @Transactional
     public NgoGamificationDTO getByNgoId(Integer ngoId) {
         NgoGamification entity = repository.findByNgoId(ngoId);
         if (entity == null) {
@@ -104,20 +140,128 @@ public class NgoGamificationService {
                 .lastUpdated(entity.getLastUpdated())
                 .totalPoints(entity.getTotalPoints())
                 .impactScore(entity.getImpactScore())
+                .totalDonated(entity.getTotalDonated())
+                .completedDonations(entity.getCompletedDonations())
+                .studentsHelped(entity.getStudentsHelped())
+                .schoolsReached(entity.getSchoolsReached())
                 .build();
     }
 
-    private NgoGamification mapToEntity(NgoGamificationDTO dto) {
-        return NgoGamification.builder()
-                .ngoName(dto.getNgoName())
-                .ngoId(dto.getNgoId())
-                .build();
+    // ===================== INCREMENTAL COUNTERS =====================
+    // NGO donation writes call ensureCounters before touching the row, then apply* afterwards with
+    // +1 when the donation enters the counted set (created or updated as COMPLETED) and -1 when it
+    // leaves it (status changed away, or deleted), with the donation row already flushed.
+
+    // Seeds the NGO's counter row from the tables if it has none, so later deltas start from the truth
+    @Transactional
+    public void ensureCounters(Integer ngoId) {
+        if (ngoId != null && repository.insertIfAbsent(ngoId, "NGO " + ngoId) == 1) {
+            reconcileNgo(ngoId);
+        }
+    }
+
+    @Transactional
+    public void applyStudentDonation(Integer ngoId, Integer studentId, BigDecimal amount, int sign) {
+        Integer schoolId = studentId != null ? studentRepository.findSchoolIdByStudentId(studentId) : null;
+        applyDonation(ngoId, amount, studentId, schoolId, sign);
+    }
+
+    @Transactional
+    public void applyProjectDonation(Integer ngoId, Integer projectId, BigDecimal amount, int sign) {
+        Integer schoolId = projectId != null ? schoolProjectRepository.findSchoolIdByProjectId(projectId) : null;
+        applyDonation(ngoId, amount, null, schoolId, sign);
+    }
+
+    private void applyDonation(Integer ngoId, BigDecimal amount, Integer studentId, Integer schoolId, int sign) {
+        if (ngoId == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new NgoStatsChangedEvent(ngoId));
+
+        // Lock the counter row first so reach changes and counter changes for one NGO serialise
+        NgoGamification entity = repository.findForUpdateByNgoId(ngoId).orElse(null);
+        if (entity == null) {
+            // Not seeded beforehand: seed now from the tables, which already include this write
+            repository.insertIfAbsent(ngoId, "NGO " + ngoId);
+            reconcileNgo(ngoId);
+            return;
+        }
+        int newStudents = applyReach(ngoId, NgoReach.ReachType.STUDENT, studentId, sign);
+        int newSchools = applyReach(ngoId, NgoReach.ReachType.SCHOOL, schoolId, sign);
+
+        BigDecimal delta = amount != null ? amount : BigDecimal.ZERO;
+        entity.setTotalDonated(orZero(entity.getTotalDonated()).add(sign > 0 ? delta : delta.negate()));
+        entity.setCompletedDonations(orZero(entity.getCompletedDonations()) + sign);
+        entity.setStudentsHelped(orZero(entity.getStudentsHelped()) + newStudents);
+        entity.setSchoolsReached(orZero(entity.getSchoolsReached()) + newSchools);
+        applyScore(entity);
+        repository.save(entity);
+    }
+
+    // Returns +1 when the NGO reaches this target for the first time, -1 when its last donation to it is gone
+    private int applyReach(Integer ngoId, NgoReach.ReachType type, Integer targetId, int sign) {
+        if (targetId == null) {
+            return 0;
+        }
+        if (sign > 0) {
+            return reachRepository.increment(ngoId, type.name(), targetId) == 1 ? 1 : 0;
+        }
+        reachRepository.decrement(ngoId, type.name(), targetId);
+        return reachRepository.deleteIfEmpty(ngoId, type.name(), targetId) == 1 ? -1 : 0;
+    }
+
+    // ===================== RECONCILIATION =====================
+
+    private NgoGamification reconcileNgo(Integer ngoId) {
+        eventPublisher.publishEvent(new NgoStatsChangedEvent(ngoId));
+        reachRepository.deleteForNgos(ngoId, ngoId);
+        reachRepository.insertForNgos(ngoId, ngoId);
+        repository.reconcileCounters(ngoId, ngoId);
+        NgoGamification entity = repository.findByNgoId(ngoId);
+        applyScore(entity);
+        return repository.save(entity);
+    }
+
+    // Rows written before the counters existed have none yet
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfMissing() {
+        if (repository.countByTotalDonatedIsNull() > 0) {
+            reconcileAll();
+        }
+    }
+
+    // Full re-derivation; corrects drift from writes that bypass the donation services
+    // (direct SQL, bulk loads) and from students or projects that moved school.
+    // Runs in ngo_id chunks, each its own transaction that locks the chunk's counter rows before
+    // touching ngo_reach: the same order as applyDonation, so the two cannot deadlock, and a
+    // donation waiting on one of those rows applies its delta on top of the reconciled value.
+    @Scheduled(cron = "${ngo.impact.reconcile-cron:0 45 3 * * *}")
+    public void reconcileAll() {
+        long started = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> repository.insertMissingForAllNgos());
+        List<Integer> ngoIds = repository.findAllNgoIds();
+        for (int from = 0; from < ngoIds.size(); from += reconcileChunkSize) {
+            List<Integer> chunk = ngoIds.subList(from, Math.min(from + reconcileChunkSize, ngoIds.size()));
+            transactionTemplate.executeWithoutResult(status -> reconcileChunk(chunk.get(0), chunk.get(chunk.size() - 1)));
+        }
+        eventPublisher.publishEvent(new NgoStatsChangedEvent(null));
+        log.info("NGO impact counters reconciled for {} NGOs in {} ms", ngoIds.size(), System.currentTimeMillis() - started);
+    }
+
+    private void reconcileChunk(Integer fromId, Integer toId) {
+        repository.lockNgoIds(fromId, toId);
+        reachRepository.deleteForNgos(fromId, toId);
+        reachRepository.insertForNgos(fromId, toId);
+        repository.reconcileCounters(fromId, toId);
+        List<NgoGamification> reconciled = repository.findByNgoIdBetween(fromId, toId);
+        reconciled.forEach(this::applyScore);
+        repository.saveAll(reconciled);
     }
 
     // ===================== GAMIFICATION CALCULATION =====================
-    private void calculateGamificationMetrics(NgoGamification entity) {
+    private void applyScore(NgoGamification entity) {
         // Calculate total points based on NGO activities
-        int totalPoints = calculateTotalPoints(entity.getNgoId());
+        int totalPoints = calculateTotalPoints(entity);
         entity.setTotalPoints(totalPoints);
 
         // Calculate impact score (0.0 to 10.0)
@@ -127,50 +271,36 @@ public class NgoGamificationService {
         // Generate badges based on achievements
         String badges = generateBadges(totalPoints, impactScore);
         entity.setBadgesEarned(badges);
+        entity.setLastUpdated(LocalDateTime.now());
     }
 
-    private int calculateTotalPoints(Integer ngoId) {
-        // Points calculation logic using actual data:
-        // - 100 points per completed donation
-        // - 50 points per active project
-        // - 10 points per school helped
-        // - 5 points per student impacted
-        
-        int points = 0;
+    private int calculateTotalPoints(NgoGamification entity) {
+        // Points calculation logic from the impact counters:
+        // - 50 points for having an NGO profile
+        // - 1 point per 1000 donated, max 500
+        // - 5 points per student helped
+        // - 10 points per school reached
         
-        // Base points for having an NGO profile
-        points += 50;
-        
-        try {
-            // Get actual stats from NGO repository using native queries
-            Long totalDonated = ngoRepository.getTotalDonatedByNgo(ngoId);
-            Long studentsHelped = ngoRepository.getStudentsHelpedByNgo(ngoId);
-            Long schoolsReached = ngoRepository.getSchoolsReachedByNgo(ngoId);
-            
-            // Calculate points based on actual data
-            if (totalDonated != null && totalDonated > 0) {
-                points += Math.min((int)(totalDonated / 1000), 500); // 1 point per 1000 donated, max 500
-            }
-            
-            if (studentsHelped != null) {
-                points += studentsHelped.intValue() * 5; // 5 points per student
-            }
-            
-            if (schoolsReached != null) {
-                points += schoolsReached.intValue() * 10; // 10 points per school
-            }
-            
-        } catch (Exception e) {
-            // Fallback to simulation if queries fail
-            points += (ngoId % 5) * 100; // Completed projects simulation
-            points += (ngoId % 3) * 50;  // Active projects simulation
-            points += (ngoId % 10) * 10; // Schools helped simulation
-            points += (ngoId % 20) * 5;  // Students impacted simulation
+        int points = 50;
+
+        long totalDonated = orZero(entity.getTotalDonated()).longValue();
+        if (totalDonated > 0) {
+            points += (int) Math.min(totalDonated / 1000, 500);
         }
-        
+        points += orZero(entity.getStudentsHelped()) * 5;
+        points += orZero(entity.getSchoolsReached()) * 10;
+
         return Math.max(points, 50); // Minimum 50 points
     }
 
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
     private Double calculateImpactScore(Integer ngoId, int totalPoints) {
         // Impact score based on:
         // - Total points achieved
@@ -191,16 +321,16 @@ public class NgoGamificationService {
         
         // Points-based badges
         if (totalPoints >= 1000) {
-            badges.append("Champion");
+            badges.append("\"Champion\"");
             hasBadge = true;
         } else if (totalPoints >= 500) {
-            badges.append("Expert");
+            badges.append("\"Expert\"");
             hasBadge = true;
         } else if (totalPoints >= 200) {
-            badges.append("Achiever");
+            badges.append("\"Achiever\"");
             hasBadge = true;
         } else if (totalPoints >= 100) {
-            badges.append("Starter");
+            badges.append("\"Starter\"");
             hasBadge = true;
         }
         
@@ -0,0 +1,210 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.NgoImpactDayDto;
+import com.example.Bright_Aid.Entity.AggregationWatermark;
+import com.example.Bright_Aid.Entity.NgoImpactDaily;
+import com.example.Bright_Aid.repository.AggregationWatermarkRepository;
+import com.example.Bright_Aid.repository.NgoImpactDailyRepository;
+import com.example.Bright_Aid.repository.projection.NgoDayKeyView;
+import com.example.Bright_Aid.repository.projection.NgoImpactDayView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Rolls ngo_impact_daily forward from a watermark.
+// Each run finds the (NGO, day) buckets touched by NGO donation rows updated since the last run
+// and re-aggregates only those days, so the cost follows new activity rather than total history.
+// The watermark trails the clock by ngo.rollup.commit-lag-ms so rows whose transaction has not
+// committed yet are picked up next time instead of being skipped. Deletes and rows moved to
+// another day are not visible through updated_at; the NGO donation services refresh the old
+// bucket directly, and a nightly full rebuild covers anything else.
+// Roll-forward and rebuild share runLock: a roll-forward that finds a rebuild running skips its
+// turn, and a rebuild waits for a running roll-forward, so neither ever moves the watermark
+// under the other.
+@Service
+@Slf4j
+public class NgoImpactRollupService {
+
+    static final String JOB_NAME = "ngo_impact_daily";
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final NgoImpactDailyRepository rollupRepository;
+    private final AggregationWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ngo.rollup.commit-lag-ms:10000}")
+    private long commitLagMs;
+
+    @Value("${ngo.rollup.chunk-size:500}")
+    private int chunkSize;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private final AtomicLong bucketsRefreshed = new AtomicLong();
+    private volatile int lastRunBuckets;
+    private volatile long lastRunMs;
+    private volatile LocalDateTime lastRunAt;
+
+    public NgoImpactRollupService(NgoImpactDailyRepository rollupRepository,
+                                  AggregationWatermarkRepository watermarkRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${ngo.rollup.interval-ms:60000}")
+    public void rollForward() {
+        if (!runLock.tryLock()) {
+            return; // rebuild in progress; the next run picks up from its watermark
+        }
+        try {
+            rollForwardLocked();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private void rollForwardLocked() {
+        AggregationWatermark mark = watermarkRepository.findById(JOB_NAME).orElse(null);
+        if (mark == null) {
+            rebuild(); // first run
+            return;
+        }
+        long started = System.currentTimeMillis();
+        LocalDateTime upTo = LocalDateTime.now().minusNanos(commitLagMs * 1_000_000);
+        if (!upTo.isAfter(mark.getWatermark())) {
+            return;
+        }
+
+        List<NgoDayKeyView> touched = rollupRepository.findTouchedDays(mark.getWatermark(), upTo);
+        for (int from = 0; from < touched.size(); from += chunkSize) {
+            List<NgoDayKeyView> chunk = touched.subList(from, Math.min(from + chunkSize, touched.size()));
+            transactionTemplate.executeWithoutResult(status ->
+                    chunk.forEach(key -> refreshBucket(key.getNgoId(), key.getDayStart().toLocalDate())));
+        }
+        // Advanced only after every bucket is in; a crash mid-way just re-aggregates them next run
+        transactionTemplate.executeWithoutResult(status -> saveWatermark(upTo));
+
+        bucketsRefreshed.addAndGet(touched.size());
+        lastRunBuckets = touched.size();
+        lastRunMs = System.currentTimeMillis() - started;
+        lastRunAt = LocalDateTime.now();
+        if (!touched.isEmpty()) {
+            log.debug("NGO impact rollup: {} day buckets refreshed up to {}", touched.size(), upTo);
+        }
+    }
+
+    @Scheduled(cron = "${ngo.rollup.rebuild-cron:0 50 3 * * *}")
+    public void rebuild() {
+        runLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime upTo = LocalDateTime.now().minusNanos(commitLagMs * 1_000_000);
+            Integer rows = transactionTemplate.execute(status -> {
+                rollupRepository.deleteAllDays();
+                int inserted = rollupRepository.insertAllDays();
+                saveWatermark(upTo);
+                return inserted;
+            });
+            log.info("NGO impact rollup rebuilt: {} day rows in {} ms", rows, System.currentTimeMillis() - started);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    // For writes the watermark cannot see: a deleted donation, or one moved to another NGO or day
+    @Transactional
+    public void refreshDay(Integer ngoId, LocalDateTime donatedAt) {
+        if (ngoId != null && donatedAt != null) {
+            refreshBucket(ngoId, donatedAt.toLocalDate());
+        }
+    }
+
+    private void refreshBucket(Integer ngoId, LocalDate day) {
+        if (rollupRepository.upsertDay(ngoId, day.atStartOfDay(), day.plusDays(1).atStartOfDay()) == 0) {
+            rollupRepository.deleteDay(ngoId, day); // nothing counted on that day any more
+        }
+    }
+
+    private void saveWatermark(LocalDateTime upTo) {
+        watermarkRepository.save(AggregationWatermark.builder()
+                .jobName(JOB_NAME)
+                .watermark(upTo)
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Stored rollup rows, with the days touched since the watermark re-aggregated live on top
+    @Transactional(readOnly = true)
+    public List<NgoImpactDayDto> getDailyImpact(Integer ngoId, LocalDate from, LocalDate to) {
+        Map<LocalDate, NgoImpactDayDto> days = new TreeMap<>();
+        for (NgoImpactDaily row : rollupRepository.findByNgoIdAndDayBetweenOrderByDayAsc(ngoId, from, to)) {
+            days.put(row.getDay(), toDto(row));
+        }
+
+        LocalDateTime watermark = watermarkRepository.findById(JOB_NAME)
+                .map(AggregationWatermark::getWatermark)
+                .orElse(BEGINNING);
+        for (NgoDayKeyView key : rollupRepository.findTouchedDaysForNgo(ngoId, watermark)) {
+            LocalDate day = key.getDayStart().toLocalDate();
+            if (day.isBefore(from) || day.isAfter(to)) {
+                continue;
+            }
+            List<NgoImpactDayView> live = rollupRepository.aggregateDay(
+                    ngoId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            if (live.isEmpty()) {
+                days.remove(day); // nothing counted on that day any more
+            } else {
+                days.put(day, toDto(day, live.get(0)));
+            }
+        }
+        return new ArrayList<>(days.values());
+    }
+
+    public Map<String, Object> getStats() {
+        LocalDateTime watermark = watermarkRepository.findById(JOB_NAME)
+                .map(AggregationWatermark::getWatermark)
+                .orElse(null);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("watermark", watermark);
+        stats.put("watermarkAgeMs", watermark != null ? Duration.between(watermark, LocalDateTime.now()).toMillis() : null);
+        stats.put("lastRunBuckets", lastRunBuckets);
+        stats.put("lastRunMs", lastRunMs);
+        stats.put("bucketsRefreshed", bucketsRefreshed.get());
+        stats.put("lastRunAt", lastRunAt);
+        return stats;
+    }
+
+    private NgoImpactDayDto toDto(NgoImpactDaily row) {
+        return NgoImpactDayDto.builder()
+                .day(row.getDay())
+                .amountDonated(row.getAmountDonated())
+                .donations(row.getDonations())
+                .studentsReached(row.getStudentsReached())
+                .schoolsReached(row.getSchoolsReached())
+                .build();
+    }
+
+    private NgoImpactDayDto toDto(LocalDate day, NgoImpactDayView view) {
+        return NgoImpactDayDto.builder()
+                .day(day)
+                .amountDonated(view.getAmountDonated())
+                .donations(view.getDonations().intValue())
+                .studentsReached(view.getStudentsReached().intValue())
+                .schoolsReached(view.getSchoolsReached().intValue())
+                .build();
+    }
+}
@@ -3,35 +3,58 @@ package com.example.Bright_Aid.service;
 import com.example.Bright_Aid.Entity.NgoProjectDonations;
 import com.example.Bright_Aid.Dto.NgoProjectDonationsDTO;
 import com.example.Bright_Aid.repository.NgoProjectDonationsRepository;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class NgoProjectDonationsService {
 
     private final NgoProjectDonationsRepository repository;
+    private final NgoGamificationService ngoGamificationService;
+    private final NgoImpactRollupService ngoImpactRollupService;
 
-    public NgoProjectDonationsService(NgoProjectDonationsRepository repository) {
+    public NgoProjectDonationsService(NgoProjectDonationsRepository repository,
+                                      NgoGamificationService ngoGamificationService,
+                                      NgoImpactRollupService ngoImpactRollupService) {
         this.repository = repository;
+        this.ngoGamificationService = ngoGamificationService;
+        this.ngoImpactRollupService = ngoImpactRollupService;
     }
 
     // ===================== CREATE =====================
+    @Transactional
     public NgoProjectDonationsDTO create(NgoProjectDonationsDTO dto) {
         NgoProjectDonations entity = mapToEntity(dto);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
+        ngoGamificationService.ensureCounters(entity.getNgoId());
 
         NgoProjectDonations saved = repository.save(entity);
+        if (isCounted(saved.getPaymentStatus())) {
+            ngoGamificationService.applyProjectDonation(saved.getNgoId(), saved.getProjectId(), saved.getAmount(), 1);
+        }
         return mapToDTO(saved);
     }
 
     // ===================== UPDATE =====================
+    @Transactional
     public NgoProjectDonationsDTO update(Integer id, NgoProjectDonationsDTO dto) {
         NgoProjectDonations entity = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Donation not found"));
+        boolean wasCounted = isCounted(entity.getPaymentStatus());
+        Integer oldNgoId = entity.getNgoId();
+        Integer oldProjectId = entity.getProjectId();
+        BigDecimal oldAmount = entity.getAmount();
+        LocalDateTime oldDonatedAt = entity.getDonatedAt();
+        ngoGamificationService.ensureCounters(oldNgoId);
+        ngoGamificationService.ensureCounters(dto.getNgoId());
 
         entity.setAmount(dto.getAmount());
         entity.setDonatedAt(dto.getDonatedAt());
@@ -44,7 +67,27 @@ public class NgoProjectDonationsService {
         entity.setTransactionId(dto.getTransactionId());
         entity.setUpdatedAt(LocalDateTime.now());
 
-        NgoProjectDonations updated = repository.save(entity);
+        NgoProjectDonations updated = repository.saveAndFlush(entity);
+
+        // Move the NGO impact counters: take the old values out and put the new ones in,
+        // unless nothing they depend on changed
+        boolean counted = isCounted(updated.getPaymentStatus());
+        boolean unchanged = wasCounted == counted
+                && Objects.equals(oldNgoId, updated.getNgoId())
+                && Objects.equals(oldProjectId, updated.getProjectId())
+                && oldAmount != null && updated.getAmount() != null && oldAmount.compareTo(updated.getAmount()) == 0;
+        if (!unchanged) {
+            if (wasCounted) {
+                ngoGamificationService.applyProjectDonation(oldNgoId, oldProjectId, oldAmount, -1);
+            }
+            if (counted) {
+                ngoGamificationService.applyProjectDonation(updated.getNgoId(), updated.getProjectId(), updated.getAmount(), 1);
+            }
+        }
+        // The rollup job only sees the row's new day; re-aggregate the day it left
+        if (!Objects.equals(oldNgoId, updated.getNgoId()) || !sameDay(oldDonatedAt, updated.getDonatedAt())) {
+            ngoImpactRollupService.refreshDay(oldNgoId, oldDonatedAt);
+        }
         return mapToDTO(updated);
     }
 
@@ -64,17 +107,35 @@ public class NgoProjectDonationsService {
     }
 
     // ===================== GET BY NGO ID =====================
-    public List<NgoProjectDonationsDTO> getByNgoId(Integer ngoId) {
-        return repository.findAll()
+    public List<NgoProjectDonationsDTO> getByNgoId(Integer ngoId, Integer page, Integer size) {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "donatedAt", "projectDonationId");
+        return repository.findByNgoId(ngoId, LookupPage.of(page, size, newestFirst))
                 .stream()
-                .filter(donation -> donation.getNgoId().equals(ngoId))
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
     // ===================== DELETE =====================
+    @Transactional
     public void delete(Integer id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(entity -> {
+            ngoGamificationService.ensureCounters(entity.getNgoId());
+            repository.delete(entity);
+            repository.flush();
+            ngoImpactRollupService.refreshDay(entity.getNgoId(), entity.getDonatedAt());
+            if (isCounted(entity.getPaymentStatus())) {
+                ngoGamificationService.applyProjectDonation(entity.getNgoId(), entity.getProjectId(), entity.getAmount(), -1);
+            }
+        });
+    }
+
+    private boolean sameDay(LocalDateTime a, LocalDateTime b) {
+        return a != null && b != null && a.toLocalDate().equals(b.toLocalDate());
+    }
+
+    // Rows without a status predate payment tracking and are treated as completed
+    private boolean isCounted(NgoProjectDonations.PaymentStatus status) {
+        return status == null || status == NgoProjectDonations.PaymentStatus.COMPLETED;
     }
 
     // ===================== MAPPER METHODS =====================
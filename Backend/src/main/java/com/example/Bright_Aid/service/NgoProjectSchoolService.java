@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -88,30 +89,27 @@ public class NgoProjectSchoolService {
         return false;
     }
 
-    public List<NgoProjectSchoolDto> getNgoProjectSchoolsByNgoProjectId(Integer ngoProjectId) {
+    public List<NgoProjectSchoolDto> getNgoProjectSchoolsByNgoProjectId(Integer ngoProjectId, Integer page, Integer size) {
         log.info("Fetching NGO project schools for NGO project ID: {}", ngoProjectId);
-        return ngoProjectSchoolRepository.findAll()
+        return ngoProjectSchoolRepository.findByNgoProjectNgoProjectId(ngoProjectId, LookupPage.of(page, size, Sort.by("npsId")))
                 .stream()
-                .filter(nps -> nps.getNgoProject().getNgoProjectId().equals(ngoProjectId))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
-    public List<NgoProjectSchoolDto> getNgoProjectSchoolsBySchoolId(Integer schoolId) {
+    public List<NgoProjectSchoolDto> getNgoProjectSchoolsBySchoolId(Integer schoolId, Integer page, Integer size) {
         log.info("Fetching NGO project schools for school ID: {}", schoolId);
-        return ngoProjectSchoolRepository.findAll()
+        return ngoProjectSchoolRepository.findBySchoolSchoolId(schoolId, LookupPage.of(page, size, Sort.by("npsId")))
                 .stream()
-                .filter(nps -> nps.getSchool().getSchoolId().equals(schoolId))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
-    public List<NgoProjectSchoolDto> getNgoProjectSchoolsByParticipationStatus(String participationStatus) {
+    public List<NgoProjectSchoolDto> getNgoProjectSchoolsByParticipationStatus(String participationStatus, Integer page, Integer size) {
         log.info("Fetching NGO project schools with participation status: {}", participationStatus);
         NgoProjectSchool.ParticipationStatus status = NgoProjectSchool.ParticipationStatus.valueOf(participationStatus.toUpperCase());
-        return ngoProjectSchoolRepository.findAll()
+        return ngoProjectSchoolRepository.findByParticipationStatus(status, LookupPage.of(page, size, Sort.by("npsId")))
                 .stream()
-                .filter(nps -> nps.getParticipationStatus().equals(status))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
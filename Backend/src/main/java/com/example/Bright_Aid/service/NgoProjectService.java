@@ -3,10 +3,12 @@ package com.example.Bright_Aid.service;
 import com.example.Bright_Aid.Entity.NgoProject;
 import com.example.Bright_Aid.Entity.Ngo;
 import com.example.Bright_Aid.Entity.ProjectType;
+import com.example.Bright_Aid.event.ReferenceDataChangedEvent;
 import com.example.Bright_Aid.repository.NgoProjectRepository;
 import com.example.Bright_Aid.repository.NgoRepository;
 import com.example.Bright_Aid.repository.ProjectTypeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +20,7 @@ public class NgoProjectService {
     private final NgoProjectRepository ngoProjectRepository;
     private final NgoRepository ngoRepository;
     private final ProjectTypeRepository projectTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Get all projects
     public List<NgoProject> getAllProjects() {
@@ -45,17 +48,23 @@ public class NgoProjectService {
             throw new RuntimeException("Project Type ID is required");
         }
         
-        return ngoProjectRepository.save(project);
+        NgoProject saved = ngoProjectRepository.save(project);
+        // Project type listings carry the ids of their projects
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataCache.PROJECT_TYPES));
+        return saved;
     }
 
     // Update project
     public NgoProject updateProject(Integer id, NgoProject project) {
         project.setNgoProjectId(id);
-        return ngoProjectRepository.save(project);
+        NgoProject saved = ngoProjectRepository.save(project);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataCache.PROJECT_TYPES));
+        return saved;
     }
 
     // Delete project
     public void deleteProject(Integer id) {
         ngoProjectRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataCache.PROJECT_TYPES));
     }
 }
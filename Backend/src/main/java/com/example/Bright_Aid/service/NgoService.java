@@ -1,6 +1,7 @@
 package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Dto.NgoDto;
+import com.example.Bright_Aid.Dto.NgoGamificationDTO;
 import com.example.Bright_Aid.Entity.Ngo;
 import com.example.Bright_Aid.Entity.User;
 // import com.example.Bright_Aid.Entity.Admin;
@@ -15,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,9 +43,7 @@ public class NgoService {
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + ngoDto.getUserId()));
 
         // Check if NGO already exists for this user
-        boolean ngoExists = ngoRepository.findAll().stream()
-                .anyMatch(ngo -> ngo.getUser().getUserId().equals(ngoDto.getUserId()));
-        if (ngoExists) {
+        if (ngoRepository.existsByUserUserId(ngoDto.getUserId())) {
             throw new RuntimeException("NGO already exists for user ID: " + ngoDto.getUserId());
         }
 
@@ -152,34 +152,24 @@ public class NgoService {
         log.info("Successfully deleted NGO with ID: {}", ngoId);
     }
 
-    public List<NgoDto> getNgosByVerificationStatus(Ngo.VerificationStatus status) {
+    public List<NgoDto> getNgosByVerificationStatus(Ngo.VerificationStatus status, Integer page, Integer size) {
         log.info("Fetching NGOs with verification status: {}", status);
 
-        List<Ngo> ngos = ngoRepository.findAll();
-        return ngos.stream()
-                .filter(ngo -> ngo.getVerificationStatus().equals(status))
+        return ngoRepository.findByVerificationStatus(status, LookupPage.of(page, size, Sort.by("ngoId"))).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
-    public List<NgoDto> getVerifiedNgos() {
+    public List<NgoDto> getVerifiedNgos(Integer page, Integer size) {
         log.info("Fetching all verified NGOs");
 
-        List<Ngo> ngos = ngoRepository.findAll();
-        return ngos.stream()
-                .filter(ngo -> ngo.getVerificationStatus().equals(Ngo.VerificationStatus.VERIFIED))
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return getNgosByVerificationStatus(Ngo.VerificationStatus.VERIFIED, page, size);
     }
 
-    public List<NgoDto> getPendingNgos() {
+    public List<NgoDto> getPendingNgos(Integer page, Integer size) {
         log.info("Fetching all pending NGOs");
 
-        List<Ngo> ngos = ngoRepository.findAll();
-        return ngos.stream()
-                .filter(ngo -> ngo.getVerificationStatus().equals(Ngo.VerificationStatus.PENDING))
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return getNgosByVerificationStatus(Ngo.VerificationStatus.PENDING, page, size);
     }
 
     @Transactional
@@ -223,10 +213,7 @@ public class NgoService {
     public NgoDto getNgoByRegistrationNumber(String registrationNumber) {
         log.info("Fetching NGO with registration number: {}", registrationNumber);
 
-        List<Ngo> ngos = ngoRepository.findAll();
-        Ngo ngo = ngos.stream()
-                .filter(n -> n.getRegistrationNumber().equals(registrationNumber))
-                .findFirst()
+        Ngo ngo = ngoRepository.findByRegistrationNumber(registrationNumber)
                 .orElseThrow(() -> new RuntimeException("NGO not found with registration number: " + registrationNumber));
 
         return convertToDto(ngo);
@@ -235,15 +222,14 @@ public class NgoService {
     public NgoDto getNgoByUserId(Integer userId) {
         log.info("Fetching NGO for user ID: {}", userId);
 
-        List<Ngo> ngos = ngoRepository.findAll();
-        Ngo ngo = ngos.stream()
-                .filter(n -> n.getUser().getUserId().equals(userId))
-                .findFirst()
+        Ngo ngo = ngoRepository.findByUserUserId(userId)
                 .orElseThrow(() -> new RuntimeException("NGO not found for user ID: " + userId));
 
         return convertToDto(ngo);
     }
     
+    // Read-write: the first stats view for an NGO seeds its impact counters
+    @Transactional
     public java.util.Map<String, Object> getNgoStats(Integer ngoId) {
         log.info("Fetching stats for NGO ID: {}", ngoId);
         
@@ -254,11 +240,12 @@ public class NgoService {
                 throw new RuntimeException("NGO not found with ID: " + ngoId);
             }
             
-            // Use native queries to count data directly from database
-            Long totalDonated = ngoRepository.getTotalDonatedByNgo(ngoId);
-            Long studentsHelped = ngoRepository.getStudentsHelpedByNgo(ngoId);
+            // Impact figures come from the NGO's maintained counters (one row lookup, no aggregates)
+            NgoGamificationDTO impact = ngoGamificationService.getByNgoId(ngoId);
+            Long totalDonated = impact.getTotalDonated() != null ? impact.getTotalDonated().longValue() : 0L;
+            Long studentsHelped = impact.getStudentsHelped() != null ? impact.getStudentsHelped().longValue() : 0L;
             Long schoolProjectsCount = ngoRepository.getSchoolProjectsCount();
-            Long schoolsReached = ngoRepository.getSchoolsReachedByNgo(ngoId);
+            Long schoolsReached = impact.getSchoolsReached() != null ? impact.getSchoolsReached().longValue() : 0L;
             
             log.info("Raw stats for NGO {}: donated={}, students={}, projects={}, schools={}", 
                     ngoId, totalDonated, studentsHelped, schoolProjectsCount, schoolsReached);
@@ -283,13 +270,6 @@ public class NgoService {
                 stats.put("schoolsReached", schoolsReached != null ? schoolsReached : 0L);
             }
             
-            // Trigger gamification update when stats are fetched (indicates activity)
-            try {
-                ngoGamificationService.getByNgoId(ngoId); // This will auto-update or create gamification data
-            } catch (Exception e) {
-                log.warn("Failed to update gamification data for NGO {}: {}", ngoId, e.getMessage());
-            }
-            
             return stats;
         } catch (Exception e) {
             log.error("Error calculating stats for NGO {}: {}", ngoId, e.getMessage());
@@ -0,0 +1,150 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.event.NgoStatsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-NGO cache in front of NgoService.getNgoStats.
+// Entries live for ngo.stats.cache-ttl-ms and are dropped once a commit changes the NGO's figures
+// (NgoStatsChangedEvent). Concurrent misses for one NGO are coalesced: the first caller installs a
+// future and runs the load, everyone arriving meanwhile waits on that same future.
+@Service
+@Slf4j
+public class NgoStatsCache {
+
+    private final NgoService ngoService;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Integer, CachedStats> cache = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+
+    private static final class CachedStats {
+        final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        volatile long loadedAtNanos;
+    }
+
+    public NgoStatsCache(NgoService ngoService,
+                         @Value("${ngo.stats.cache-ttl-ms:30000}") long ttlMs) {
+        this.ngoService = ngoService;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    public Map<String, Object> getStats(Integer ngoId) {
+        while (true) {
+            CachedStats current = cache.get(ngoId);
+            if (current == null) {
+                CachedStats fresh = new CachedStats();
+                if (cache.putIfAbsent(ngoId, fresh) == null) {
+                    return load(ngoId, fresh);
+                }
+                continue; // another caller installed one first
+            }
+            if (!current.future.isDone()) {
+                coalesced.incrementAndGet();
+                return await(current);
+            }
+            if (!isExpired(current)) {
+                hits.incrementAndGet();
+                return await(current);
+            }
+            // Expired: only the caller that swaps in the new entry reloads
+            CachedStats fresh = new CachedStats();
+            if (cache.replace(ngoId, current, fresh)) {
+                return load(ngoId, fresh);
+            }
+        }
+    }
+
+    private Map<String, Object> load(Integer ngoId, CachedStats entry) {
+        misses.incrementAndGet();
+        long started = System.nanoTime();
+        try {
+            Map<String, Object> stats = Collections.unmodifiableMap(ngoService.getNgoStats(ngoId));
+            entry.loadedAtNanos = System.nanoTime();
+            entry.future.complete(stats);
+            return stats;
+        } catch (RuntimeException e) {
+            // Failures are handed to the waiting callers but never cached
+            loadFailures.incrementAndGet();
+            cache.remove(ngoId, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            totalLoadNanos.addAndGet(elapsed);
+            maxLoadNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private Map<String, Object> await(CachedStats entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isExpired(CachedStats entry) {
+        return System.nanoTime() - entry.loadedAtNanos > ttlNanos;
+    }
+
+    // After commit, so a reload can never pick up the pre-change figures again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatsChanged(NgoStatsChangedEvent event) {
+        invalidations.incrementAndGet();
+        if (event.ngoId() == null) {
+            cache.clear();
+        } else {
+            cache.remove(event.ngoId());
+        }
+    }
+
+    // Drop expired entries so NGOs nobody looks at any more do not stay in memory
+    @Scheduled(fixedDelayString = "${ngo.stats.cache-ttl-ms:30000}")
+    public void evictExpired() {
+        cache.entrySet().removeIf(e -> e.getValue().future.isDone() && isExpired(e.getValue()));
+    }
+
+    public Map<String, Object> getCacheStats() {
+        long hitCount = hits.get();
+        long coalescedCount = coalesced.get();
+        long missCount = misses.get();
+        long requests = hitCount + coalescedCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", cache.size());
+        stats.put("requests", requests);
+        stats.put("hits", hitCount);
+        stats.put("coalescedWaits", coalescedCount);
+        stats.put("loads", missCount);
+        // Coalesced waits did not run a load of their own, so they count towards the hit ratio
+        stats.put("hitRatio", requests > 0 ? (double) (hitCount + coalescedCount) / requests : 0.0);
+        stats.put("loadFailures", loadFailures.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("avgLoadMs", missCount > 0 ? totalLoadNanos.get() / missCount / 1_000_000.0 : 0.0);
+        stats.put("maxLoadMs", maxLoadNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
@@ -3,35 +3,58 @@ package com.example.Bright_Aid.service;
 import com.example.Bright_Aid.Entity.NgoStudentDonations;
 import com.example.Bright_Aid.Dto.NgoStudentDonationsDTO;
 import com.example.Bright_Aid.repository.NgoStudentDonationsRepository;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class NgoStudentDonationsService {
 
     private final NgoStudentDonationsRepository repository;
+    private final NgoGamificationService ngoGamificationService;
+    private final NgoImpactRollupService ngoImpactRollupService;
 
-    public NgoStudentDonationsService(NgoStudentDonationsRepository repository) {
+    public NgoStudentDonationsService(NgoStudentDonationsRepository repository,
+                                      NgoGamificationService ngoGamificationService,
+                                      NgoImpactRollupService ngoImpactRollupService) {
         this.repository = repository;
+        this.ngoGamificationService = ngoGamificationService;
+        this.ngoImpactRollupService = ngoImpactRollupService;
     }
 
     // ===================== CREATE =====================
+    @Transactional
     public NgoStudentDonationsDTO create(NgoStudentDonationsDTO dto) {
         NgoStudentDonations entity = mapToEntity(dto);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
+        ngoGamificationService.ensureCounters(entity.getNgoId());
 
         NgoStudentDonations saved = repository.save(entity);
+        if (isCounted(saved.getPaymentStatus())) {
+            ngoGamificationService.applyStudentDonation(saved.getNgoId(), saved.getStudentId(), saved.getAmount(), 1);
+        }
         return mapToDTO(saved);
     }
 
     // ===================== UPDATE =====================
+    @Transactional
     public NgoStudentDonationsDTO update(Integer id, NgoStudentDonationsDTO dto) {
         NgoStudentDonations entity = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Donation not found"));
+        boolean wasCounted = isCounted(entity.getPaymentStatus());
+        Integer oldNgoId = entity.getNgoId();
+        Integer oldStudentId = entity.getStudentId();
+        BigDecimal oldAmount = entity.getAmount();
+        LocalDateTime oldDonatedAt = entity.getDonatedAt();
+        ngoGamificationService.ensureCounters(oldNgoId);
+        ngoGamificationService.ensureCounters(dto.getNgoId());
 
         entity.setAmount(dto.getAmount());
         entity.setDonatedAt(dto.getDonatedAt());
@@ -45,7 +68,27 @@ public class NgoStudentDonationsService {
         entity.setTransactionId(dto.getTransactionId());
         entity.setUpdatedAt(LocalDateTime.now());
 
-        NgoStudentDonations updated = repository.save(entity);
+        NgoStudentDonations updated = repository.saveAndFlush(entity);
+
+        // Move the NGO impact counters: take the old values out and put the new ones in,
+        // unless nothing they depend on changed
+        boolean counted = isCounted(updated.getPaymentStatus());
+        boolean unchanged = wasCounted == counted
+                && Objects.equals(oldNgoId, updated.getNgoId())
+                && Objects.equals(oldStudentId, updated.getStudentId())
+                && oldAmount != null && updated.getAmount() != null && oldAmount.compareTo(updated.getAmount()) == 0;
+        if (!unchanged) {
+            if (wasCounted) {
+                ngoGamificationService.applyStudentDonation(oldNgoId, oldStudentId, oldAmount, -1);
+            }
+            if (counted) {
+                ngoGamificationService.applyStudentDonation(updated.getNgoId(), updated.getStudentId(), updated.getAmount(), 1);
+            }
+        }
+        // The rollup job only sees the row's new day; re-aggregate the day it left
+        if (!Objects.equals(oldNgoId, updated.getNgoId()) || !sameDay(oldDonatedAt, updated.getDonatedAt())) {
+            ngoImpactRollupService.refreshDay(oldNgoId, oldDonatedAt);
+        }
         return mapToDTO(updated);
     }
 
@@ -65,17 +108,35 @@ public class NgoStudentDonationsService {
     }
 
     // ===================== GET BY NGO ID =====================
-    public List<NgoStudentDonationsDTO> getByNgoId(Integer ngoId) {
-        return repository.findAll()
+    public List<NgoStudentDonationsDTO> getByNgoId(Integer ngoId, Integer page, Integer size) {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "donatedAt", "studentDonationId");
+        return repository.findByNgoId(ngoId, LookupPage.of(page, size, newestFirst))
                 .stream()
-                .filter(donation -> donation.getNgoId().equals(ngoId))
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
     // ===================== DELETE =====================
+    @Transactional
     public void delete(Integer id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(entity -> {
+            ngoGamificationService.ensureCounters(entity.getNgoId());
+            repository.delete(entity);
+            repository.flush();
+            ngoImpactRollupService.refreshDay(entity.getNgoId(), entity.getDonatedAt());
+            if (isCounted(entity.getPaymentStatus())) {
+                ngoGamificationService.applyStudentDonation(entity.getNgoId(), entity.getStudentId(), entity.getAmount(), -1);
+            }
+        });
+    }
+
+    private boolean sameDay(LocalDateTime a, LocalDateTime b) {
+        return a != null && b != null && a.toLocalDate().equals(b.toLocalDate());
+    }
+
+    // Rows without a status predate payment tracking and are treated as completed
+    private boolean isCounted(NgoStudentDonations.PaymentStatus status) {
+        return status == null || status == NgoStudentDonations.PaymentStatus.COMPLETED;
     }
 
     // ===================== MAPPER METHODS =====================
@@ -0,0 +1,72 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Entity.OutboxEvent;
+import com.example.Bright_Aid.Entity.PaymentTransaction;
+import com.example.Bright_Aid.event.PaymentCompletedEvent;
+import com.example.Bright_Aid.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Must run inside the caller's transaction so the event commits (or rolls back) with the status change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPaymentCompleted(PaymentTransaction transaction) {
+        Integer donorId = transaction.getDonor() != null ? transaction.getDonor().getDonorId() : null;
+        Integer ngoId = transaction.getNgo() != null ? transaction.getNgo().getNgoId() : null;
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("transactionId", transaction.getTransactionId());
+        payload.put("donorId", donorId);
+        payload.put("ngoId", ngoId);
+        // Amount kept as text so the JSON round-trip never loses precision
+        payload.put("amount", transaction.getAmount().toPlainString());
+
+        OutboxEvent saved = outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEvent.EventType.PAYMENT_COMPLETED)
+                .aggregateReference(transaction.getTransactionReference())
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        // Delivered to listeners only after commit (see PaymentEventDispatcher)
+        eventPublisher.publishEvent(toPaymentCompletedEvent(saved));
+    }
+
+    // Every transaction status change is recorded here; DonationReconciliationService drains
+    // these in batches and brings the linked donations rows in line. Recording the same change
+    // twice (redelivered callback) leaves a single event.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Integer transactionId, String transactionReference,
+                                   PaymentTransaction.TransactionStatus newStatus) {
+        outboxEventRepository.recordStatusChange(transactionId, transactionReference, newStatus.name());
+    }
+
+    public PaymentCompletedEvent toPaymentCompletedEvent(OutboxEvent event) {
+        Map<String, Object> payload = event.getPayload();
+        return new PaymentCompletedEvent(
+                event.getEventId(),
+                toInteger(payload.get("transactionId")),
+                event.getAggregateReference(),
+                toInteger(payload.get("donorId")),
+                toInteger(payload.get("ngoId")),
+                payload.get("amount") != null ? new BigDecimal(payload.get("amount").toString()) : BigDecimal.ZERO);
+    }
+
+    private Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+}
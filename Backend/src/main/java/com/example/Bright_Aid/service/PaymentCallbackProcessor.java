@@ -0,0 +1,97 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Entity.PaymentTransaction;
+import com.example.Bright_Aid.repository.ProcessedCallbackRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Front door for SSLCommerz success/fail/cancel/IPN callbacks.
+// SSLCommerz delivers the same tran_id several times, so each (reference, outcome) pair is applied
+// once: a bounded in-memory window answers hot replays with no query, the processed_callbacks
+// ledger answers older replays with one indexed lookup, and only the first delivery of each outcome
+// reaches PaymentTransactionService.updatePaymentStatus. Keying on the outcome lets a SUCCESS that
+// follows a recorded FAIL/CANCEL through, to override a sweeper expiry or be flagged for reconciliation.
+@Service
+@Slf4j
+public class PaymentCallbackProcessor {
+
+    private final PaymentTransactionService paymentTransactionService;
+    private final ProcessedCallbackRepository processedCallbackRepository;
+    private final Map<CallbackKey, Boolean> recentlyProcessed;
+
+    private record CallbackKey(String transactionReference, PaymentTransaction.TransactionStatus status) {
+    }
+
+    public PaymentCallbackProcessor(PaymentTransactionService paymentTransactionService,
+                                    ProcessedCallbackRepository processedCallbackRepository,
+                                    @Value("${payment.callback.dedup-window-size:10000}") int windowSize) {
+        this.paymentTransactionService = paymentTransactionService;
+        this.processedCallbackRepository = processedCallbackRepository;
+        // Access-ordered LinkedHashMap evicts the least recently seen callback once full
+        this.recentlyProcessed = Collections.synchronizedMap(
+                new LinkedHashMap<>(256, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<CallbackKey, Boolean> eldest) {
+                        return size() > windowSize;
+                    }
+                });
+    }
+
+    // Returns true only when this callback actually changed the transaction status
+    public boolean process(String transactionReference, String gatewayStatus,
+                           Map<String, String> params, String callbackSource) {
+        PaymentTransaction.TransactionStatus targetStatus = toTransactionStatus(gatewayStatus);
+        if (transactionReference == null || targetStatus == null) {
+            log.debug("Ignoring {} callback for {} with status {}", callbackSource, transactionReference, gatewayStatus);
+            return false;
+        }
+
+        CallbackKey key = new CallbackKey(transactionReference, targetStatus);
+        if (recentlyProcessed.containsKey(key)) {
+            log.debug("Duplicate {} callback for {} answered from memory", callbackSource, transactionReference);
+            return false;
+        }
+
+        if (processedCallbackRepository.existsByTransactionReferenceAndResultingStatus(transactionReference, targetStatus)) {
+            recentlyProcessed.put(key, Boolean.TRUE);
+            log.debug("Duplicate {} callback for {} answered from ledger", callbackSource, transactionReference);
+            return false;
+        }
+
+        try {
+            boolean applied = paymentTransactionService.updatePaymentStatus(
+                    transactionReference, targetStatus, params, callbackSource);
+            recentlyProcessed.put(key, Boolean.TRUE);
+            return applied;
+        } catch (DataIntegrityViolationException e) {
+            // Another callback with the same reference and outcome committed its ledger row first
+            recentlyProcessed.put(key, Boolean.TRUE);
+            log.info("Concurrent {} callback for {} lost the race, skipped", callbackSource, transactionReference);
+            return false;
+        }
+    }
+
+    // Map SSLCommerz status strings onto our transaction status; unknown values are ignored
+    private PaymentTransaction.TransactionStatus toTransactionStatus(String gatewayStatus) {
+        if (gatewayStatus == null) {
+            return null;
+        }
+        switch (gatewayStatus.toUpperCase()) {
+            case "VALID":
+            case "VALIDATED":
+                return PaymentTransaction.TransactionStatus.SUCCESS;
+            case "FAILED":
+                return PaymentTransaction.TransactionStatus.FAILED;
+            case "CANCELLED":
+                return PaymentTransaction.TransactionStatus.CANCELLED;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Entity.OutboxEvent;
+import com.example.Bright_Aid.event.PaymentCompletedEvent;
+import com.example.Bright_Aid.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+// Post-payment fan-out. The payment callback only persists the status row plus an outbox event;
+// this dispatcher runs the follow-up work (donor points)
+// on a bounded pool after commit, and re-drives anything still PENDING after a restart.
+@Service
+@Slf4j
+public class PaymentEventDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final DonorGamificationService donorGamificationService;
+    private final ThreadPoolTaskExecutor paymentEventExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    // Event ids currently queued or running, so the poller never double-submits them
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${payment.events.retry-after-ms:30000}")
+    private long retryAfterMs;
+
+    @Value("${payment.events.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${payment.events.poll-batch-size:100}")
+    private int pollBatchSize;
+
+    public PaymentEventDispatcher(OutboxEventRepository outboxEventRepository,
+                                  OutboxService outboxService,
+                                  DonorGamificationService donorGamificationService,
+                                  @Qualifier("paymentEventExecutor") ThreadPoolTaskExecutor paymentEventExecutor,
+                                  PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.donorGamificationService = donorGamificationService;
+        this.paymentEventExecutor = paymentEventExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Fired once the callback transaction has committed; never blocks the callback thread
+    @TransactionalEventListener
+    public void onPaymentCompleted(PaymentCompletedEvent event) {
+        submit(event.outboxEventId());
+    }
+
+    // Safety net: pick up events whose after-commit hand-off was lost (crash, restart or full queue)
+    @Scheduled(fixedDelayString = "${payment.events.poll-interval-ms:15000}")
+    public void redeliverPendingEvents() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(retryAfterMs * 1_000_000);
+        List<Long> pendingIds = outboxEventRepository.findStalePendingIds(
+                OutboxEvent.EventType.PAYMENT_COMPLETED.name(), before, pollBatchSize);
+        if (!pendingIds.isEmpty()) {
+            log.info("Re-driving {} pending payment events", pendingIds.size());
+        }
+        pendingIds.forEach(this::submit);
+    }
+
+    private void submit(Long eventId) {
+        if (!inFlight.add(eventId)) {
+            return;
+        }
+        try {
+            paymentEventExecutor.execute(() -> {
+                try {
+                    dispatch(eventId);
+                } finally {
+                    inFlight.remove(eventId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue is full: leave the row PENDING, the poller will retry it
+            inFlight.remove(eventId);
+            log.warn("Payment event queue full, event {} deferred to poller", eventId);
+        }
+    }
+
+    // Points and the PROCESSED mark share one transaction, so a retry never
+    // applies half an event. NGO impact counters move with the NGO donation rows themselves
+    // (see NgoGamificationService), so there is no NGO work left to do here.
+    private void dispatch(Long eventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OutboxEvent outboxEvent = outboxEventRepository.findById(eventId).orElse(null);
+                if (outboxEvent == null || outboxEventRepository.markProcessed(eventId) == 0) {
+                    return; // already handled by another worker
+                }
+                PaymentCompletedEvent event = outboxService.toPaymentCompletedEvent(outboxEvent);
+
+                if (event.donorId() != null) {
+                    donorGamificationService.awardPointsForDonation(event.donorId(), event.amount(), eventId);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Payment event {} failed: {}", eventId, e.getMessage());
+            String error = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage();
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.recordFailure(eventId, error, maxAttempts));
+        }
+    }
+}
@@ -1,37 +1,41 @@
 package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Entity.Donor;
-import com.example.Bright_Aid.Entity.DonorGamification;
 import com.example.Bright_Aid.Entity.Ngo;
 import com.example.Bright_Aid.Entity.PaymentTransaction;
+import com.example.Bright_Aid.Entity.ProcessedCallback;
 import com.example.Bright_Aid.Dto.PaymentTransactionDto;
-import com.example.Bright_Aid.repository.DonorGamificationRepository;
 import com.example.Bright_Aid.repository.DonorRepository;
 import com.example.Bright_Aid.repository.NgoRepository;
 import com.example.Bright_Aid.repository.PaymentTransactionRepository;
+import com.example.Bright_Aid.repository.ProcessedCallbackRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PaymentTransactionService {
 
     private final PaymentTransactionRepository paymentTransactionRepository;
     private final DonorRepository donorRepository;
     private final NgoRepository ngoRepository;
-    private final DonorGamificationRepository gamificationRepository;
+    private final SslCommerzGatewayClient sslCommerzGatewayClient;
+    private final ProcessedCallbackRepository processedCallbackRepository;
+    private final OutboxService outboxService;
     
     @Value("${sslcommerz.store.id}")
     private String storeId;
@@ -39,9 +43,6 @@ public class PaymentTransactionService {
     @Value("${sslcommerz.store.password}")
     private String storePassword;
     
-    @Value("${sslcommerz.sandbox.url}")
-    private String sandboxUrl;
-    
     @Value("${sslcommerz.success.url}")
     private String successUrl;
     
@@ -100,8 +101,10 @@ public class PaymentTransactionService {
     }
 
     // Update
+    @Transactional
     public PaymentTransactionDto update(Integer id, PaymentTransactionDto dto) {
         PaymentTransaction transaction = paymentTransactionRepository.findById(id).orElseThrow();
+        PaymentTransaction.TransactionStatus previousStatus = transaction.getStatus();
 
         transaction.setTransactionReference(dto.getTransactionReference());
         transaction.setAmount(dto.getAmount());
@@ -117,7 +120,11 @@ public class PaymentTransactionService {
         transaction.setInitiatedAt(dto.getInitiatedAt());
         transaction.setCompletedAt(dto.getCompletedAt());
 
-        return toDTO(paymentTransactionRepository.save(transaction));
+        PaymentTransaction saved = paymentTransactionRepository.save(transaction);
+        if (saved.getStatus() != null && saved.getStatus() != previousStatus) {
+            outboxService.recordStatusChange(saved.getTransactionId(), saved.getTransactionReference(), saved.getStatus());
+        }
+        return toDTO(saved);
     }
 
     // Delete
@@ -148,16 +155,20 @@ public class PaymentTransactionService {
     }
     
     // SSLCommerz Integration Methods
-    public Map<String, Object> initiateSSLCommerzPayment(Integer donorId, BigDecimal amount, 
-                                                        String productName, String productCategory) {
+    // Persists the PENDING row on the request thread, then hands the gateway round-trip to the
+    // pooled gateway client so the servlet thread is released while SSLCommerz responds
+    public CompletableFuture<Map<String, Object>> initiateSSLCommerzPayment(Integer donorId, BigDecimal amount,
+                                                                           String productName, String productCategory) {
+        final PaymentTransaction savedTransaction;
+        final MultiValueMap<String, String> params;
         try {
-            System.out.println("Initiating payment for donorId: " + donorId);
+            log.info("Initiating payment for donorId: {}", donorId);
             
             Donor donor = donorRepository.findById(donorId)
                     .orElseThrow(() -> new RuntimeException("Donor not found with ID: " + donorId));
             String transactionRef = "TXN_" + UUID.randomUUID().toString().substring(0, 8);
-            System.out.println("Generated transaction reference: " + transactionRef);
-            System.out.println("Donor found: " + donor.getDonorName());
+            String customerEmail = donor.getUser().getEmail();
+            String customerPhone = donor.getUser().getUserProfile() != null ? donor.getUser().getUserProfile().getPhone() : null;
             
             // Create transaction record
             PaymentTransaction transaction = PaymentTransaction.builder()
@@ -169,19 +180,19 @@ public class PaymentTransactionService {
                     .paymentMethod(PaymentTransaction.PaymentMethod.CARD)
                     .status(PaymentTransaction.TransactionStatus.PENDING)
                     .customerName(donor.getDonorName())
-                    .customerEmail(donor.getUser().getEmail())
-                    .customerPhone(donor.getUser().getUserProfile() != null ? donor.getUser().getUserProfile().getPhone() : null)
+                    .customerEmail(customerEmail)
+                    .customerPhone(customerPhone)
                     .productName(productName)
                     .productCategory(productCategory != null ? productCategory : "Donation")
                     .sessionKey("") // Initialize with empty string to avoid null constraint
                     .initiatedAt(LocalDateTime.now())
                     .build();
             
-            PaymentTransaction savedTransaction = paymentTransactionRepository.save(transaction);
-            System.out.println("Transaction saved with ID: " + savedTransaction.getTransactionId());
+            savedTransaction = paymentTransactionRepository.save(transaction);
+            log.info("Transaction {} saved with ID: {}", transactionRef, savedTransaction.getTransactionId());
             
-            // Prepare SSLCommerz request
-            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+            // Prepare SSLCommerz request (built here so the async stage never touches lazy entities)
+            params = new LinkedMultiValueMap<>();
             params.add("store_id", storeId);
             params.add("store_passwd", storePassword);
             params.add("total_amount", amount.toString());
@@ -192,164 +203,124 @@ public class PaymentTransactionService {
             params.add("cancel_url", cancelUrl);
             params.add("ipn_url", ipnUrl);
             params.add("cus_name", donor.getDonorName());
-            params.add("cus_email", donor.getUser().getEmail());
+            params.add("cus_email", customerEmail);
             params.add("cus_add1", "Dhaka");
             params.add("cus_city", "Dhaka");
             params.add("cus_country", "Bangladesh");
-            params.add("cus_phone", donor.getUser().getUserProfile() != null && donor.getUser().getUserProfile().getPhone() != null ? donor.getUser().getUserProfile().getPhone() : "01700000000");
+            params.add("cus_phone", customerPhone != null ? customerPhone : "01700000000");
             params.add("product_name", productName);
             params.add("product_category", productCategory != null ? productCategory : "Donation");
             params.add("product_profile", "general");
             params.add("shipping_method", "NO");
             params.add("num_of_item", "1");
             params.add("product_amount", amount.toString());
-            
-            // Call SSLCommerz API
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            
-            HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(params, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(sandboxUrl, entity, Map.class);
-            
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> responseBody = response.getBody();
-                String status = (String) responseBody.get("status");
-                
-                if ("SUCCESS".equals(status)) {
-                    String sessionKey = (String) responseBody.get("sessionkey");
-                    String gatewayPageURL = (String) responseBody.get("GatewayPageURL");
-                    
-                    // Update transaction with session key
-                    savedTransaction.setSessionKey(sessionKey);
-                    paymentTransactionRepository.save(savedTransaction);
+        } catch (Exception e) {
+            log.error("Payment initiation error: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(Map.of(
+                "status", "ERROR",
+                "message", "Error initiating payment: " + e.getMessage()
+            ));
+        }
+
+        Integer transactionId = savedTransaction.getTransactionId();
+        String transactionRef = savedTransaction.getTransactionReference();
+
+        // Call SSLCommerz API through the shared, pooled client
+        return sslCommerzGatewayClient.initiateSession(params)
+                .thenApply(responseBody -> {
+                    String status = (String) responseBody.get("status");
                     
-                    return Map.of(
-                        "status", "SUCCESS",
-                        "message", "Payment initiated successfully",
-                        "paymentUrl", gatewayPageURL,
-                        "transactionId", savedTransaction.getTransactionId(),
-                        "transactionReference", transactionRef,
-                        "sessionKey", sessionKey
-                    );
-                } else {
+                    if ("SUCCESS".equals(status)) {
+                        String sessionKey = (String) responseBody.get("sessionkey");
+                        String gatewayPageURL = (String) responseBody.get("GatewayPageURL");
+                        
+                        // Single-column update instead of re-saving the whole entity
+                        paymentTransactionRepository.updateSessionKey(transactionId, sessionKey);
+                        
+                        return Map.<String, Object>of(
+                            "status", "SUCCESS",
+                            "message", "Payment initiated successfully",
+                            "paymentUrl", gatewayPageURL,
+                            "transactionId", transactionId,
+                            "transactionReference", transactionRef,
+                            "sessionKey", sessionKey
+                        );
+                    }
+
                     // Return SSLCommerz error details
                     String failedReason = (String) responseBody.get("failedreason");
-                    return Map.of(
+                    return Map.<String, Object>of(
                         "status", "FAILED",
                         "message", "SSLCommerz Error: " + (failedReason != null ? failedReason : "Unknown error"),
-                        "transactionId", savedTransaction.getTransactionId(),
+                        "transactionId", transactionId,
                         "sslcommerzResponse", responseBody
                     );
-                }
-            }
-            
-            return Map.of(
-                "status", "FAILED",
-                "message", "No response from SSLCommerz or HTTP error: " + response.getStatusCode(),
-                "transactionId", savedTransaction.getTransactionId()
-            );
-            
-        } catch (Exception e) {
-            System.err.println("Payment initiation error: " + e.getMessage());
-            e.printStackTrace();
-            return Map.of(
-                "status", "ERROR",
-                "message", "Error initiating payment: " + e.getMessage()
-            );
-        }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.error("SSLCommerz call failed for {}: {}", transactionRef, cause.getMessage());
+                    return Map.of(
+                        "status", "FAILED",
+                        "message", "No response from SSLCommerz: " + cause.getMessage(),
+                        "transactionId", transactionId
+                    );
+                });
     }
     
     public PaymentTransaction getByTransactionReference(String transactionReference) {
         return paymentTransactionRepository.findByTransactionReference(transactionReference).orElse(null);
     }
     
-    public void updatePaymentStatus(String transactionReference, String status, Map<String, String> additionalData) {
-        PaymentTransaction transaction = paymentTransactionRepository.findByTransactionReference(transactionReference).orElse(null);
-        if (transaction != null) {
-            switch (status.toUpperCase()) {
-                case "VALID":
-                case "VALIDATED":
-                    transaction.setStatus(PaymentTransaction.TransactionStatus.SUCCESS);
-                    transaction.setCompletedAt(LocalDateTime.now());
-                    // Award points for successful payment
-                    if (transaction.getDonor() != null) {
-                        awardPointsForDonation(transaction.getDonor(), transaction.getAmount());
-                    }
-                    break;
-                case "FAILED":
-                    transaction.setStatus(PaymentTransaction.TransactionStatus.FAILED);
-                    break;
-                case "CANCELLED":
-                    transaction.setStatus(PaymentTransaction.TransactionStatus.CANCELLED);
-                    break;
-            }
-            
-            if (additionalData != null) {
-                transaction.setBankTransactionId(additionalData.get("bank_tran_id"));
-                transaction.setCardType(additionalData.get("card_type"));
-                transaction.setCardNo(additionalData.get("card_no"));
-                transaction.setGatewayResponseCode(additionalData.get("status"));
-                transaction.setGatewayResponseMessage(additionalData.get("risk_title"));
+    // Apply a callback's status to the transaction exactly once.
+    // The PENDING -> final move is a conditional UPDATE, so concurrent or replayed callbacks
+    // cannot award points twice; the ledger row lets later replays short-circuit on one lookup.
+    @Transactional
+    public boolean updatePaymentStatus(String transactionReference, PaymentTransaction.TransactionStatus status,
+                                       Map<String, String> additionalData, String callbackSource) {
+        Map<String, String> data = additionalData != null ? additionalData : Map.of();
+
+        int updated = paymentTransactionRepository.transitionFromPending(
+                transactionReference,
+                status.name(),
+                data.get("bank_tran_id"),
+                data.get("card_type"),
+                data.get("card_no"),
+                data.get("status"),
+                data.get("risk_title"),
+                StalePaymentSweeper.EXPIRY_REASON);
+
+        if (updated == 0 && !paymentTransactionRepository.existsByTransactionReference(transactionReference)) {
+            log.warn("Callback for unknown transaction reference {}", transactionReference);
+            return false;
+        }
+
+        // uk_processed_callback_status rejects a racing duplicate of the same outcome and rolls this call back
+        processedCallbackRepository.saveAndFlush(ProcessedCallback.builder()
+                .transactionReference(transactionReference)
+                .resultingStatus(status)
+                .callbackSource(callbackSource)
+                .processedAt(LocalDateTime.now())
+                .build());
+
+        if (updated == 0) {
+            if (status == PaymentTransaction.TransactionStatus.SUCCESS) {
+                // Paid at the gateway but finalised as failed/cancelled here: needs a manual look
+                log.warn("SUCCESS callback for already finalised transaction {} needs reconciliation", transactionReference);
+            } else {
+                log.info("Transaction {} was already finalised, callback recorded only", transactionReference);
             }
-            
-            paymentTransactionRepository.save(transaction);
+            return false;
         }
-    }
-    
-    // Automatic Point System: 1 BDT = 5 Points (৳100 = 500 points)
-    private void awardPointsForDonation(Donor donor, BigDecimal amount) {
-        try {
-            // Convert to int first, then multiply by 5 for exact calculation
-            int pointsToAward = amount.intValue() * 5;
-            
-            DonorGamification gamification = gamificationRepository.findByDonorDonorId(donor.getDonorId())
-                    .orElse(DonorGamification.builder()
-                            .donor(donor)
-                            .totalPoints(0)
-                            .impactScore(0.0)
-                            .lastUpdated(LocalDateTime.now())
-                            .build());
-            
-            // Add new points
-            gamification.setTotalPoints(gamification.getTotalPoints() + pointsToAward);
-            
-            // Update level based on total points
-          
-            
-            // Update badges
-            List<String> badges = calculateBadges(gamification.getTotalPoints());
-            gamification.setBadgesEarned(badges);
-            
-            gamification.setLastUpdated(LocalDateTime.now());
-            
-            gamificationRepository.save(gamification);
-            
-        } catch (Exception e) {
-            // Log error but don't fail payment
-            System.err.println("Error awarding points: " + e.getMessage());
+
+        PaymentTransaction transaction = paymentTransactionRepository.findByTransactionReference(transactionReference)
+                .orElseThrow();
+        // Linked donations follow the transaction through the reconciliation drain
+        outboxService.recordStatusChange(transaction.getTransactionId(), transactionReference, status);
+        if (status == PaymentTransaction.TransactionStatus.SUCCESS) {
+            // Points and NGO refresh run after commit off the outbox,
+            // so the callback returns as soon as the status row is persisted
+            outboxService.recordPaymentCompleted(transaction);
         }
+        return true;
     }
-    
-    private String calculateLevel(int totalPoints) {
-        if (totalPoints >= 50000) return "Diamond";      // ৳10,000+
-        if (totalPoints >= 25000) return "Platinum";     // ৳5,000+
-        if (totalPoints >= 10000) return "Gold";         // ৳2,000+ 
-        if (totalPoints >= 2500) return "Silver";        // ৳500+
-        return "Bronze";                                  // < ৳500
-    }
-    
-    private List<String> calculateBadges(int totalPoints) {
-        List<String> badges = new java.util.ArrayList<>();
-        
-        if (totalPoints >= 500) badges.add("First Donor");        // ৳100
-        if (totalPoints >= 2500) badges.add("Generous Heart");    // ৳500
-        if (totalPoints >= 5000) badges.add("Education Champion"); // ৳1,000
-        if (totalPoints >= 10000) badges.add("School Builder");   // ৳2,000
-        if (totalPoints >= 25000) badges.add("Community Hero");   // ৳5,000
-        if (totalPoints >= 50000) badges.add("BrightAid Legend"); // ৳10,000
-        
-        return badges;
-    }
-   
-}
\ No newline at end of file
+}
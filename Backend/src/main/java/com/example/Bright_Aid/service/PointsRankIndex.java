@@ -0,0 +1,166 @@
+package com.example.Bright_Aid.service;
+
+// Counts donors per points value so a rank is one walk down a balanced tree, never a scan.
+// A size-augmented AVL tree keyed by the distinct points values: each node holds how many donors
+// have exactly those points and how many donors its subtree holds, so countAbove is O(log distinct
+// values). Memory follows the number of distinct values, never the size of the largest one, so an
+// outlier total costs one node. Donors tied on points (common, since points are amount x 5) share a node.
+// Negative points count as 0. Not thread-safe; DonorLeaderboardService guards it with its lock.
+final class PointsRankIndex {
+
+    private static final class Node {
+        final int points;
+        long count;
+        long total;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(int points) {
+            this.points = points;
+        }
+    }
+
+    private Node root;
+
+    void add(int points) {
+        root = insert(root, Math.max(0, points));
+    }
+
+    // Removing a value that was never added is ignored
+    void remove(int points) {
+        root = delete(root, Math.max(0, points));
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    long size() {
+        return total(root);
+    }
+
+    // Donors with strictly more points than the given value
+    long countAbove(int points) {
+        int value = Math.max(0, points);
+        long above = 0;
+        Node node = root;
+        while (node != null) {
+            if (value < node.points) {
+                above += node.count + total(node.right);
+                node = node.left;
+            } else if (value > node.points) {
+                node = node.right;
+            } else {
+                return above + total(node.right);
+            }
+        }
+        return above;
+    }
+
+    private static Node insert(Node node, int points) {
+        if (node == null) {
+            Node created = new Node(points);
+            created.count = 1;
+            created.total = 1;
+            return created;
+        }
+        if (points < node.points) {
+            node.left = insert(node.left, points);
+        } else if (points > node.points) {
+            node.right = insert(node.right, points);
+        } else {
+            node.count++;
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, int points) {
+        if (node == null) {
+            return null;
+        }
+        if (points < node.points) {
+            node.left = delete(node.left, points);
+        } else if (points > node.points) {
+            node.right = delete(node.right, points);
+        } else if (--node.count == 0) {
+            // Last donor with these points: unlink the node, its in-order successor takes its place
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.total = node.count + total(node.left) + total(node.right);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static long total(Node node) {
+        return node == null ? 0 : node.total;
+    }
+
+    // Tree height, for tests: stays within the AVL bound of about 1.44 log2(distinct values)
+    int height() {
+        return height(root);
+    }
+}
@@ -2,16 +2,22 @@ package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Dto.ProjectTypeDto;
 import com.example.Bright_Aid.Entity.ProjectType;
+import com.example.Bright_Aid.event.ReferenceDataChangedEvent;
 import com.example.Bright_Aid.repository.ProjectTypeRepository;
+import com.example.Bright_Aid.repository.projection.ProjectTypeProjectView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +27,7 @@ import java.util.stream.Collectors;
 public class ProjectTypeService {
 
     private final ProjectTypeRepository projectTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProjectTypeDto createProjectType(ProjectTypeDto projectTypeDto) {
@@ -35,6 +42,7 @@ public class ProjectTypeService {
 
         ProjectType savedProjectType = projectTypeRepository.save(projectType);
         log.info("Successfully created project type with ID: {}", savedProjectType.getProjectTypeId());
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataCache.PROJECT_TYPES));
 
         return convertToDto(savedProjectType);
     }
@@ -48,12 +56,19 @@ public class ProjectTypeService {
         return convertToDto(projectType);
     }
 
+    // Loads the ReferenceDataCache snapshot: two queries, whatever the number of types and projects
     public List<ProjectTypeDto> getAllProjectTypes() {
         log.info("Fetching all project types");
 
-        List<ProjectType> projectTypes = projectTypeRepository.findAll();
+        Map<Integer, List<Integer>> projectIdsByType = new HashMap<>();
+        for (ProjectTypeProjectView row : projectTypeRepository.findProjectIdsByType()) {
+            projectIdsByType.computeIfAbsent(row.getProjectTypeId(), id -> new ArrayList<>()).add(row.getProjectId());
+        }
+
+        List<ProjectType> projectTypes = projectTypeRepository.findAll(Sort.by("projectTypeId"));
         return projectTypes.stream()
-                .map(this::convertToDto)
+                .map(projectType -> convertToDto(projectType,
+                        projectIdsByType.getOrDefault(projectType.getProjectTypeId(), new ArrayList<>())))
                 .collect(Collectors.toList());
     }
 
@@ -86,6 +101,7 @@ public class ProjectTypeService {
 
         ProjectType updatedProjectType = projectTypeRepository.save(existingProjectType);
         log.info("Successfully updated project type with ID: {}", projectTypeId);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataCache.PROJECT_TYPES));
 
         return convertToDto(updatedProjectType);
     }
@@ -99,6 +115,7 @@ public class ProjectTypeService {
 
         projectTypeRepository.deleteById(projectTypeId);
         log.info("Successfully deleted project type with ID: {}", projectTypeId);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataCache.PROJECT_TYPES));
     }
 
     private ProjectTypeDto convertToDto(ProjectType projectType) {
@@ -110,6 +127,10 @@ public class ProjectTypeService {
                     .collect(Collectors.toList());
         }
 
+        return convertToDto(projectType, projectIds);
+    }
+
+    private ProjectTypeDto convertToDto(ProjectType projectType, List<Integer> projectIds) {
         return ProjectTypeDto.builder()
                 .projectTypeId(projectType.getProjectTypeId())
                 .typeName(projectType.getTypeName())
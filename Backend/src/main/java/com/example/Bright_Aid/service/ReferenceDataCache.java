@@ -0,0 +1,181 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.DistrictDto;
+import com.example.Bright_Aid.Dto.DivisionDto;
+import com.example.Bright_Aid.Dto.ProjectTypeDto;
+import com.example.Bright_Aid.Dto.UpazilaDto;
+import com.example.Bright_Aid.Entity.*;
+import com.example.Bright_Aid.event.ReferenceDataChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Reference data behind the dropdowns of every form: project types, the geo lists and enum values.
+// Each data set is held as a snapshot of the response body plus a strong ETag (hash of its JSON), so
+// controllers answer a matching If-None-Match with 304 and no body, and a full response without a query.
+// Project types are dropped on ReferenceDataChangedEvent and reloaded on the next read; the geo lists
+// follow the GeoTreeCache version; the enum values never change at runtime.
+@Service
+@Slf4j
+public class ReferenceDataCache {
+
+    public static final String PROJECT_TYPES = "project-types";
+
+    private static final String DIVISIONS = "divisions";
+    private static final String DISTRICTS = "districts";
+    private static final String UPAZILAS = "upazilas";
+
+    private final ProjectTypeService projectTypeService;
+    private final DivisionService divisionService;
+    private final DistrictService districtService;
+    private final UpazilaService upazilaService;
+    private final GeoTreeCache geoTreeCache;
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+
+    // Keyed by data set; version is the GeoTreeCache version for the geo lists, 0 otherwise
+    private final ConcurrentHashMap<String, Snapshot<?>> snapshots = new ConcurrentHashMap<>();
+    // Bumped by every invalidation of a data set, so a load that started before one is never stored
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Snapshot<Map<String, List<String>>> enums;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public record Snapshot<T>(T body, String etag, long version) {
+    }
+
+    public ReferenceDataCache(ProjectTypeService projectTypeService,
+                              DivisionService divisionService,
+                              DistrictService districtService,
+                              UpazilaService upazilaService,
+                              GeoTreeCache geoTreeCache,
+                              ObjectMapper objectMapper,
+                              @Value("${reference.cache.max-age-seconds:60}") long maxAgeSeconds) {
+        this.projectTypeService = projectTypeService;
+        this.divisionService = divisionService;
+        this.districtService = districtService;
+        this.upazilaService = upazilaService;
+        this.geoTreeCache = geoTreeCache;
+        this.objectMapper = objectMapper;
+        // Browsers reuse a response for max-age, then revalidate with If-None-Match
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).mustRevalidate();
+        this.enums = snapshot(enumValues(), 0);
+    }
+
+    public CacheControl getCacheControl() {
+        return cacheControl;
+    }
+
+    public Snapshot<List<ProjectTypeDto>> getProjectTypes() {
+        return get(PROJECT_TYPES, 0, () -> List.copyOf(projectTypeService.getAllProjectTypes()));
+    }
+
+    public Snapshot<List<DivisionDto>> getDivisions() {
+        return get(DIVISIONS, geoTreeCache.getVersion(), () -> List.copyOf(divisionService.getAllDivisions()));
+    }
+
+    public Snapshot<List<DistrictDto>> getDistricts() {
+        return get(DISTRICTS, geoTreeCache.getVersion(), () -> List.copyOf(districtService.getAllDistricts()));
+    }
+
+    public Snapshot<List<UpazilaDto>> getUpazilas() {
+        return get(UPAZILAS, geoTreeCache.getVersion(), () -> List.copyOf(upazilaService.getAllUpazilas()));
+    }
+
+    public Snapshot<Map<String, List<String>>> getEnums() {
+        return enums;
+    }
+
+    // A concurrent miss may load twice; both results are equal, so the last one in simply wins.
+    // A load that overlapped an invalidation may hold the old rows: it is returned to its caller but
+    // not stored, so the next read loads again. The check and the store share the key's compute lock
+    // with onReferenceDataChanged, so an invalidation cannot slip in between them.
+    @SuppressWarnings("unchecked")
+    private <T> Snapshot<T> get(String dataset, long version, Supplier<T> loader) {
+        Snapshot<?> current = snapshots.get(dataset);
+        if (current != null && current.version() == version) {
+            return (Snapshot<T>) current;
+        }
+        long generation = generation(dataset).get();
+        Snapshot<T> fresh = snapshot(loader.get(), version);
+        snapshots.compute(dataset, (key, existing) ->
+                generation(key).get() == generation ? fresh : existing);
+        loads.incrementAndGet();
+        return fresh;
+    }
+
+    private AtomicLong generation(String dataset) {
+        return generations.computeIfAbsent(dataset, key -> new AtomicLong());
+    }
+
+    private <T> Snapshot<T> snapshot(T body, long version) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return new Snapshot<>(body, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"", version);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint reference data", e);
+        }
+    }
+
+    // After commit, so the reload can never pick up the pre-change rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        invalidations.incrementAndGet();
+        snapshots.compute(event.dataset(), (key, existing) -> {
+            generation(key).incrementAndGet();
+            return null;
+        });
+    }
+
+    // Values of the enums the forms offer as choices
+    private static Map<String, List<String>> enumValues() {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        put(values, "schoolType", School.SchoolType.class);
+        put(values, "schoolStatus", School.SchoolStatus.class);
+        put(values, "schoolVerificationStatus", School.VerificationStatus.class);
+        put(values, "ngoVerificationStatus", Ngo.VerificationStatus.class);
+        put(values, "userType", User.UserType.class);
+        put(values, "gender", Student.Gender.class);
+        put(values, "classLevel", Student.ClassLevel.class);
+        put(values, "donationType", Donation.DonationType.class);
+        put(values, "donationPurpose", Donation.DonationPurpose.class);
+        put(values, "paymentMethod", PaymentTransaction.PaymentMethod.class);
+        put(values, "ngoProjectStatus", NgoProject.ProjectStatus.class);
+        put(values, "participationStatus", NgoProjectSchool.ParticipationStatus.class);
+        put(values, "projectRequestType", NgoProjectRequests.RequestType.class);
+        put(values, "projectRequestStatus", NgoProjectRequests.RequestStatus.class);
+        put(values, "schoolDocumentType", SchoolDocument.DocumentType.class);
+        put(values, "utilizationStatus", FundUtilization.UtilizationStatus.class);
+        put(values, "dropoutRiskStatus", DropoutPrediction.RiskStatus.class);
+        return Collections.unmodifiableMap(values);
+    }
+
+    private static void put(Map<String, List<String>> values, String key, Class<? extends Enum<?>> type) {
+        values.put(key, Arrays.stream(type.getEnumConstants()).map(Enum::name).toList());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, String> etags = new TreeMap<>();
+        snapshots.forEach((dataset, snapshot) -> etags.put(dataset, snapshot.etag()));
+        etags.put("enums", enums.etag());
+        stats.put("etags", etags);
+        stats.put("loads", loads.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("geoTreeVersion", geoTreeCache.getVersion());
+        return stats;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.repository.DonorSchoolReachRepository;
+import com.example.Bright_Aid.repository.SchoolDonationLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Keeps school_donation_ledger in step with donations.
+// Donation writes call refresh/remove inside their own transaction, so the ledger commits with
+// the donation. A chunked rebuild fills the table on first start and runs nightly to pick up
+// label drift (renamed students, projects or donors) that no donation write touches.
+// donor_school_reach is derived from the ledger the same way: every write re-derives the pairs of
+// the donors it touched in place (upsert, then delete pairs left without a donation), and the
+// rebuild redoes all of them.
+@Service
+@Slf4j
+public class SchoolDonationLedgerService {
+
+    private final SchoolDonationLedgerRepository ledgerRepository;
+    private final DonorSchoolReachRepository reachRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${school.ledger.rebuild-chunk-size:5000}")
+    private int rebuildChunkSize;
+
+    public SchoolDonationLedgerService(SchoolDonationLedgerRepository ledgerRepository,
+                                       DonorSchoolReachRepository reachRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.ledgerRepository = ledgerRepository;
+        this.reachRepository = reachRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Re-derive the ledger rows of these donations (also drops rows that no longer reach a school)
+    @Transactional
+    public void refresh(Collection<Integer> donationIds) {
+        if (donationIds.isEmpty()) {
+            return;
+        }
+        // Donors before and after the refresh: a donation can change donor or stop reaching a school
+        Set<Integer> donorIds = new LinkedHashSet<>(ledgerRepository.findDonorIdsByDonationIds(donationIds));
+        ledgerRepository.deleteByDonationIds(donationIds);
+        ledgerRepository.insertForDonations(donationIds);
+        donorIds.addAll(ledgerRepository.findDonorIdsByDonationIds(donationIds));
+        refreshReach(donorIds);
+    }
+
+    @Transactional
+    public void remove(Integer donationId) {
+        List<Integer> donorIds = ledgerRepository.findDonorIdsByDonationIds(List.of(donationId));
+        ledgerRepository.deleteByDonationIds(List.of(donationId));
+        refreshReach(donorIds);
+    }
+
+    @Transactional
+    public void syncPaymentStatusForTransactions(Collection<Integer> transactionIds) {
+        if (!transactionIds.isEmpty()) {
+            ledgerRepository.syncPaymentStatusByTransactionIds(transactionIds);
+            refreshReach(ledgerRepository.findDonorIdsByTransactionIds(transactionIds));
+        }
+    }
+
+    private void refreshReach(Collection<Integer> donorIds) {
+        if (donorIds.isEmpty()) {
+            return;
+        }
+        // Upsert, then drop only the pairs that lost their last donation: no delete+insert of the
+        // donor's whole range, whose gap locks deadlocked concurrent donations of the same donor
+        reachRepository.upsertForDonors(donorIds);
+        List<Long> stale = reachRepository.findStaleReachIds(donorIds);
+        if (!stale.isEmpty()) {
+            reachRepository.deleteByReachIds(stale);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (ledgerRepository.count() == 0) {
+            rebuild();
+        } else if (reachRepository.count() == 0) {
+            rebuildReach();
+        }
+    }
+
+    // Walks donations by primary key so each chunk is a short transaction on an index range
+    @Scheduled(cron = "${school.ledger.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        int maxId = ledgerRepository.findMaxDonationId();
+        int rows = 0;
+        for (int fromId = 1; fromId <= maxId; fromId += rebuildChunkSize) {
+            int from = fromId;
+            int to = fromId + rebuildChunkSize - 1;
+            Integer inserted = transactionTemplate.execute(status -> {
+                ledgerRepository.deleteRange(from, to);
+                return ledgerRepository.insertRange(from, to);
+            });
+            rows += inserted != null ? inserted : 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> ledgerRepository.deleteRange(maxId + 1, Integer.MAX_VALUE));
+        log.info("School donation ledger rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - started);
+        rebuildReach();
+    }
+
+    private void rebuildReach() {
+        long started = System.currentTimeMillis();
+        int maxDonorId = reachRepository.findMaxDonorId();
+        int rows = 0;
+        for (int fromId = 1; fromId <= maxDonorId; fromId += rebuildChunkSize) {
+            int from = fromId;
+            int to = fromId + rebuildChunkSize - 1;
+            Integer inserted = transactionTemplate.execute(status -> {
+                reachRepository.deleteDonorRange(from, to);
+                return reachRepository.insertDonorRange(from, to);
+            });
+            rows += inserted != null ? inserted : 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> reachRepository.deleteDonorRange(maxDonorId + 1, Integer.MAX_VALUE));
+        log.info("Donor school reach rebuilt: {} pairs in {} ms", rows, System.currentTimeMillis() - started);
+    }
+}
@@ -2,28 +2,42 @@ package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Entity.*;
 import com.example.Bright_Aid.Dto.SchoolProjectDto;
+import com.example.Bright_Aid.event.NgoStatsChangedEvent;
+import com.example.Bright_Aid.event.ReferenceDataChangedEvent;
 import com.example.Bright_Aid.repository.*;
+import com.example.Bright_Aid.repository.projection.ProjectProgressView;
+import com.example.Bright_Aid.repository.projection.ProjectRaisedView;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.annotation.PostConstruct;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @Transactional
 public class SchoolProjectService {
 
+    // Keeps the IN lists of the bulk enrichment queries to a sensible size
+    private static final int ENRICH_CHUNK_SIZE = 1000;
+
     private final SchoolProjectRepository schoolProjectRepository;
     private final SchoolRepository schoolRepository;
     private final ProjectTypeRepository projectTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SchoolProjectService(SchoolProjectRepository schoolProjectRepository,
                                 SchoolRepository schoolRepository,
-                                ProjectTypeRepository projectTypeRepository) {
+                                ProjectTypeRepository projectTypeRepository,
+                                ApplicationEventPublisher eventPublisher) {
         this.schoolProjectRepository = schoolProjectRepository;
         this.schoolRepository = schoolRepository;
         this.projectTypeRepository = projectTypeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @PostConstruct
@@ -50,6 +64,7 @@ public class SchoolProjectService {
                     System.out.println("Created project type: " + saved.getTypeName() + " with ID: " + saved.getProjectTypeId());
                 }
                 System.out.println("Successfully initialized " + defaultTypes.length + " project types");
+                eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataCache.PROJECT_TYPES));
             } else {
                 System.out.println("Project types already exist, skipping initialization");
             }
@@ -64,9 +79,6 @@ public class SchoolProjectService {
         School school = schoolRepository.findById(schoolProjectDto.getSchoolId())
                 .orElseThrow(() -> new RuntimeException("School not found"));
 
-            // Ensure project types are initialized
-        initializeProjectTypes();
-        
         ProjectType projectType = projectTypeRepository.findById(schoolProjectDto.getProjectTypeId())
                 .orElseThrow(() -> new RuntimeException("Project type not found with ID: " + schoolProjectDto.getProjectTypeId()));
 
@@ -80,14 +92,14 @@ public class SchoolProjectService {
                 .build();
 
         SchoolProject saved = schoolProjectRepository.save(schoolProject);
-        return mapToDto(saved);
+        // Every NGO stats page shows the global project count
+        eventPublisher.publishEvent(new NgoStatsChangedEvent(null));
+        return mapToDtos(List.of(saved)).get(0);
     }
 
     // Get all school projects
     public List<SchoolProjectDto> getAllSchoolProjects() {
-        return schoolProjectRepository.findAllWithProjectType().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(schoolProjectRepository.findAllWithProjectType());
     }
 
     // Get school project by ID
@@ -96,7 +108,7 @@ public class SchoolProjectService {
         if (project == null) {
             throw new RuntimeException("School project not found");
         }
-        return mapToDto(project);
+        return mapToDtos(List.of(project)).get(0);
     }
 
     // Delete school project
@@ -105,12 +117,7 @@ public class SchoolProjectService {
             throw new RuntimeException("School project not found");
         }
         schoolProjectRepository.deleteById(projectId);
-    }
-    
-    // Get all project types for dropdown
-    public List<ProjectType> getAllProjectTypes() {
-        initializeProjectTypes();
-        return projectTypeRepository.findAll();
+        eventPublisher.publishEvent(new NgoStatsChangedEvent(null));
     }
     
     // Get project completion rate
@@ -119,11 +126,32 @@ public class SchoolProjectService {
         return completionRate != null ? completionRate.intValue() : 0;
     }
 
-    // Map SchoolProject entity to DTO
-    private SchoolProjectDto mapToDto(SchoolProject schoolProject) {
-        java.math.BigDecimal raisedAmount = schoolProjectRepository.getTotalRaisedAmount(schoolProject.getProjectId());
-        Double completionRate = schoolProjectRepository.getLatestCompletionRate(schoolProject.getProjectId());
-        
+    // Map SchoolProject entities to DTOs. Raised amounts and latest progress are loaded for all
+    // projects at once (two grouped queries per chunk) and merged in memory, instead of two
+    // queries per project.
+    private List<SchoolProjectDto> mapToDtos(List<SchoolProject> projects) {
+        Map<Integer, BigDecimal> raisedByProject = new HashMap<>();
+        Map<Integer, Double> progressByProject = new HashMap<>();
+        List<Integer> projectIds = projects.stream().map(SchoolProject::getProjectId).toList();
+        for (int from = 0; from < projectIds.size(); from += ENRICH_CHUNK_SIZE) {
+            List<Integer> chunk = projectIds.subList(from, Math.min(from + ENRICH_CHUNK_SIZE, projectIds.size()));
+            for (ProjectRaisedView row : schoolProjectRepository.getTotalRaisedAmounts(chunk)) {
+                raisedByProject.put(row.getProjectId(), row.getRaisedAmount());
+            }
+            for (ProjectProgressView row : schoolProjectRepository.getLatestCompletionRates(chunk)) {
+                progressByProject.put(row.getProjectId(), row.getCompletionRate());
+            }
+        }
+
+        List<SchoolProjectDto> dtos = new ArrayList<>(projects.size());
+        for (SchoolProject project : projects) {
+            dtos.add(mapToDto(project, raisedByProject.get(project.getProjectId()),
+                    progressByProject.get(project.getProjectId())));
+        }
+        return dtos;
+    }
+
+    private SchoolProjectDto mapToDto(SchoolProject schoolProject, BigDecimal raisedAmount, Double completionRate) {
         return SchoolProjectDto.builder()
                 .projectId(schoolProject.getProjectId())
                 .schoolId(schoolProject.getSchool().getSchoolId())
@@ -132,7 +160,7 @@ public class SchoolProjectService {
                 .projectTypeId(schoolProject.getProjectType().getProjectTypeId())
                 .projectTypeName(schoolProject.getProjectType().getTypeName())
                 .requiredAmount(schoolProject.getRequiredAmount())
-                .raisedAmount(raisedAmount != null ? raisedAmount : java.math.BigDecimal.ZERO)
+                .raisedAmount(raisedAmount != null ? raisedAmount : BigDecimal.ZERO)
                 .completionRate(completionRate != null ? completionRate : 0.0)
                 .createdAt(schoolProject.getCreatedAt())
                 .updatedAt(schoolProject.getUpdatedAt())
@@ -2,7 +2,9 @@ package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Entity.*;
 import com.example.Bright_Aid.Dto.SchoolDto;
+import com.example.Bright_Aid.event.GeoDataChangedEvent;
 import com.example.Bright_Aid.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -24,17 +26,20 @@ public class SchoolService {
     private final DistrictRepository districtRepository;
     private final UpazilaRepository upazilaRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SchoolService(SchoolRepository schoolRepository,
                          DivisionRepository divisionRepository,
                          DistrictRepository districtRepository,
                          UpazilaRepository upazilaRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         ApplicationEventPublisher eventPublisher) {
         this.schoolRepository = schoolRepository;
         this.divisionRepository = divisionRepository;
         this.districtRepository = districtRepository;
         this.upazilaRepository = upazilaRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // -------------------- CRUD --------------------
@@ -77,6 +82,8 @@ public class SchoolService {
                 .build();
 
         School saved = schoolRepository.save(school);
+        // The geo tree lists the schools of every division, district and upazila
+        eventPublisher.publishEvent(new GeoDataChangedEvent("school " + saved.getSchoolId() + " created"));
         return mapToDto(saved);
     }
 
@@ -102,6 +109,8 @@ public class SchoolService {
         Upazila upazila = upazilaRepository.findById(schoolDto.getUpazilaId())
                 .orElseThrow(() -> new RuntimeException("Upazila not found with ID: " + schoolDto.getUpazilaId()));
 
+        boolean moved = !isPlacedIn(existingSchool, division, district, upazila);
+
         // Update fields
         existingSchool.setSchoolName(schoolDto.getSchoolName());
         existingSchool.setRegistrationNumber(schoolDto.getRegistrationNumber());
@@ -118,6 +127,9 @@ public class SchoolService {
         existingSchool.setUpdatedAt(LocalDateTime.now());
 
         School updated = schoolRepository.save(existingSchool);
+        if (moved) {
+            eventPublisher.publishEvent(new GeoDataChangedEvent("school " + schoolId + " moved"));
+        }
         return mapToDto(updated);
     }
 
@@ -138,6 +150,7 @@ public class SchoolService {
             throw new RuntimeException("School not found with ID: " + schoolId);
         }
         schoolRepository.deleteById(schoolId);
+        eventPublisher.publishEvent(new GeoDataChangedEvent("school " + schoolId + " deleted"));
     }
 
     // -------------------- STATUS & VERIFICATION --------------------
@@ -252,6 +265,12 @@ public class SchoolService {
         // You can add more specific validation here to ensure district belongs to division, etc.
     }
 
+    private boolean isPlacedIn(School school, Division division, District district, Upazila upazila) {
+        return school.getDivision() != null && division.getDivisionId().equals(school.getDivision().getDivisionId())
+                && school.getDistrict() != null && district.getDistrictId().equals(school.getDistrict().getDistrictId())
+                && school.getUpazila() != null && upazila.getUpazilaId().equals(school.getUpazila().getUpazilaId());
+    }
+
     private School.SchoolType parseSchoolType(String schoolType) {
         try {
             return School.SchoolType.valueOf(schoolType.toUpperCase());
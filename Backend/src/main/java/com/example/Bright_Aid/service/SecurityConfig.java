@@ -2,10 +2,13 @@ package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Security.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -16,7 +19,9 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -32,6 +37,10 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
 
+    // Addresses or CIDR ranges allowed to scrape /actuator/prometheus (compared with the socket peer address)
+    @Value("${management.prometheus.allowed-addresses:127.0.0.1,::1}")
+    private List<String> prometheusAllowedAddresses;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -93,9 +102,12 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**","/v3/api-docs/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(prometheusScraperOnly())
                         .requestMatchers("/api/divisions/**").permitAll()
                         .requestMatchers("/api/districts/**").permitAll()
                         .requestMatchers("/api/upazilas/**").permitAll()
+                        .requestMatchers("/api/reference-data/**").permitAll()
                         .requestMatchers("/api/ngo-gamification/**").permitAll()
                         .requestMatchers("/api/ngo-student-donations/**").permitAll()
                         .requestMatchers("/api/ngo-project-donations/**").permitAll()
@@ -117,4 +129,14 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    AuthorizationManager<RequestAuthorizationContext> prometheusScraperOnly() {
+        List<IpAddressMatcher> allowed = prometheusAllowedAddresses.stream()
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) -> new AuthorizationDecision(
+                allowed.stream().anyMatch(matcher -> matcher.matches(context.getRequest())));
+    }
 }
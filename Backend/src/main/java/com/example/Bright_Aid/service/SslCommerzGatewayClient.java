@@ -0,0 +1,65 @@
+package com.example.Bright_Aid.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@Slf4j
+public class SslCommerzGatewayClient {
+
+    private final RestTemplate restTemplate;
+    private final ThreadPoolTaskExecutor gatewayExecutor;
+    private final String sessionUrl;
+
+    public SslCommerzGatewayClient(@Qualifier("gatewayExecutor") ThreadPoolTaskExecutor gatewayExecutor,
+                                   @Value("${sslcommerz.sandbox.url}") String sessionUrl,
+                                   @Value("${sslcommerz.gateway.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                   @Value("${sslcommerz.gateway.read-timeout-ms:10000}") long readTimeoutMs) {
+        this.gatewayExecutor = gatewayExecutor;
+        this.sessionUrl = sessionUrl;
+
+        // One shared JDK HttpClient keeps a keep-alive connection pool to the gateway
+        // instead of opening a new connection for every payment
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    // Create a gateway session without blocking the caller; runs on the bounded gateway pool
+    public CompletableFuture<Map<String, Object>> initiateSession(MultiValueMap<String, String> params) {
+        return CompletableFuture.supplyAsync(() -> postSessionRequest(params), gatewayExecutor);
+    }
+
+    private Map<String, Object> postSessionRequest(MultiValueMap<String, String> params) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(params, headers);
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                sessionUrl, HttpMethod.POST, entity, new ParameterizedTypeReference<>() {});
+
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new IllegalStateException("No response from SSLCommerz or HTTP error: " + response.getStatusCode());
+        }
+        log.debug("SSLCommerz session response for tran_id {}: {}", params.getFirst("tran_id"),
+                response.getBody().get("status"));
+        return response.getBody();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Entity.PaymentTransaction;
+import com.example.Bright_Aid.repository.OutboxEventRepository;
+import com.example.Bright_Aid.repository.PaymentTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Expires checkout sessions the donor walked away from. SSLCommerz never calls back for those,
+// so their rows would stay PENDING forever. Works in small chunks, each its own short transaction,
+// with a pause in between so the row locks never queue up behind live checkout traffic.
+@Service
+@Slf4j
+public class StalePaymentSweeper {
+
+    // Marks rows this sweeper cancelled; a late SUCCESS callback may still override them
+    public static final String EXPIRY_REASON = "Session expired";
+
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payment.sweeper.max-age-minutes:120}")
+    private long maxAgeMinutes;
+
+    @Value("${payment.sweeper.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${payment.sweeper.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    @Value("${payment.sweeper.pause-between-chunks-ms:250}")
+    private long pauseBetweenChunksMs;
+
+    private final AtomicLong totalScanned = new AtomicLong();
+    private final AtomicLong totalExpired = new AtomicLong();
+    private volatile long lastRunScanned;
+    private volatile long lastRunExpired;
+    private volatile long lastRunDurationMs;
+    private volatile LocalDateTime lastRunAt;
+
+    public StalePaymentSweeper(PaymentTransactionRepository paymentTransactionRepository,
+                               OutboxEventRepository outboxEventRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.sweeper.interval-ms:300000}",
+               initialDelayString = "${payment.sweeper.initial-delay-ms:60000}")
+    public void sweep() {
+        long started = System.currentTimeMillis();
+        // Fixed cutoff for the whole run so rows created mid-run are never touched
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(maxAgeMinutes);
+        long scanned = 0;
+        long expired = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Integer> ids = paymentTransactionRepository.findStalePendingIds(cutoff, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            scanned += ids.size();
+            expired += expireChunk(ids);
+
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        totalScanned.addAndGet(scanned);
+        totalExpired.addAndGet(expired);
+        lastRunScanned = scanned;
+        lastRunExpired = expired;
+        lastRunDurationMs = System.currentTimeMillis() - started;
+        lastRunAt = LocalDateTime.now();
+        if (expired > 0) {
+            log.info("Expired {} stale PENDING transactions ({} scanned) in {} ms", expired, scanned, lastRunDurationMs);
+        }
+    }
+
+    // Status move and its TRANSACTION_STATUS_CHANGED outbox rows commit together,
+    // so the linked donations follow through DonationReconciliationService
+    private int expireChunk(List<Integer> ids) {
+        Integer expired = transactionTemplate.execute(status -> {
+            int updated = paymentTransactionRepository.expirePending(ids, EXPIRY_REASON);
+            if (updated > 0) {
+                outboxEventRepository.recordStatusChanges(ids, PaymentTransaction.TransactionStatus.CANCELLED.name());
+            }
+            return updated;
+        });
+        return expired != null ? expired : 0;
+    }
+
+    private boolean pause() {
+        if (pauseBetweenChunksMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenChunksMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxAgeMinutes", maxAgeMinutes);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunScanned", lastRunScanned);
+        stats.put("lastRunExpired", lastRunExpired);
+        stats.put("lastRunDurationMs", lastRunDurationMs);
+        stats.put("totalScanned", totalScanned.get());
+        stats.put("totalExpired", totalExpired.get());
+        return stats;
+    }
+}
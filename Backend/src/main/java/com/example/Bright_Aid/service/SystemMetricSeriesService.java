@@ -0,0 +1,127 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.MetricSeriesDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+// Time-series reads over system_metrics for admin charts.
+// Downsampling happens in MySQL (one GROUP BY over the metric_date range), and the response is
+// columnar, one array per metric and aggregate, so long ranges stay small on the wire.
+@Service
+@RequiredArgsConstructor
+public class SystemMetricSeriesService {
+
+    // Metric name (as in the SystemMetric JSON) -> column; also the whitelist for the SQL below
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("totalActiveSchools", "total_active_schools");
+        COLUMNS.put("totalVerifiedSchools", "total_verified_schools");
+        COLUMNS.put("totalPendingVerifications", "total_pending_verifications");
+        COLUMNS.put("totalActiveStudents", "total_active_students");
+        COLUMNS.put("totalDonors", "total_donors");
+        COLUMNS.put("totalNgos", "total_ngos");
+        COLUMNS.put("totalActiveProjects", "total_active_projects");
+        COLUMNS.put("completedProjects", "completed_projects");
+        COLUMNS.put("totalFundsRaised", "total_funds_raised");
+        COLUMNS.put("totalFundsUtilized", "total_funds_utilized");
+        COLUMNS.put("utilizationRate", "utilization_rate");
+        COLUMNS.put("highRiskStudents", "high_risk_students");
+        COLUMNS.put("averageAttendanceRate", "average_attendance_rate");
+    }
+
+    private static final List<String> AGGREGATES = List.of("min", "max", "avg");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public enum Bucket {
+        DAY("metric_date", 2 * 366),
+        WEEK("DATE_SUB(metric_date, INTERVAL WEEKDAY(metric_date) DAY)", 10 * 366),
+        MONTH("DATE_SUB(metric_date, INTERVAL DAYOFMONTH(metric_date) - 1 DAY)", 20 * 366);
+
+        private final String expression;
+        private final int maxDays;
+
+        Bucket(String expression, int maxDays) {
+            this.expression = expression;
+            this.maxDays = maxDays;
+        }
+    }
+
+    public static Set<String> metricNames() {
+        return Collections.unmodifiableSet(COLUMNS.keySet());
+    }
+
+    // metrics / aggregates null or empty = all of them
+    public MetricSeriesDto getSeries(LocalDate from, LocalDate to, Bucket bucket,
+                                     List<String> metrics, List<String> aggregates) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= bucket.maxDays) {
+            throw new IllegalArgumentException(bucket + " buckets are limited to " + bucket.maxDays + " days per request");
+        }
+        // Repeats are dropped: each name keys one set of columns, and a repeat would append its values twice
+        List<String> selectedMetrics = metrics == null || metrics.isEmpty() ? new ArrayList<>(COLUMNS.keySet())
+                : metrics.stream().distinct().toList();
+        for (String metric : selectedMetrics) {
+            if (!COLUMNS.containsKey(metric)) {
+                throw new IllegalArgumentException("Unknown metric: " + metric);
+            }
+        }
+        // A daily bucket holds one row, so min = max = avg: send the value once
+        List<String> selectedAggregates = bucket == Bucket.DAY ? List.of("value")
+                : aggregates == null || aggregates.isEmpty() ? AGGREGATES : aggregates.stream().distinct().toList();
+        for (String aggregate : selectedAggregates) {
+            if (!aggregate.equals("value") && !AGGREGATES.contains(aggregate)) {
+                throw new IllegalArgumentException("Unknown aggregate: " + aggregate);
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucket.expression).append(" AS bucket_start");
+        for (String metric : selectedMetrics) {
+            String column = COLUMNS.get(metric);
+            for (String aggregate : selectedAggregates) {
+                sql.append(", ").append(aggregate.equals("value") ? column
+                        : aggregate.toUpperCase(Locale.ROOT) + "(" + column + ")");
+            }
+        }
+        sql.append(" FROM system_metrics WHERE metric_date BETWEEN ? AND ?");
+        if (bucket != Bucket.DAY) {
+            sql.append(" GROUP BY bucket_start");
+        }
+        sql.append(" ORDER BY bucket_start");
+
+        List<LocalDate> time = new ArrayList<>();
+        Map<String, Map<String, List<Object>>> series = new LinkedHashMap<>();
+        for (String metric : selectedMetrics) {
+            Map<String, List<Object>> columns = new LinkedHashMap<>();
+            selectedAggregates.forEach(aggregate -> columns.put(aggregate, new ArrayList<>()));
+            series.put(metric, columns);
+        }
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            time.add(rs.getObject(1, LocalDate.class));
+            int index = 2;
+            for (String metric : selectedMetrics) {
+                Map<String, List<Object>> columns = series.get(metric);
+                for (String aggregate : selectedAggregates) {
+                    columns.get(aggregate).add(rs.getObject(index++));
+                }
+            }
+        }, from, to);
+
+        return MetricSeriesDto.builder()
+                .bucket(bucket.name())
+                .from(from)
+                .to(to)
+                .time(time)
+                .series(series)
+                .build();
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Entity.SystemMetric;
+import com.example.Bright_Aid.repository.SystemMetricRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Daily platform snapshot (system_metrics, one row per day) for the admin dashboard.
+// Each figure group is one single-pass aggregate over one table; the groups are independent, so
+// they run in parallel on metricsExecutor, each on its own connection, and the row is written once
+// they all return. A snapshot for day D covers everything created up to the end of D, so past
+// days can be backfilled. Statuses (school active/verified, prediction risk) are read as they are
+// now, since their history is not kept.
+@Service
+@Slf4j
+public class SystemMetricService {
+
+    private static final String SCHOOL_TOTALS = "SELECT COALESCE(SUM(status = 'ACTIVE'), 0), " +
+            "COALESCE(SUM(verification_status = 'VERIFIED'), 0), COALESCE(SUM(verification_status = 'PENDING'), 0) " +
+            "FROM schools WHERE created_at < ?";
+
+    private static final String ACTIVE_STUDENTS = "SELECT COUNT(*) FROM students s " +
+            "JOIN schools sc ON sc.school_id = s.school_id WHERE sc.status = 'ACTIVE' AND s.created_at < ?";
+
+    private static final String DONORS = "SELECT COUNT(*) FROM donors WHERE created_at < ?";
+
+    private static final String NGOS = "SELECT COUNT(*) FROM ngos WHERE created_at < ?";
+
+    // A project is completed once an update reports 100% progress
+    private static final String PROJECT_TOTALS = "SELECT COUNT(*), COALESCE(SUM(done.project_id IS NOT NULL), 0) " +
+            "FROM school_projects p LEFT JOIN (SELECT DISTINCT project_id FROM project_updates " +
+            "  WHERE progress_percentage >= 100 AND created_at < ?) done ON done.project_id = p.project_id " +
+            "WHERE p.created_at < ?";
+
+    private static final String FUNDS_RAISED = "SELECT COALESCE(SUM(amount), 0) FROM donations " +
+            "WHERE payment_status = 'COMPLETED' AND COALESCE(payment_completed_at, donated_at, created_at) < ?";
+
+    private static final String FUNDS_UTILIZED = "SELECT COALESCE(SUM(amount_used), 0) FROM fund_utilization " +
+            "WHERE utilization_status IN ('APPROVED', 'COMPLETED') AND COALESCE(utilization_date, created_at) < ?";
+
+    // Latest prediction per student as of the cutoff
+    private static final String RISK_TOTALS = "SELECT COALESCE(SUM(dp.risk_status = 'HIGH'), 0), AVG(dp.attendance_rate) " +
+            "FROM dropout_predictions dp JOIN (SELECT MAX(prediction_id) AS prediction_id FROM dropout_predictions " +
+            "  WHERE last_calculated < ? GROUP BY student_id) latest ON latest.prediction_id = dp.prediction_id";
+
+    private static final BigDecimal MAX_RATE = new BigDecimal("999.99");
+    private static final int MAX_BACKFILL_DAYS = 3660;
+
+    private final SystemMetricRepository systemMetricRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolTaskExecutor metricsExecutor;
+    private final ThreadPoolTaskExecutor maintenanceExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object writeLock = new Object();
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final AtomicInteger backfillDaysDone = new AtomicInteger();
+    private volatile int backfillDaysTotal;
+    private volatile LocalDate backfillFrom;
+    private volatile LocalDate backfillTo;
+    private volatile String backfillError;
+    private volatile long lastSnapshotMs;
+
+    private record SchoolTotals(int active, int verified, int pendingVerification) {
+    }
+
+    private record ProjectTotals(int total, int completed) {
+    }
+
+    private record RiskTotals(int highRisk, BigDecimal averageAttendance) {
+    }
+
+    public SystemMetricService(SystemMetricRepository systemMetricRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Qualifier("metricsExecutor") ThreadPoolTaskExecutor metricsExecutor,
+                               @Qualifier("maintenanceExecutor") ThreadPoolTaskExecutor maintenanceExecutor,
+                               PlatformTransactionManager transactionManager) {
+        this.systemMetricRepository = systemMetricRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricsExecutor = metricsExecutor;
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Keeps today's row current and closes yesterday's once, with its full day of data
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${metrics.snapshot.cron:0 5 * * * *}")
+    public void refreshSnapshots() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        try {
+            boolean yesterdayClosed = systemMetricRepository.findByMetricDate(yesterday)
+                    .map(metric -> !metric.getCalculatedAt().isBefore(today.atStartOfDay()))
+                    .orElse(false);
+            if (!yesterdayClosed) {
+                snapshot(yesterday);
+            }
+            snapshot(today);
+        } catch (RuntimeException e) {
+            log.error("System metric snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    public SystemMetric snapshot(LocalDate date) {
+        long started = System.currentTimeMillis();
+        Timestamp cutoff = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+
+        CompletableFuture<SchoolTotals> schools = async(() -> jdbcTemplate.queryForObject(SCHOOL_TOTALS,
+                (rs, i) -> new SchoolTotals(rs.getInt(1), rs.getInt(2), rs.getInt(3)), cutoff));
+        CompletableFuture<Integer> students = async(() -> count(ACTIVE_STUDENTS, cutoff));
+        CompletableFuture<Integer> donors = async(() -> count(DONORS, cutoff));
+        CompletableFuture<Integer> ngos = async(() -> count(NGOS, cutoff));
+        CompletableFuture<ProjectTotals> projects = async(() -> jdbcTemplate.queryForObject(PROJECT_TOTALS,
+                (rs, i) -> new ProjectTotals(rs.getInt(1), rs.getInt(2)), cutoff, cutoff));
+        CompletableFuture<BigDecimal> raised = async(() -> jdbcTemplate.queryForObject(FUNDS_RAISED, BigDecimal.class, cutoff));
+        CompletableFuture<BigDecimal> utilized = async(() -> jdbcTemplate.queryForObject(FUNDS_UTILIZED, BigDecimal.class, cutoff));
+        CompletableFuture<RiskTotals> risk = async(() -> jdbcTemplate.queryForObject(RISK_TOTALS,
+                (rs, i) -> new RiskTotals(rs.getInt(1), rs.getBigDecimal(2)), cutoff));
+
+        try {
+            CompletableFuture.allOf(schools, students, donors, ngos, projects, raised, utilized, risk).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        BigDecimal fundsRaised = raised.join();
+        BigDecimal fundsUtilized = utilized.join();
+        ProjectTotals projectTotals = projects.join();
+        RiskTotals riskTotals = risk.join();
+
+        SystemMetric values = SystemMetric.builder()
+                .metricDate(date)
+                .totalActiveSchools(schools.join().active())
+                .totalVerifiedSchools(schools.join().verified())
+                .totalPendingVerifications(schools.join().pendingVerification())
+                .totalActiveStudents(students.join())
+                .totalDonors(donors.join())
+                .totalNgos(ngos.join())
+                .totalActiveProjects(projectTotals.total() - projectTotals.completed())
+                .completedProjects(projectTotals.completed())
+                .totalFundsRaised(fundsRaised)
+                .totalFundsUtilized(fundsUtilized)
+                .utilizationRate(fundsRaised.signum() > 0
+                        ? cap(fundsUtilized.multiply(BigDecimal.valueOf(100)).divide(fundsRaised, 2, RoundingMode.HALF_UP))
+                        : null)
+                .highRiskStudents(riskTotals.highRisk())
+                .averageAttendanceRate(riskTotals.averageAttendance() != null
+                        ? cap(riskTotals.averageAttendance().setScale(2, RoundingMode.HALF_UP))
+                        : null)
+                .calculatedAt(LocalDateTime.now())
+                .build();
+
+        SystemMetric saved = save(values);
+        lastSnapshotMs = System.currentTimeMillis() - started;
+        log.debug("System metrics for {} computed in {} ms", date, lastSnapshotMs);
+        return saved;
+    }
+
+    // Upsert by metric_date; serialised so the scheduler and a backfill cannot both insert one day
+    private SystemMetric save(SystemMetric values) {
+        synchronized (writeLock) {
+            return transactionTemplate.execute(status -> {
+                SystemMetric metric = systemMetricRepository.findByMetricDate(values.getMetricDate())
+                        .orElseGet(SystemMetric::new);
+                values.setMetricId(metric.getMetricId());
+                return systemMetricRepository.save(values);
+            });
+        }
+    }
+
+    // Returns false when a backfill is already running
+    public boolean startBackfill(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_BACKFILL_DAYS) {
+            throw new IllegalArgumentException("Backfill is limited to " + MAX_BACKFILL_DAYS + " days per run");
+        }
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        backfillFrom = from;
+        backfillTo = to;
+        backfillDaysTotal = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        backfillDaysDone.set(0);
+        backfillError = null;
+        try {
+            maintenanceExecutor.execute(() -> runBackfill(from, to));
+            return true;
+        } catch (RejectedExecutionException e) {
+            backfillRunning.set(false);
+            throw e;
+        }
+    }
+
+    private void runBackfill(LocalDate from, LocalDate to) {
+        long started = System.currentTimeMillis();
+        try {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                snapshot(day);
+                backfillDaysDone.incrementAndGet();
+            }
+            log.info("System metrics backfilled for {} to {} in {} ms", from, to, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            backfillError = e.getMessage();
+            log.error("System metrics backfill stopped after {} days: {}", backfillDaysDone.get(), e.getMessage());
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    public SystemMetric getLatest() {
+        return systemMetricRepository.findLatestMetric().orElse(null);
+    }
+
+    public List<SystemMetric> getRange(LocalDate from, LocalDate to) {
+        return systemMetricRepository.findByMetricDateBetweenOrderByMetricDateAsc(from, to);
+    }
+
+    public Map<String, Object> getBackfillStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", backfillRunning.get());
+        status.put("from", backfillFrom);
+        status.put("to", backfillTo);
+        status.put("daysDone", backfillDaysDone.get());
+        status.put("daysTotal", backfillDaysTotal);
+        status.put("lastError", backfillError);
+        status.put("lastSnapshotMs", lastSnapshotMs);
+        return status;
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, metricsExecutor);
+    }
+
+    private Integer count(String sql, Timestamp cutoff) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, cutoff);
+        return count != null ? count : 0;
+    }
+
+    // Columns are DECIMAL(5,2)
+    private BigDecimal cap(BigDecimal rate) {
+        return rate.min(MAX_RATE);
+    }
+}
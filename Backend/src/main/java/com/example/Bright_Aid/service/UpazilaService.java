@@ -4,11 +4,14 @@ import com.example.Bright_Aid.Dto.UpazilaDto;
 import com.example.Bright_Aid.Entity.District;
 import com.example.Bright_Aid.Entity.School;
 import com.example.Bright_Aid.Entity.Upazila;
+import com.example.Bright_Aid.event.GeoDataChangedEvent;
 import com.example.Bright_Aid.repository.DistrictRepository;
 import com.example.Bright_Aid.repository.UpazilaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -20,6 +23,8 @@ public class UpazilaService {
 
     private final UpazilaRepository upazilaRepository;
     private final DistrictRepository districtRepository;
+    private final GeoTreeCache geoTreeCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UpazilaDto createUpazila(UpazilaDto dto) {
@@ -34,6 +39,7 @@ public class UpazilaService {
                     .build();
 
             Upazila saved = upazilaRepository.save(upazila);
+            eventPublisher.publishEvent(new GeoDataChangedEvent("upazila " + saved.getUpazilaId() + " created"));
             return convertToDto(saved);
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Upazila code already exists or invalid data: " + e.getMessage());
@@ -42,16 +48,15 @@ public class UpazilaService {
         }
     }
 
-    @Transactional(readOnly = true)
+    // Reads are served from the geo tree and need no transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UpazilaDto getUpazilaById(Integer id) {
-        Upazila upazila = upazilaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Upazila not found with id: " + id));
-        return convertToDto(upazila);
+        return convertToDto(geoTreeCache.getUpazila(id));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<UpazilaDto> getAllUpazilas() {
-        return upazilaRepository.findAll().stream()
+        return geoTreeCache.getTree().upazilas().values().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -70,6 +75,7 @@ public class UpazilaService {
             upazila.setUpazilaCode(dto.getUpazilaCode().trim());
 
             Upazila updated = upazilaRepository.save(upazila);
+            eventPublisher.publishEvent(new GeoDataChangedEvent("upazila " + id + " updated"));
             return convertToDto(updated);
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Upazila code already exists or invalid data: " + e.getMessage());
@@ -84,8 +90,23 @@ public class UpazilaService {
             throw new RuntimeException("Upazila not found with id: " + id);
         }
         upazilaRepository.deleteById(id);
+        eventPublisher.publishEvent(new GeoDataChangedEvent("upazila " + id + " deleted"));
     }
 
+    // The id list is immutable and shared with the tree
+    private UpazilaDto convertToDto(GeoTreeCache.UpazilaNode node) {
+        return UpazilaDto.builder()
+                .upazilaId(node.upazilaId())
+                .districtId(node.districtId())
+                .districtName(node.districtName())
+                .upazilaName(node.upazilaName())
+                .upazilaCode(node.upazilaCode())
+                .schoolIds(node.schoolIds())
+                .schoolCount(node.schoolIds().size())
+                .build();
+    }
+
+    // Write responses, before the tree has been rebuilt
     private UpazilaDto convertToDto(Upazila upazila) {
         List<Integer> schoolIds = null;
         if (upazila.getSchools() != null) {
@@ -101,6 +122,7 @@ public class UpazilaService {
                 .upazilaName(upazila.getUpazilaName())
                 .upazilaCode(upazila.getUpazilaCode())
                 .schoolIds(schoolIds)
+                .schoolCount(schoolIds != null ? schoolIds.size() : 0)
                 .build();
     }
 }
\ No newline at end of file
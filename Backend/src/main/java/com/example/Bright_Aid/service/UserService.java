@@ -2,8 +2,10 @@ package com.example.Bright_Aid.service;
 
 import com.example.Bright_Aid.Entity.User;
 import com.example.Bright_Aid.Dto.UserDTO;
+import com.example.Bright_Aid.event.UserAccountChangedEvent;
 import com.example.Bright_Aid.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,7 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
@@ -40,6 +43,8 @@ public class UserService {
     public UserDTO createUser(UserDTO userDTO) {
         User user = convertToEntity(userDTO);
         User savedUser = userRepository.save(user);
+        // Drops a cached "no such user" left behind by an earlier account with this email
+        eventPublisher.publishEvent(new UserAccountChangedEvent(savedUser.getEmail()));
         return convertToDTO(savedUser);
     }
 
@@ -47,6 +52,9 @@ public class UserService {
     public Optional<UserDTO> updateUser(Integer userId, UserDTO userDTO) {
         return userRepository.findById(userId)
                 .map(existingUser -> {
+                    // Tokens are checked against the cached status of both the old and the new email
+                    eventPublisher.publishEvent(new UserAccountChangedEvent(existingUser.getEmail()));
+                    eventPublisher.publishEvent(new UserAccountChangedEvent(userDTO.getEmail()));
                     existingUser.setEmail(userDTO.getEmail());
                     existingUser.setUsername(userDTO.getUsername());
                     existingUser.setPasswordHash(userDTO.getPasswordHash());
@@ -61,11 +69,13 @@ public class UserService {
 
     @Transactional
     public boolean deleteUser(Integer userId) {
-        if (userRepository.existsById(userId)) {
-            userRepository.deleteById(userId);
-            return true;
-        }
-        return false;
+        return userRepository.findById(userId)
+                .map(user -> {
+                    userRepository.delete(user);
+                    eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
+                    return true;
+                })
+                .orElse(false);
     }
 
     @Transactional(readOnly = true)
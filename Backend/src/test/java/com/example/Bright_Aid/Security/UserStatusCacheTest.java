@@ -0,0 +1,76 @@
+package com.example.Bright_Aid.Security;
+
+import com.example.Bright_Aid.Entity.User;
+import com.example.Bright_Aid.event.UserAccountChangedEvent;
+import com.example.Bright_Aid.repository.UserRepository;
+import com.example.Bright_Aid.repository.projection.UserStatusView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class UserStatusCacheTest {
+
+    private static final String EMAIL = "donor@example.org";
+
+    private UserRepository userRepository;
+    private UserStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new UserStatusCache(userRepository, 100, 300_000);
+    }
+
+    @Test
+    void cachedStatusIsReusedUntilEvicted() {
+        when(userRepository.findStatusByEmail(EMAIL)).thenReturn(Optional.of(view(true)), Optional.of(view(false)));
+
+        assertTrue(cache.get(EMAIL).active());
+        assertTrue(cache.get(EMAIL).active());
+        verify(userRepository, times(1)).findStatusByEmail(EMAIL);
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent(EMAIL));
+        assertFalse(cache.get(EMAIL).active());
+    }
+
+    @Test
+    void lookupOverlappingAnEvictionIsNotStored() {
+        // The first lookup reads the active row, then the deactivation commits and evicts
+        // before that lookup gets to store its result
+        when(userRepository.findStatusByEmail(EMAIL))
+                .thenAnswer(invocation -> {
+                    cache.onUserAccountChanged(new UserAccountChangedEvent(EMAIL));
+                    return Optional.of(view(true));
+                })
+                .thenReturn(Optional.of(view(false)));
+
+        assertTrue(cache.get(EMAIL).active(), "the overlapping lookup still answers its own request");
+        assertFalse(cache.get(EMAIL).active(), "the next request must read the deactivated row");
+        verify(userRepository, times(2)).findStatusByEmail(EMAIL);
+    }
+
+    private static UserStatusView view(boolean active) {
+        return new UserStatusView() {
+            public Integer getUserId() {
+                return 7;
+            }
+
+            public Boolean getIsActive() {
+                return active;
+            }
+
+            public User.UserType getUserType() {
+                return User.UserType.DONOR;
+            }
+
+            public String getPasswordHash() {
+                return "hash";
+            }
+        };
+    }
+}
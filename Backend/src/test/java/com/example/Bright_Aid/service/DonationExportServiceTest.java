@@ -0,0 +1,55 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.repository.DonationExportRepository;
+import com.example.Bright_Aid.repository.projection.DonationExportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DonationExportServiceTest {
+
+    private final DonationExportRepository repository = mock(DonationExportRepository.class);
+    private final DonationExportService exportService = new DonationExportService(repository);
+
+    @Test
+    void csvNeutralisesFormulaCells() throws IOException {
+        LocalDateTime donatedAt = LocalDateTime.of(2026, 3, 1, 10, 0);
+        when(repository.streamByDonor(7)).thenReturn(Stream.of(
+                new DonationExportRow("1", donatedAt, new BigDecimal("50.00"), "COMPLETED", "TXN1",
+                        "=HYPERLINK(\"http://evil\")", "+Project"),
+                new DonationExportRow("2", donatedAt, new BigDecimal("20.00"), "COMPLETED", "@ref",
+                        "-Donor", "Student: Rahim, Karim")));
+
+        String[] lines = csv(DonationExportService.Scope.DONOR, 7);
+
+        assertEquals("1,2026-03-01 10:00:00,50.00,COMPLETED,TXN1,\"'=HYPERLINK(\"\"http://evil\"\")\",'+Project", lines[1]);
+        assertEquals("2,2026-03-01 10:00:00,20.00,COMPLETED,'@ref,'-Donor,\"Student: Rahim, Karim\"", lines[2]);
+    }
+
+    @Test
+    void csvLeavesPlainCellsAlone() throws IOException {
+        when(repository.streamByNgo(3)).thenReturn(Stream.of(
+                new DonationExportRow("NSD-4", null, new BigDecimal("5.00"), "PENDING", null,
+                        "Hope NGO", "Student: A-1")));
+
+        String[] lines = csv(DonationExportService.Scope.NGO, 3);
+
+        assertEquals("Donation ID,Donated At,Amount,Payment Status,Transaction Ref,Donor,Recipient", lines[0]);
+        assertEquals("NSD-4,,5.00,PENDING,,Hope NGO,Student: A-1", lines[1]);
+    }
+
+    private String[] csv(DonationExportService.Scope scope, int id) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(scope, id, DonationExportService.Format.CSV, out);
+        return out.toString(StandardCharsets.UTF_8).split("\r\n");
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.DonationDto;
+import com.example.Bright_Aid.Entity.Donation;
+import com.example.Bright_Aid.Entity.Donor;
+import com.example.Bright_Aid.Entity.User;
+import com.example.Bright_Aid.repository.DonorHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Per-row cost of reading a 100k-row donor history: the typed row mapper against the positional
+// Object[] mapper it replaced (string round trip for the amount, casts per column). Both sides run
+// the same SQL, so the difference is the mapping. Timings depend on the machine and are only
+// reported; the test checks both paths agree and bounds allocation per row.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({DonationService.class, DonorHistoryRepository.class})
+class DonorHistoryMappingCostTest {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private DonationService donationService;
+
+    @MockitoBean
+    private SchoolDonationLedgerService schoolDonationLedgerService;
+
+    @Test
+    void typedRowsMapLargeHistoriesWithinBudget() {
+        Integer donorId = seed();
+
+        Cost typed = measure(() -> donationService.getDonationsByDonorWithDetails(donorId));
+        Cost positional = measure(() -> readPositional(donorId));
+        System.out.printf("Donor history, %d rows: typed %.0f ns / %.0f B per row, Object[] %.0f ns / %.0f B per row%n",
+                ROWS, typed.nanosPerRow(), typed.bytesPerRow(), positional.nanosPerRow(), positional.bytesPerRow());
+
+        List<DonationDto> typedRows = donationService.getDonationsByDonorWithDetails(donorId);
+        assertEquals(ROWS, typedRows.size());
+        assertEquals(readPositional(donorId), typedRows, "both mappings must produce the same DTOs");
+        // Allocation is stable where timings are not. A per-row proxy or conversion layer (an interface
+        // projection over this SQL measured about 25 KB per row) fails both bounds.
+        assertTrue(typed.bytesPerRow() <= positional.bytesPerRow(),
+                "typed rows allocate " + typed.bytesPerRow() + " B per row, Object[] " + positional.bytesPerRow());
+        assertTrue(typed.bytesPerRow() < 2 * 1024, "typed rows allocate " + typed.bytesPerRow() + " B per row");
+    }
+
+    // The mapping DonationService used before the typed rows, over the same SELECT
+    @SuppressWarnings("unchecked")
+    private List<DonationDto> readPositional(Integer donorId) {
+        List<Object[]> results = entityManager.getEntityManager()
+                .createNativeQuery(DonorHistoryRepository.ALL_SQL)
+                .setParameter(1, donorId)
+                .getResultList();
+        return results.stream()
+                .map(result -> DonationDto.builder()
+                        .donationId((Integer) result[0])
+                        .donorId((Integer) result[1])
+                        .projectId((Integer) result[2])
+                        .studentId((Integer) result[3])
+                        .amount(result[4] != null ? new BigDecimal(result[4].toString()) : null)
+                        .donationType(result[5] != null ? Donation.DonationType.valueOf((String) result[5]) : null)
+                        .transactionId((Integer) result[6])
+                        .paymentStatus(result[7] != null ? Donation.PaymentStatus.valueOf((String) result[7]) : Donation.PaymentStatus.PENDING)
+                        .purpose(result[8] != null ? Donation.DonationPurpose.valueOf((String) result[8]) : null)
+                        .donorMessage((String) result[9])
+                        .isAnonymous((Boolean) result[10])
+                        .donatedAt(result[11] != null ? ((Timestamp) result[11]).toLocalDateTime() : null)
+                        .paymentCompletedAt(result[12] != null ? ((Timestamp) result[12]).toLocalDateTime() : null)
+                        .createdAt(result[13] != null ? ((Timestamp) result[13]).toLocalDateTime() : null)
+                        .updatedAt(result[14] != null ? ((Timestamp) result[14]).toLocalDateTime() : null)
+                        .transactionRef((String) result[15])
+                        .projectName((String) result[16])
+                        .recipientName((String) result[17])
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private record Cost(double nanosPerRow, double bytesPerRow) {
+    }
+
+    // Best of the measured rounds after warm-up, on this thread only
+    private Cost measure(Supplier<List<DonationDto>> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            read.get();
+        }
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(thread);
+            long started = System.nanoTime();
+            assertEquals(ROWS, read.get().size());
+            bestNanos = Math.min(bestNanos, System.nanoTime() - started);
+            bestBytes = Math.min(bestBytes, threads.getThreadAllocatedBytes(thread) - bytesBefore);
+        }
+        return new Cost((double) bestNanos / ROWS, (double) bestBytes / ROWS);
+    }
+
+    // One donor with ROWS completed donations, inserted in a single statement
+    private Integer seed() {
+        User user = entityManager.persist(User.builder()
+                .email("donor@example.org").username("donor").passwordHash("hash").build());
+        Donor donor = entityManager.persist(Donor.builder().user(user).donorName("Donor").build());
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO donations (donor_id, amount, donation_type, payment_status, purpose, " +
+                        "is_anonymous, donated_at, created_at, updated_at) " +
+                        "SELECT :donorId, 100 + MOD(r.n, 900), 'ONE_TIME', 'COMPLETED', 'GENERAL_SUPPORT', FALSE, " +
+                        "DATEADD('MINUTE', -r.n, TIMESTAMP '2026-05-01 12:00:00'), NOW(), NOW() " +
+                        "FROM (SELECT \"X\" AS n FROM SYSTEM_RANGE(1, " + ROWS + ")) r")
+                .setParameter("donorId", donor.getDonorId())
+                .executeUpdate();
+        entityManager.clear();
+        return donor.getDonorId();
+    }
+}
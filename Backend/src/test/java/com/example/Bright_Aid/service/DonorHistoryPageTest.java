@@ -0,0 +1,102 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.DonationDto;
+import com.example.Bright_Aid.Dto.DonationPageDto;
+import com.example.Bright_Aid.Entity.Donation;
+import com.example.Bright_Aid.Entity.Donor;
+import com.example.Bright_Aid.Entity.User;
+import com.example.Bright_Aid.repository.DonorHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({DonationService.class, DonorHistoryRepository.class})
+class DonorHistoryPageTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private DonationService donationService;
+
+    @MockitoBean
+    private SchoolDonationLedgerService schoolDonationLedgerService;
+
+    private Donor donor;
+
+    @BeforeEach
+    void seed() {
+        User user = entityManager.persist(User.builder()
+                .email("donor@example.org").username("donor").passwordHash("hash").build());
+        donor = entityManager.persist(Donor.builder().user(user).donorName("Donor").build());
+
+        // Two dated rows share a timestamp, so the id has to break the tie
+        LocalDateTime day = LocalDateTime.of(2026, 5, 1, 12, 0);
+        donate(day);
+        donate(day);
+        donate(day.minusDays(1));
+        donate(day.plusDays(1));
+        for (int i = 0; i < 3; i++) {
+            Donation undated = donate(day);
+            entityManager.flush();
+            entityManager.getEntityManager()
+                    .createNativeQuery("UPDATE donations SET donated_at = NULL WHERE donation_id = :id")
+                    .setParameter("id", undated.getDonationId())
+                    .executeUpdate();
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesCoverTheUndatedTail() {
+        List<Integer> expected = donationService.getDonationsByDonorWithDetails(donor.getDonorId()).stream()
+                .map(DonationDto::getDonationId)
+                .toList();
+        assertEquals(7, expected.size());
+
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            List<Integer> walked = new ArrayList<>();
+            String cursor = null;
+            DonationPageDto page;
+            do {
+                page = donationService.getDonorHistoryPage(donor.getDonorId(), cursor, pageSize);
+                page.getItems().forEach(item -> walked.add(item.getDonationId()));
+                cursor = page.getNextCursor();
+                assertEquals(page.isHasMore(), cursor != null, "hasMore and nextCursor must agree");
+            } while (page.isHasMore());
+
+            assertEquals(expected, walked, "page size " + pageSize);
+        }
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> donationService.getDonorHistoryPage(donor.getDonorId(), "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> donationService.getDonorHistoryPage(donor.getDonorId(), "%%%", 10));
+    }
+
+    private Donation donate(LocalDateTime donatedAt) {
+        return entityManager.persist(Donation.builder()
+                .donor(donor).amount(BigDecimal.TEN).donatedAt(donatedAt)
+                .donationType(Donation.DonationType.ONE_TIME)
+                .purpose(Donation.DonationPurpose.GENERAL_SUPPORT).build());
+    }
+}
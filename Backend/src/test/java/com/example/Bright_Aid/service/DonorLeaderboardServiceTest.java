@@ -0,0 +1,83 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.LeaderboardEntryDto;
+import com.example.Bright_Aid.repository.DonorGamificationRepository;
+import com.example.Bright_Aid.repository.projection.DonorPointsView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DonorLeaderboardServiceTest {
+
+    private DonorLeaderboardService leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        DonorGamificationRepository repository = mock(DonorGamificationRepository.class);
+        when(repository.findAllPoints()).thenReturn(List.of(
+                row(1, "A", 500),
+                row(2, "B", 2500),
+                row(3, "C", 500),
+                row(4, "D", 505),
+                row(5, "E", 0)));
+        leaderboard = new DonorLeaderboardService(repository);
+        leaderboard.rebuild();
+    }
+
+    @Test
+    void tiedDonorsShareRank() {
+        assertEquals(1, leaderboard.getRank(2).getRank());
+        assertEquals(2, leaderboard.getRank(4).getRank());
+        assertEquals(3, leaderboard.getRank(1).getRank());
+        assertEquals(3, leaderboard.getRank(3).getRank());
+        assertEquals(5, leaderboard.getRank(5).getRank());
+        assertNull(leaderboard.getRank(99));
+    }
+
+    @Test
+    void topListAgreesWithRank() {
+        List<LeaderboardEntryDto> top = leaderboard.getTop(10);
+
+        assertEquals(5, top.size());
+        for (LeaderboardEntryDto entry : top) {
+            assertEquals(leaderboard.getRank(entry.getDonorId()).getRank(), entry.getRank());
+        }
+    }
+
+    @Test
+    void updatesMoveDonorsOutsideTransactions() {
+        leaderboard.updateAfterCommit(5, "E", 3000);
+        assertEquals(1, leaderboard.getRank(5).getRank());
+        assertEquals(2, leaderboard.getRank(2).getRank());
+
+        leaderboard.removeAfterCommit(2);
+        assertNull(leaderboard.getRank(2));
+        assertEquals(2, leaderboard.getRank(4).getRank());
+        assertEquals(4, leaderboard.size());
+    }
+
+    private static DonorPointsView row(int donorId, String name, int points) {
+        return new DonorPointsView() {
+            @Override
+            public Integer getDonorId() {
+                return donorId;
+            }
+
+            @Override
+            public String getDonorName() {
+                return name;
+            }
+
+            @Override
+            public Integer getTotalPoints() {
+                return points;
+            }
+        };
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.FundTransparencyDto;
+import com.example.Bright_Aid.Dto.NgoDto;
+import com.example.Bright_Aid.Dto.NgoProjectDonationsDTO;
+import com.example.Bright_Aid.Dto.NgoProjectSchoolDto;
+import com.example.Bright_Aid.Dto.NgoStudentDonationsDTO;
+import com.example.Bright_Aid.Entity.*;
+import com.example.Bright_Aid.config.HibernateStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Each rewritten lookup must stay a single query however many rows it returns: one page when the
+// caller pages, the whole sorted list when it does not. The persistence context is cleared before
+// every call, so lazy associations the DTO conversion touches would show up as extra statements.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({NgoService.class, NgoProjectSchoolService.class, FundTransparencyService.class,
+        NgoStudentDonationsService.class, NgoProjectDonationsService.class})
+class LookupQueryCountTest {
+
+    private static final int ROWS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private NgoService ngoService;
+    @Autowired
+    private NgoProjectSchoolService ngoProjectSchoolService;
+    @Autowired
+    private FundTransparencyService fundTransparencyService;
+    @Autowired
+    private NgoStudentDonationsService ngoStudentDonationsService;
+    @Autowired
+    private NgoProjectDonationsService ngoProjectDonationsService;
+
+    @MockitoBean
+    private NgoGamificationService ngoGamificationService;
+    @MockitoBean
+    private NgoImpactRollupService ngoImpactRollupService;
+
+    private Ngo firstNgo;
+    private NgoProject ngoProject;
+    private School school;
+    private FundUtilization utilization;
+
+    @BeforeEach
+    void seed() {
+        ProjectType projectType = entityManager.persist(ProjectType.builder()
+                .typeName("Library").typeCode("LIB").build());
+        school = entityManager.persist(School.builder()
+                .user(user("school")).schoolName("Hillside School").registrationNumber("SCH-1")
+                .schoolType(School.SchoolType.PRIMARY).build());
+
+        for (int i = 0; i < ROWS; i++) {
+            Ngo ngo = entityManager.persist(Ngo.builder()
+                    .user(user("ngo" + i)).ngoName("NGO " + i).registrationNumber("NGO-" + i)
+                    .verificationStatus(Ngo.VerificationStatus.VERIFIED).build());
+            if (i == 0) {
+                firstNgo = ngo;
+                ngoProject = entityManager.persist(NgoProject.builder()
+                        .ngo(ngo).projectName("Books for all").projectType(projectType).build());
+            }
+            entityManager.persist(NgoProjectSchool.builder()
+                    .ngoProject(ngoProject).school(school).projectType(projectType)
+                    .participationStatus(NgoProjectSchool.ParticipationStatus.ACTIVE)
+                    .allocatedBudget(BigDecimal.valueOf(1000)).build());
+        }
+
+        Donor donor = entityManager.persist(Donor.builder().user(user("donor")).donorName("Donor").build());
+        SchoolProject schoolProject = entityManager.persist(SchoolProject.builder()
+                .school(school).projectTitle("New roof").projectType(projectType).build());
+        Donation donation = entityManager.persist(Donation.builder()
+                .donor(donor).project(schoolProject).amount(BigDecimal.valueOf(500))
+                .donationType(Donation.DonationType.ONE_TIME)
+                .purpose(Donation.DonationPurpose.SCHOOL_PROJECT).build());
+        utilization = entityManager.persist(FundUtilization.builder()
+                .donation(donation).project(schoolProject).amountUsed(BigDecimal.valueOf(400)).build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(FundTransparency.builder()
+                    .utilization(utilization).isPublic(true).build());
+            entityManager.persist(NgoStudentDonations.builder()
+                    .ngoId(firstNgo.getNgoId()).studentId(1).amount(BigDecimal.TEN)
+                    .donatedAt(now.minusDays(i)).build());
+            entityManager.persist(NgoProjectDonations.builder()
+                    .ngoId(firstNgo.getNgoId()).projectId(ngoProject.getNgoProjectId()).amount(BigDecimal.TEN)
+                    .donatedAt(now.minusDays(i)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ngoLookupsRunOneQuery() {
+        assertEquals(ROWS, singleQuery(() -> ngoService.getNgosByVerificationStatus(
+                Ngo.VerificationStatus.VERIFIED, 0, 50)).size());
+        assertEquals(ROWS, singleQuery(() -> ngoService.getVerifiedNgos(0, 50)).size());
+        assertEquals(0, singleQuery(() -> ngoService.getPendingNgos(0, 50)).size());
+
+        NgoDto byUser = singleQuery(() -> ngoService.getNgoByUserId(firstNgo.getUser().getUserId()));
+        assertEquals(firstNgo.getNgoId(), byUser.getNgoId());
+        NgoDto byRegistration = singleQuery(() -> ngoService.getNgoByRegistrationNumber("NGO-0"));
+        assertEquals(firstNgo.getNgoId(), byRegistration.getNgoId());
+    }
+
+    @Test
+    void ngoProjectSchoolLookupsRunOneQuery() {
+        List<NgoProjectSchoolDto> byProject = singleQuery(() -> ngoProjectSchoolService
+                .getNgoProjectSchoolsByNgoProjectId(ngoProject.getNgoProjectId(), 0, 50));
+        assertEquals(ROWS, byProject.size());
+        assertEquals("Hillside School", byProject.get(0).getSchoolName());
+
+        assertEquals(ROWS, singleQuery(() -> ngoProjectSchoolService
+                .getNgoProjectSchoolsBySchoolId(school.getSchoolId(), 0, 50)).size());
+        assertEquals(ROWS, singleQuery(() -> ngoProjectSchoolService
+                .getNgoProjectSchoolsByParticipationStatus("active", 0, 50)).size());
+    }
+
+    @Test
+    void fundTransparencyLookupsRunOneQuery() {
+        List<FundTransparencyDto> publicFeed = singleQuery(() -> fundTransparencyService
+                .getPublicFundTransparencies(0, 50));
+        assertEquals(ROWS, publicFeed.size());
+        assertEquals(utilization.getUtilizationId(), publicFeed.get(0).getUtilizationId());
+
+        assertEquals(ROWS, singleQuery(() -> fundTransparencyService
+                .getFundTransparenciesByUtilization(utilization.getUtilizationId(), 0, 50)).size());
+    }
+
+    @Test
+    void donationsByNgoRunOneQueryNewestFirst() {
+        List<NgoStudentDonationsDTO> studentDonations = singleQuery(() -> ngoStudentDonationsService
+                .getByNgoId(firstNgo.getNgoId(), 0, 50));
+        assertEquals(ROWS, studentDonations.size());
+        assertEquals(1, studentDonations.get(0).getDonatedAt().compareTo(studentDonations.get(1).getDonatedAt()));
+
+        List<NgoProjectDonationsDTO> projectDonations = singleQuery(() -> ngoProjectDonationsService
+                .getByNgoId(firstNgo.getNgoId(), 0, 50));
+        assertEquals(ROWS, projectDonations.size());
+    }
+
+    @Test
+    void lookupsReturnOnePage() {
+        assertEquals(2, ngoService.getVerifiedNgos(0, 2).size());
+        assertEquals(1, ngoService.getVerifiedNgos(2, 2).size());
+        assertEquals(2, ngoProjectSchoolService.getNgoProjectSchoolsBySchoolId(school.getSchoolId(), 1, 2).size());
+        assertEquals(3, fundTransparencyService.getPublicFundTransparencies(0, 3).size());
+        assertEquals(1, ngoStudentDonationsService.getByNgoId(firstNgo.getNgoId(), 4, 1).size());
+        assertEquals(ROWS, ngoProjectDonationsService.getByNgoId(firstNgo.getNgoId(), 0, null).size());
+    }
+
+    @Test
+    void outOfRangePageRequestsAreRejected() {
+        // Rejected rather than cut down, so a caller never takes a short page for the end of the list
+        assertThrows(IllegalArgumentException.class,
+                () -> ngoProjectDonationsService.getByNgoId(firstNgo.getNgoId(), 0, 100_000));
+        assertThrows(IllegalArgumentException.class, () -> ngoService.getVerifiedNgos(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> fundTransparencyService.getPublicFundTransparencies(null, 0));
+    }
+
+    @Test
+    void unpagedLookupsReturnTheWholeListInOneQuery() {
+        // More rows than one page may hold: without page and size nothing is cut off
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        for (int i = 0; i < 600; i++) {
+            entityManager.persist(NgoStudentDonations.builder()
+                    .ngoId(firstNgo.getNgoId()).studentId(1).amount(BigDecimal.ONE)
+                    .donatedAt(start.plusMinutes(i)).build());
+        }
+        entityManager.flush();
+
+        List<NgoStudentDonationsDTO> all = singleQuery(() -> ngoStudentDonationsService
+                .getByNgoId(firstNgo.getNgoId(), null, null));
+        assertEquals(ROWS + 600, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getDonatedAt().compareTo(all.get(i).getDonatedAt()) >= 0, "newest first at " + i);
+        }
+
+        assertEquals(ROWS, singleQuery(() -> ngoService.getVerifiedNgos(null, null)).size());
+        assertEquals(ROWS, singleQuery(() -> ngoProjectSchoolService
+                .getNgoProjectSchoolsBySchoolId(school.getSchoolId(), null, null)).size());
+        assertEquals(ROWS, singleQuery(() -> fundTransparencyService.getPublicFundTransparencies(null, null)).size());
+    }
+
+    private <T> T singleQuery(Supplier<T> lookup) {
+        entityManager.clear();
+        HibernateStatementCounter.start();
+        T result;
+        try {
+            result = lookup.get();
+        } finally {
+            long statements = HibernateStatementCounter.stop();
+            assertEquals(1, statements, "statements issued by the lookup");
+        }
+        return result;
+    }
+
+    private User user(String name) {
+        return entityManager.persist(User.builder()
+                .email(name + "@example.org").username(name).passwordHash("hash").build());
+    }
+}
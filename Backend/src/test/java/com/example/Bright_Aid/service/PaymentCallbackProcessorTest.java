@@ -0,0 +1,107 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Entity.PaymentTransaction;
+import com.example.Bright_Aid.Entity.ProcessedCallback;
+import com.example.Bright_Aid.repository.PaymentTransactionRepository;
+import com.example.Bright_Aid.repository.ProcessedCallbackRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Callbacks are deduplicated per (reference, outcome): a replay of the same outcome is dropped,
+// but a SUCCESS arriving after a recorded FAIL/CANCEL still reaches the status transition.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({PaymentCallbackProcessor.class, PaymentTransactionService.class})
+class PaymentCallbackProcessorTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private PaymentCallbackProcessor processor;
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+    @Autowired
+    private ProcessedCallbackRepository processedCallbackRepository;
+
+    @MockitoBean
+    private OutboxService outboxService;
+    @MockitoBean
+    private SslCommerzGatewayClient sslCommerzGatewayClient;
+
+    @Test
+    void successAfterFailIsNotDroppedAsReplay() {
+        transaction("TXN-FAIL", PaymentTransaction.TransactionStatus.PENDING, null);
+
+        assertTrue(processor.process("TXN-FAIL", "FAILED", Map.of(), "FAIL"));
+        assertEquals(PaymentTransaction.TransactionStatus.FAILED, statusOf("TXN-FAIL"));
+
+        // The row is final, so nothing changes, but the SUCCESS is recorded for reconciliation
+        assertFalse(processor.process("TXN-FAIL", "VALID", Map.of(), "IPN"));
+        assertEquals(PaymentTransaction.TransactionStatus.FAILED, statusOf("TXN-FAIL"));
+        assertEquals(List.of(PaymentTransaction.TransactionStatus.FAILED, PaymentTransaction.TransactionStatus.SUCCESS),
+                ledgerOf("TXN-FAIL"));
+        verify(outboxService, never()).recordPaymentCompleted(any());
+    }
+
+    @Test
+    void lateSuccessAfterCancelOverridesSweeperExpiry() {
+        transaction("TXN-LATE", PaymentTransaction.TransactionStatus.CANCELLED, StalePaymentSweeper.EXPIRY_REASON);
+        // Browser cancel recorded against the expired row first
+        assertFalse(processor.process("TXN-LATE", "CANCELLED", Map.of(), "CANCEL"));
+
+        assertTrue(processor.process("TXN-LATE", "VALID", Map.of("bank_tran_id", "BANK-1"), "IPN"));
+        assertEquals(PaymentTransaction.TransactionStatus.SUCCESS, statusOf("TXN-LATE"));
+        verify(outboxService).recordStatusChange(any(), eq("TXN-LATE"), eq(PaymentTransaction.TransactionStatus.SUCCESS));
+        verify(outboxService).recordPaymentCompleted(any());
+    }
+
+    @Test
+    void replayOfSameOutcomeIsDropped() {
+        transaction("TXN-REPLAY", PaymentTransaction.TransactionStatus.PENDING, null);
+
+        assertTrue(processor.process("TXN-REPLAY", "VALID", Map.of(), "SUCCESS"));
+        assertFalse(processor.process("TXN-REPLAY", "VALIDATED", Map.of(), "IPN"));
+        assertEquals(List.of(PaymentTransaction.TransactionStatus.SUCCESS), ledgerOf("TXN-REPLAY"));
+        verify(outboxService, times(1)).recordPaymentCompleted(any());
+    }
+
+    private void transaction(String reference, PaymentTransaction.TransactionStatus status, String message) {
+        entityManager.persist(PaymentTransaction.builder()
+                .transactionReference(reference).amount(BigDecimal.valueOf(500)).currency("BDT")
+                .transactionType(PaymentTransaction.TransactionType.DONATION)
+                .paymentMethod(PaymentTransaction.PaymentMethod.CARD)
+                .status(status).gatewayResponseMessage(message)
+                .initiatedAt(LocalDateTime.now().minusHours(1)).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private PaymentTransaction.TransactionStatus statusOf(String reference) {
+        entityManager.clear();
+        return paymentTransactionRepository.findByTransactionReference(reference).orElseThrow().getStatus();
+    }
+
+    private List<PaymentTransaction.TransactionStatus> ledgerOf(String reference) {
+        return processedCallbackRepository.findAll().stream()
+                .filter(row -> row.getTransactionReference().equals(reference))
+                .map(ProcessedCallback::getResultingStatus)
+                .toList();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.Bright_Aid.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointsRankIndexTest {
+
+    @Test
+    void countsOnlyStrictlyHigherPoints() {
+        PointsRankIndex index = new PointsRankIndex();
+        index.add(500);
+        index.add(500);
+        index.add(450);
+        index.add(1200);
+
+        assertEquals(0, index.countAbove(1200));
+        assertEquals(1, index.countAbove(500));
+        assertEquals(3, index.countAbove(450));
+        assertEquals(4, index.countAbove(0));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void adjacentValuesAreExact() {
+        PointsRankIndex index = new PointsRankIndex();
+        index.add(99);
+        index.add(100);
+        index.add(199);
+        index.add(200);
+
+        assertEquals(3, index.countAbove(99));
+        assertEquals(2, index.countAbove(100));
+        assertEquals(1, index.countAbove(199));
+        assertEquals(0, index.countAbove(200));
+    }
+
+    @Test
+    void removeUndoesAdd() {
+        PointsRankIndex index = new PointsRankIndex();
+        index.add(55);
+        index.add(55);
+        index.add(70);
+        index.remove(55);
+        index.remove(70);
+
+        assertEquals(0, index.countAbove(55));
+        assertEquals(1, index.countAbove(54));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void outlierValuesCostOneNode() {
+        PointsRankIndex index = new PointsRankIndex();
+        index.add(5);
+        index.add(Integer.MAX_VALUE);
+        index.add(2_000);
+
+        assertEquals(2, index.countAbove(5));
+        assertEquals(1, index.countAbove(2_000));
+        assertEquals(0, index.countAbove(Integer.MAX_VALUE));
+        assertEquals(2, index.height());
+    }
+
+    @Test
+    void staysBalancedUnderSortedInserts() {
+        PointsRankIndex index = new PointsRankIndex();
+        for (int points = 0; points < 100_000; points++) {
+            index.add(points);
+        }
+        // AVL bound for 100k values is about 24
+        assertTrue(index.height() <= 24, "height " + index.height());
+        assertEquals(99_999, index.countAbove(0));
+
+        for (int points = 0; points < 100_000; points += 2) {
+            index.remove(points);
+        }
+        assertTrue(index.height() <= 23, "height " + index.height());
+        assertEquals(50_000, index.size());
+        assertEquals(25_000, index.countAbove(49_999));
+    }
+
+    @Test
+    void negativePointsCountAsZero() {
+        PointsRankIndex index = new PointsRankIndex();
+        index.add(-20);
+        index.add(0);
+        index.add(10);
+
+        assertEquals(1, index.countAbove(0));
+        assertEquals(1, index.countAbove(-20));
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomUpdates() {
+        Random random = new Random(42);
+        PointsRankIndex index = new PointsRankIndex();
+        List<Integer> points = new ArrayList<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            if (!points.isEmpty() && random.nextInt(3) == 0) {
+                index.remove(points.remove(random.nextInt(points.size())));
+            } else {
+                // Multiples of 5 like real awards, so ties are frequent
+                int value = random.nextInt(4_000) * 5;
+                points.add(value);
+                index.add(value);
+            }
+
+            int probe = random.nextInt(20_100);
+            long expected = points.stream().filter(p -> p > probe).count();
+            assertEquals(expected, index.countAbove(probe), "countAbove(" + probe + ") at step " + step);
+        }
+        assertEquals(points.size(), index.size());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.Bright_Aid.service;
+
+import com.example.Bright_Aid.Dto.SchoolProjectDto;
+import com.example.Bright_Aid.Entity.*;
+import com.example.Bright_Aid.config.HibernateStatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The project listing is one fetch of the projects plus one grouped query each for the raised
+// amounts and the latest progress, however many projects there are. The persistence context is
+// cleared before the call, so a per-project lazy load or enrichment query would add statements.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(SchoolProjectService.class)
+class SchoolProjectQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private SchoolProjectService schoolProjectService;
+
+    @Test
+    void listingRunsThreeStatementsForOneProject() {
+        seed(1);
+        assertEquals(1, listAndCount().size());
+    }
+
+    @Test
+    void listingRunsThreeStatementsForManyProjects() {
+        List<SchoolProject> projects = seed(12);
+
+        Map<Integer, SchoolProjectDto> listed = listAndCount().stream()
+                .collect(Collectors.toMap(SchoolProjectDto::getProjectId, Function.identity()));
+        assertEquals(projects.size(), listed.size());
+
+        // Every third project has no completed donation and no progress update
+        for (int i = 0; i < projects.size(); i++) {
+            SchoolProjectDto dto = listed.get(projects.get(i).getProjectId());
+            boolean enriched = i % 3 != 0;
+            assertEquals(0, (enriched ? BigDecimal.valueOf(100 + 10 * i) : BigDecimal.ZERO)
+                    .compareTo(dto.getRaisedAmount()), "raised amount of project " + i);
+            assertEquals(enriched ? 50.0 + i : 0.0, dto.getCompletionRate(), "completion rate of project " + i);
+            assertEquals("Library", dto.getProjectTypeName());
+        }
+    }
+
+    private List<SchoolProjectDto> listAndCount() {
+        entityManager.clear();
+        HibernateStatementCounter.start();
+        List<SchoolProjectDto> result;
+        try {
+            result = schoolProjectService.getAllSchoolProjects();
+        } finally {
+            long statements = HibernateStatementCounter.stop();
+            assertEquals(3, statements, "statements issued by getAllSchoolProjects");
+        }
+        return result;
+    }
+
+    // Projects spread over two schools; all but every third get two completed donations, a pending
+    // one that must not count, and two progress updates of which the later one wins
+    private List<SchoolProject> seed(int count) {
+        ProjectType projectType = entityManager.persist(ProjectType.builder()
+                .typeName("Library").typeCode("LIB").build());
+        School[] schools = {school("north"), school("south")};
+        Donor donor = entityManager.persist(Donor.builder().user(user("donor")).donorName("Donor").build());
+
+        List<SchoolProject> projects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SchoolProject project = entityManager.persist(SchoolProject.builder()
+                    .school(schools[i % 2]).projectTitle("Project " + i).projectType(projectType)
+                    .requiredAmount(BigDecimal.valueOf(1000)).build());
+            projects.add(project);
+            if (i % 3 == 0) {
+                continue;
+            }
+            donation(donor, project, BigDecimal.valueOf(40 + 10 * i), Donation.PaymentStatus.COMPLETED);
+            donation(donor, project, BigDecimal.valueOf(60), Donation.PaymentStatus.COMPLETED);
+            donation(donor, project, BigDecimal.valueOf(999), Donation.PaymentStatus.PENDING);
+            progress(project, 10);
+            progress(project, 50 + i);
+        }
+        entityManager.flush();
+        return projects;
+    }
+
+    private void donation(Donor donor, SchoolProject project, BigDecimal amount, Donation.PaymentStatus status) {
+        entityManager.persist(Donation.builder()
+                .donor(donor).project(project).amount(amount).paymentStatus(status)
+                .donationType(Donation.DonationType.ONE_TIME)
+                .purpose(Donation.DonationPurpose.SCHOOL_PROJECT).build());
+    }
+
+    private void progress(SchoolProject project, int percentage) {
+        entityManager.persist(ProjectUpdate.builder()
+                .project(project).updateTitle("Progress").progressPercentage(BigDecimal.valueOf(percentage)).build());
+    }
+
+    private School school(String name) {
+        return entityManager.persist(School.builder()
+                .user(user(name)).schoolName(name + " school").registrationNumber("SCH-" + name)
+                .schoolType(School.SchoolType.PRIMARY).build());
+    }
+
+    private User user(String name) {
+        return entityManager.persist(User.builder()
+                .email(name + "@example.org").username(name).passwordHash("hash").build());
+    }
+}
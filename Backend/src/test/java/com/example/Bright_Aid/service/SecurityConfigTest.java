@@ -0,0 +1,45 @@
+package com.example.Bright_Aid.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityConfigTest {
+
+    @Test
+    void prometheusIsLimitedToLoopbackByDefault() {
+        AuthorizationManager<RequestAuthorizationContext> rule = rule(List.of("127.0.0.1", "::1"));
+
+        assertTrue(allows(rule, "127.0.0.1"));
+        assertTrue(allows(rule, "0:0:0:0:0:0:0:1"));
+        assertFalse(allows(rule, "203.0.113.7"));
+    }
+
+    @Test
+    void prometheusAcceptsConfiguredScraperRanges() {
+        AuthorizationManager<RequestAuthorizationContext> rule = rule(List.of(" 10.0.0.0/24", ""));
+
+        assertTrue(allows(rule, "10.0.0.42"));
+        assertFalse(allows(rule, "10.0.1.42"));
+        assertFalse(allows(rule, "127.0.0.1"));
+    }
+
+    private static AuthorizationManager<RequestAuthorizationContext> rule(List<String> addresses) {
+        SecurityConfig config = new SecurityConfig(null);
+        ReflectionTestUtils.setField(config, "prometheusAllowedAddresses", addresses);
+        return config.prometheusScraperOnly();
+    }
+
+    private static boolean allows(AuthorizationManager<RequestAuthorizationContext> rule, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.setRemoteAddr(remoteAddress);
+        return rule.authorize(() -> null, new RequestAuthorizationContext(request)).isGranted();
+    }
+}